@@ -0,0 +1,13 @@
+package com.infnet.companyX.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class CompanyXReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CompanyXReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.infnet.companyX.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.IdGeneratingEntityCallback;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+@Configuration
+public class R2dbcConfig {
+
+    /**
+     * O auto-configure do Spring Boot não registra o callback que preenche os ids
+     * anotados com {@code @Sequence}; sem ele o INSERT sai com id nulo. Cada inclusão
+     * consome um valor das sequências de passo 50 criadas pela migração. O nome da
+     * sequência vai entre aspas no SQL, por isso as entidades o declaram em maiúsculas,
+     * como o H2 o guarda.
+     */
+    @Bean
+    public IdGeneratingEntityCallback idGeneratingEntityCallback(R2dbcMappingContext mappingContext, DatabaseClient databaseClient) {
+        return new IdGeneratingEntityCallback(mappingContext,
+                DialectResolver.getDialect(databaseClient.getConnectionFactory()), databaseClient);
+    }
+}
@@ -0,0 +1,165 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Cliente;
+import com.infnet.companyX.reactive.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/clientes")
+public class ClienteController {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Cliente>>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Cliente> clientes = clienteRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Cliente> exportar() {
+        return clienteRepository.findByAtivoTrueOrderByIdAsc();
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<List<Cliente>>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit) {
+        return clienteRepository.findByNomeContainingAndAtivoTrue(nome, Limit.of(Paginacao.tamanho(limit)))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Cliente>> buscarPorId(@PathVariable Long id) {
+        return Respostas.okOuNaoEncontrado(clienteRepository.findById(id).filter(Cliente::getAtivo));
+    }
+
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<Cliente>> buscarPorEmail(@PathVariable String email) {
+        return Respostas.okOuNaoEncontrado(clienteRepository.findByEmail(email).filter(Cliente::getAtivo));
+    }
+
+    @GetMapping("/cpf/{cpf}")
+    public Mono<ResponseEntity<Cliente>> buscarPorCpf(@PathVariable String cpf) {
+        return Respostas.okOuNaoEncontrado(clienteRepository.findByCpf(cpf).filter(Cliente::getAtivo));
+    }
+
+    @GetMapping("/cnpj/{cnpj}")
+    public Mono<ResponseEntity<Cliente>> buscarPorCnpj(@PathVariable String cnpj) {
+        return Respostas.okOuNaoEncontrado(clienteRepository.findByCnpj(cnpj).filter(Cliente::getAtivo));
+    }
+
+    @GetMapping("/tipo/{tipo}")
+    public Mono<ResponseEntity<List<Cliente>>> buscarPorTipoPessoa(
+            @PathVariable String tipo,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Cliente.TipoPessoa tipoPessoa;
+        try {
+            tipoPessoa = Cliente.TipoPessoa.valueOf(tipo.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Respostas.requisicaoInvalida();
+        }
+        Flux<Cliente> clientes = clienteRepository.findByTipoPessoaAndIdGreaterThanOrderByIdAsc(tipoPessoa, after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
+    }
+
+    @GetMapping("/cidade/{cidade}")
+    public Mono<ResponseEntity<List<Cliente>>> buscarPorCidade(
+            @PathVariable String cidade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Cliente> clientes = clienteRepository.findByCidadeAndIdGreaterThanOrderByIdAsc(cidade, after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
+    }
+
+    @GetMapping("/estado/{estado}")
+    public Mono<ResponseEntity<List<Cliente>>> buscarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Cliente> clientes = clienteRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Cliente>> criar(@RequestBody Cliente cliente) {
+        if (cliente.getTipoPessoa() == Cliente.TipoPessoa.FISICA && cliente.getCpf() == null) {
+            return Respostas.requisicaoInvalida();
+        }
+
+        if (cliente.getTipoPessoa() == Cliente.TipoPessoa.JURIDICA && cliente.getCnpj() == null) {
+            return Respostas.requisicaoInvalida();
+        }
+
+        return chaveEmUso(cliente, null)
+                .flatMap(emUso -> {
+                    if (emUso) {
+                        return Respostas.<Cliente>requisicaoInvalida();
+                    }
+                    cliente.setId(null);
+                    cliente.setAtivo(true);
+                    cliente.onCreate();
+                    return Respostas.criado(clienteRepository.save(cliente));
+                })
+                .onErrorResume(e -> Respostas.requisicaoInvalida());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Cliente>> atualizar(@PathVariable Long id, @RequestBody Cliente clienteAtualizado) {
+        return clienteRepository.findById(id)
+                .filter(Cliente::getAtivo)
+                .flatMap(cliente -> chaveEmUso(clienteAtualizado, id)
+                        .flatMap(emUso -> {
+                            if (emUso) {
+                                return Respostas.<Cliente>requisicaoInvalida();
+                            }
+                            cliente.setNome(clienteAtualizado.getNome());
+                            cliente.setEmail(clienteAtualizado.getEmail());
+                            cliente.setTelefone(clienteAtualizado.getTelefone());
+                            cliente.setCpf(clienteAtualizado.getCpf());
+                            cliente.setCnpj(clienteAtualizado.getCnpj());
+                            cliente.setTipoPessoa(clienteAtualizado.getTipoPessoa());
+                            cliente.setEndereco(clienteAtualizado.getEndereco());
+                            cliente.setCidade(clienteAtualizado.getCidade());
+                            cliente.setEstado(clienteAtualizado.getEstado());
+                            cliente.setCep(clienteAtualizado.getCep());
+                            cliente.setDataNascimento(clienteAtualizado.getDataNascimento());
+                            return clienteRepository.save(cliente).map(ResponseEntity::ok);
+                        })
+                        .onErrorResume(e -> Respostas.requisicaoInvalida()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> excluir(@PathVariable Long id) {
+        return clienteRepository.findById(id)
+                .filter(Cliente::getAtivo)
+                .flatMap(cliente -> {
+                    cliente.setAtivo(false);
+                    return clienteRepository.save(cliente).thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<Boolean> chaveEmUso(Cliente cliente, Long proprioId) {
+        Mono<Boolean> email = Respostas.emUsoPorOutro(clienteRepository.findByEmail(cliente.getEmail()), Cliente::getId, proprioId);
+        Mono<Boolean> cpf = cliente.getCpf() == null ? Mono.just(false)
+                : Respostas.emUsoPorOutro(clienteRepository.findByCpf(cliente.getCpf()), Cliente::getId, proprioId);
+        Mono<Boolean> cnpj = cliente.getCnpj() == null ? Mono.just(false)
+                : Respostas.emUsoPorOutro(clienteRepository.findByCnpj(cliente.getCnpj()), Cliente::getId, proprioId);
+        return Flux.concat(email, cpf, cnpj).any(Boolean::booleanValue);
+    }
+}
@@ -0,0 +1,141 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Fornecedor;
+import com.infnet.companyX.reactive.repository.FornecedorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fornecedores")
+public class FornecedorController {
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Fornecedor>>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Fornecedor> fornecedores = fornecedorRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Fornecedor> exportar() {
+        return fornecedorRepository.findByAtivoTrueOrderByIdAsc();
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<List<Fornecedor>>> buscarPorNome(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String razaoSocial,
+            @RequestParam(required = false) Integer limit) {
+        if (nome == null && razaoSocial == null) {
+            return Respostas.requisicaoInvalida();
+        }
+
+        Limit tamanho = Limit.of(Paginacao.tamanho(limit));
+        Flux<Fornecedor> fornecedores = nome != null
+                ? fornecedorRepository.findByNomeContainingAndAtivoTrue(nome, tamanho)
+                : fornecedorRepository.findByRazaoSocialContainingAndAtivoTrue(razaoSocial, tamanho);
+        return fornecedores.collectList().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Fornecedor>> buscarPorId(@PathVariable Long id) {
+        return Respostas.okOuNaoEncontrado(fornecedorRepository.findById(id).filter(Fornecedor::getAtivo));
+    }
+
+    @GetMapping("/cnpj/{cnpj}")
+    public Mono<ResponseEntity<Fornecedor>> buscarPorCnpj(@PathVariable String cnpj) {
+        return Respostas.okOuNaoEncontrado(fornecedorRepository.findByCnpj(cnpj).filter(Fornecedor::getAtivo));
+    }
+
+    @GetMapping("/cidade/{cidade}")
+    public Mono<ResponseEntity<List<Fornecedor>>> buscarPorCidade(
+            @PathVariable String cidade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Fornecedor> fornecedores = fornecedorRepository.findByCidadeAndIdGreaterThanOrderByIdAsc(cidade, after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
+    }
+
+    @GetMapping("/estado/{estado}")
+    public Mono<ResponseEntity<List<Fornecedor>>> buscarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Fornecedor> fornecedores = fornecedorRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
+    }
+
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<Fornecedor>> buscarPorEmail(@PathVariable String email) {
+        return Respostas.okOuNaoEncontrado(fornecedorRepository.findByEmail(email).filter(Fornecedor::getAtivo));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Fornecedor>> criar(@RequestBody Fornecedor fornecedor) {
+        return chaveEmUso(fornecedor, null)
+                .flatMap(emUso -> {
+                    if (emUso) {
+                        return Respostas.<Fornecedor>requisicaoInvalida();
+                    }
+                    fornecedor.setId(null);
+                    fornecedor.setAtivo(true);
+                    fornecedor.onCreate();
+                    return Respostas.criado(fornecedorRepository.save(fornecedor));
+                })
+                .onErrorResume(e -> Respostas.requisicaoInvalida());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Fornecedor>> atualizar(@PathVariable Long id, @RequestBody Fornecedor fornecedorAtualizado) {
+        return fornecedorRepository.findById(id)
+                .filter(Fornecedor::getAtivo)
+                .flatMap(fornecedor -> chaveEmUso(fornecedorAtualizado, id)
+                        .flatMap(emUso -> {
+                            if (emUso) {
+                                return Respostas.<Fornecedor>requisicaoInvalida();
+                            }
+                            fornecedor.setNome(fornecedorAtualizado.getNome());
+                            fornecedor.setRazaoSocial(fornecedorAtualizado.getRazaoSocial());
+                            fornecedor.setCnpj(fornecedorAtualizado.getCnpj());
+                            fornecedor.setEmail(fornecedorAtualizado.getEmail());
+                            fornecedor.setTelefone(fornecedorAtualizado.getTelefone());
+                            fornecedor.setEndereco(fornecedorAtualizado.getEndereco());
+                            fornecedor.setCidade(fornecedorAtualizado.getCidade());
+                            fornecedor.setEstado(fornecedorAtualizado.getEstado());
+                            fornecedor.setCep(fornecedorAtualizado.getCep());
+                            fornecedor.setPessoaContato(fornecedorAtualizado.getPessoaContato());
+                            fornecedor.setTelefoneContato(fornecedorAtualizado.getTelefoneContato());
+                            return fornecedorRepository.save(fornecedor).map(ResponseEntity::ok);
+                        })
+                        .onErrorResume(e -> Respostas.requisicaoInvalida()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> excluir(@PathVariable Long id) {
+        return fornecedorRepository.findById(id)
+                .filter(Fornecedor::getAtivo)
+                .flatMap(fornecedor -> {
+                    fornecedor.setAtivo(false);
+                    return fornecedorRepository.save(fornecedor).thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<Boolean> chaveEmUso(Fornecedor fornecedor, Long proprioId) {
+        Mono<Boolean> cnpj = Respostas.emUsoPorOutro(fornecedorRepository.findByCnpj(fornecedor.getCnpj()), Fornecedor::getId, proprioId);
+        Mono<Boolean> email = Respostas.emUsoPorOutro(fornecedorRepository.findByEmail(fornecedor.getEmail()), Fornecedor::getId, proprioId);
+        return Flux.concat(cnpj, email).any(Boolean::booleanValue);
+    }
+}
@@ -0,0 +1,126 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Funcionario;
+import com.infnet.companyX.reactive.repository.FuncionarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/funcionarios")
+public class FuncionarioController {
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Funcionario>>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Funcionario> funcionarios = funcionarioRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Funcionario> exportar() {
+        return funcionarioRepository.findByAtivoTrueOrderByIdAsc();
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<List<Funcionario>>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit) {
+        return funcionarioRepository.findByNomeContainingAndAtivoTrue(nome, Limit.of(Paginacao.tamanho(limit)))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Funcionario>> buscarPorId(@PathVariable Long id) {
+        return Respostas.okOuNaoEncontrado(funcionarioRepository.findById(id).filter(Funcionario::getAtivo));
+    }
+
+    @GetMapping("/departamento/{departamento}")
+    public Mono<ResponseEntity<List<Funcionario>>> buscarPorDepartamento(
+            @PathVariable String departamento,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Funcionario> funcionarios = funcionarioRepository.findByDepartamentoAndIdGreaterThanOrderByIdAsc(departamento, after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
+    }
+
+    @GetMapping("/cargo/{cargo}")
+    public Mono<ResponseEntity<List<Funcionario>>> buscarPorCargo(
+            @PathVariable String cargo,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Funcionario> funcionarios = funcionarioRepository.findByCargoAndIdGreaterThanOrderByIdAsc(cargo, after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
+    }
+
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<Funcionario>> buscarPorEmail(@PathVariable String email) {
+        return Respostas.okOuNaoEncontrado(funcionarioRepository.findByEmail(email).filter(Funcionario::getAtivo));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Funcionario>> criar(@RequestBody Funcionario funcionario) {
+        return chaveEmUso(funcionario, null)
+                .flatMap(emUso -> {
+                    if (emUso) {
+                        return Respostas.<Funcionario>requisicaoInvalida();
+                    }
+                    funcionario.setId(null);
+                    funcionario.setAtivo(true);
+                    return Respostas.criado(funcionarioRepository.save(funcionario));
+                })
+                .onErrorResume(e -> Respostas.requisicaoInvalida());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Funcionario>> atualizar(@PathVariable Long id, @RequestBody Funcionario funcionarioAtualizado) {
+        return funcionarioRepository.findById(id)
+                .filter(Funcionario::getAtivo)
+                .flatMap(funcionario -> chaveEmUso(funcionarioAtualizado, id)
+                        .flatMap(emUso -> {
+                            if (emUso) {
+                                return Respostas.<Funcionario>requisicaoInvalida();
+                            }
+                            funcionario.setNome(funcionarioAtualizado.getNome());
+                            funcionario.setEmail(funcionarioAtualizado.getEmail());
+                            funcionario.setCargo(funcionarioAtualizado.getCargo());
+                            funcionario.setDepartamento(funcionarioAtualizado.getDepartamento());
+                            funcionario.setSalario(funcionarioAtualizado.getSalario());
+                            funcionario.setDataAdmissao(funcionarioAtualizado.getDataAdmissao());
+                            funcionario.setTelefone(funcionarioAtualizado.getTelefone());
+                            funcionario.setCpf(funcionarioAtualizado.getCpf());
+                            return funcionarioRepository.save(funcionario).map(ResponseEntity::ok);
+                        })
+                        .onErrorResume(e -> Respostas.requisicaoInvalida()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> excluir(@PathVariable Long id) {
+        return funcionarioRepository.findById(id)
+                .filter(Funcionario::getAtivo)
+                .flatMap(funcionario -> {
+                    funcionario.setAtivo(false);
+                    return funcionarioRepository.save(funcionario).thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<Boolean> chaveEmUso(Funcionario funcionario, Long proprioId) {
+        Mono<Boolean> email = Respostas.emUsoPorOutro(funcionarioRepository.findByEmail(funcionario.getEmail()), Funcionario::getId, proprioId);
+        Mono<Boolean> cpf = funcionario.getCpf() == null ? Mono.just(false)
+                : Respostas.emUsoPorOutro(funcionarioRepository.findByCpf(funcionario.getCpf()), Funcionario::getId, proprioId);
+        return Flux.concat(email, cpf).any(Boolean::booleanValue);
+    }
+}
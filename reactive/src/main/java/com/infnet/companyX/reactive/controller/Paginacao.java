@@ -0,0 +1,48 @@
+package com.infnet.companyX.reactive.controller;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class Paginacao {
+
+    public static final String CABECALHO_PROXIMO = "X-Next-Cursor";
+
+    public static final int LIMITE_PADRAO = 100;
+
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private Paginacao() {
+    }
+
+    public static int tamanho(Integer limit) {
+        if (limit == null) {
+            return LIMITE_PADRAO;
+        }
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Busca um registro a mais que o tamanho da página para saber se existe uma próxima.
+     */
+    public static Limit limite(Integer limit) {
+        return Limit.of(tamanho(limit) + 1);
+    }
+
+    public static <T> Mono<ResponseEntity<List<T>>> responder(Flux<T> itens, Integer limit, Function<T, Long> id) {
+        int tamanho = tamanho(limit);
+        return itens.collectList().map(lista -> {
+            if (lista.size() <= tamanho) {
+                return ResponseEntity.ok(lista);
+            }
+            List<T> pagina = lista.subList(0, tamanho);
+            return ResponseEntity.ok()
+                    .header(CABECALHO_PROXIMO, String.valueOf(id.apply(pagina.get(tamanho - 1))))
+                    .body(pagina);
+        });
+    }
+}
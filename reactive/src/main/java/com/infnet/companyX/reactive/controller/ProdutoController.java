@@ -0,0 +1,144 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Produto;
+import com.infnet.companyX.reactive.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/produtos")
+public class ProdutoController {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Produto>>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Produto> produtos = produtoRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Produto> exportar() {
+        return produtoRepository.findByAtivoTrueOrderByIdAsc();
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<List<Produto>>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit) {
+        return produtoRepository.findByNomeContainingAndAtivoTrue(nome, Limit.of(Paginacao.tamanho(limit)))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Produto>> buscarPorId(@PathVariable Long id) {
+        return Respostas.okOuNaoEncontrado(produtoRepository.findById(id).filter(Produto::getAtivo));
+    }
+
+    @GetMapping("/codigo/{codigo}")
+    public Mono<ResponseEntity<Produto>> buscarPorCodigo(@PathVariable String codigo) {
+        return Respostas.okOuNaoEncontrado(produtoRepository.findByCodigo(codigo).filter(Produto::getAtivo));
+    }
+
+    @GetMapping("/categoria/{categoria}")
+    public Mono<ResponseEntity<List<Produto>>> buscarPorCategoria(
+            @PathVariable String categoria,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Produto> produtos = produtoRepository.findByCategoriaAndIdGreaterThanOrderByIdAsc(categoria, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping("/marca/{marca}")
+    public Mono<ResponseEntity<List<Produto>>> buscarPorMarca(
+            @PathVariable String marca,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Produto> produtos = produtoRepository.findByMarcaAndIdGreaterThanOrderByIdAsc(marca, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping("/preco")
+    public Mono<ResponseEntity<List<Produto>>> buscarPorFaixaPreco(
+            @RequestParam BigDecimal min,
+            @RequestParam BigDecimal max,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Produto> produtos = produtoRepository.findByAtivoTrueAndPrecoBetweenAndIdGreaterThanOrderByIdAsc(min, max, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping("/estoque-baixo")
+    public Mono<ResponseEntity<List<Produto>>> buscarEstoqueBaixo(
+            @RequestParam(defaultValue = "10") Integer limite,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Produto> produtos = produtoRepository.findByAtivoTrueAndQuantidadeEstoqueLessThanAndIdGreaterThanOrderByIdAsc(limite, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Produto>> criar(@RequestBody Produto produto) {
+        return codigoEmUso(produto, null)
+                .flatMap(emUso -> {
+                    if (emUso) {
+                        return Respostas.<Produto>requisicaoInvalida();
+                    }
+                    produto.setId(null);
+                    produto.setAtivo(true);
+                    produto.onCreate();
+                    return Respostas.criado(produtoRepository.save(produto));
+                })
+                .onErrorResume(e -> Respostas.requisicaoInvalida());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Produto>> atualizar(@PathVariable Long id, @RequestBody Produto produtoAtualizado) {
+        return produtoRepository.findById(id)
+                .filter(Produto::getAtivo)
+                .flatMap(produto -> codigoEmUso(produtoAtualizado, id)
+                        .flatMap(emUso -> {
+                            if (emUso) {
+                                return Respostas.<Produto>requisicaoInvalida();
+                            }
+                            produto.setNome(produtoAtualizado.getNome());
+                            produto.setDescricao(produtoAtualizado.getDescricao());
+                            produto.setCodigo(produtoAtualizado.getCodigo());
+                            produto.setPreco(produtoAtualizado.getPreco());
+                            produto.setQuantidadeEstoque(produtoAtualizado.getQuantidadeEstoque());
+                            produto.setCategoria(produtoAtualizado.getCategoria());
+                            produto.setMarca(produtoAtualizado.getMarca());
+                            produto.setPeso(produtoAtualizado.getPeso());
+                            return produtoRepository.save(produto).map(ResponseEntity::ok);
+                        })
+                        .onErrorResume(e -> Respostas.requisicaoInvalida()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> excluir(@PathVariable Long id) {
+        return produtoRepository.findById(id)
+                .filter(Produto::getAtivo)
+                .flatMap(produto -> {
+                    produto.setAtivo(false);
+                    return produtoRepository.save(produto).thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private Mono<Boolean> codigoEmUso(Produto produto, Long proprioId) {
+        return Respostas.emUsoPorOutro(produtoRepository.findByCodigo(produto.getCodigo()), Produto::getId, proprioId);
+    }
+}
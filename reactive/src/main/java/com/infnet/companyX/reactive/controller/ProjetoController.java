@@ -0,0 +1,221 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Cliente;
+import com.infnet.companyX.reactive.entity.Funcionario;
+import com.infnet.companyX.reactive.entity.Projeto;
+import com.infnet.companyX.reactive.repository.ClienteRepository;
+import com.infnet.companyX.reactive.repository.FuncionarioRepository;
+import com.infnet.companyX.reactive.repository.ProjetoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/projetos")
+public class ProjetoController {
+
+    private static final int LOTE_RELACIONAMENTOS = 500;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<Projeto>>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Projeto> projetos = projetoRepository.findByAtivoTrueAndIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Projeto> exportar() {
+        return comRelacionamentos(projetoRepository.findByAtivoTrueOrderByIdAsc());
+    }
+
+    @GetMapping("/busca")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit) {
+        return comRelacionamentos(projetoRepository.findByNomeContainingAndAtivoTrue(nome, Limit.of(Paginacao.tamanho(limit))))
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Projeto>> buscarPorId(@PathVariable Long id) {
+        return Respostas.okOuNaoEncontrado(comRelacionamentos(projetoRepository.findById(id).filter(Projeto::getAtivo).flux()).next());
+    }
+
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Projeto.StatusProjeto statusProjeto;
+        try {
+            statusProjeto = Projeto.StatusProjeto.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Respostas.requisicaoInvalida();
+        }
+        Flux<Projeto> projetos = projetoRepository.findByStatusAndIdGreaterThanOrderByIdAsc(statusProjeto, after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping("/cliente/{clienteId}")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorCliente(
+            @PathVariable Long clienteId,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Projeto> projetos = projetoRepository.findByClienteIdAndIdGreaterThanOrderByIdAsc(clienteId, after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping("/gerente/{gerenteId}")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorGerente(
+            @PathVariable Long gerenteId,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Projeto> projetos = projetoRepository.findByGerenteIdAndIdGreaterThanOrderByIdAsc(gerenteId, after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping("/prioridade/{prioridade}")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorPrioridade(
+            @PathVariable Integer prioridade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Projeto> projetos = projetoRepository.findByAtivoTrueAndPrioridadeAndIdGreaterThanOrderByIdAsc(prioridade, after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping("/atrasados")
+    public Mono<ResponseEntity<List<Projeto>>> buscarProjetosAtrasados(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Flux<Projeto> projetos = projetoRepository.findByAtivoTrueAndStatusAndDataFimPrevistaBeforeAndIdGreaterThanOrderByIdAsc(
+                Projeto.StatusProjeto.EM_ANDAMENTO, LocalDate.now(), after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @GetMapping("/prazo")
+    public Mono<ResponseEntity<List<Projeto>>> buscarPorPrazoEntrega(
+            @RequestParam String dataInicio,
+            @RequestParam String dataFim,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            inicio = LocalDate.parse(dataInicio);
+            fim = LocalDate.parse(dataFim);
+        } catch (DateTimeParseException e) {
+            return Respostas.requisicaoInvalida();
+        }
+        Flux<Projeto> projetos = projetoRepository.findByAtivoTrueAndDataFimPrevistaBetweenAndIdGreaterThanOrderByIdAsc(
+                inicio, fim, after, Paginacao.limite(limit));
+        return Paginacao.responder(comRelacionamentos(projetos), limit, Projeto::getId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Projeto>> criar(@RequestBody Projeto projeto) {
+        return relacionamentosAtivos(projeto)
+                .flatMap(validos -> {
+                    if (!validos) {
+                        return Respostas.<Projeto>requisicaoInvalida();
+                    }
+                    projeto.setId(null);
+                    projeto.setClienteId(projeto.getCliente() != null ? projeto.getCliente().getId() : null);
+                    projeto.setGerenteId(projeto.getGerente() != null ? projeto.getGerente().getId() : null);
+                    projeto.setAtivo(true);
+                    projeto.onCreate();
+                    return Respostas.criado(comRelacionamentos(projetoRepository.save(projeto).flux()).next());
+                })
+                .onErrorResume(e -> Respostas.requisicaoInvalida());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Projeto>> atualizar(@PathVariable Long id, @RequestBody Projeto projetoAtualizado) {
+        return projetoRepository.findById(id)
+                .filter(Projeto::getAtivo)
+                .flatMap(projeto -> relacionamentosAtivos(projetoAtualizado)
+                        .flatMap(validos -> {
+                            if (!validos) {
+                                return Respostas.<Projeto>requisicaoInvalida();
+                            }
+                            projeto.setClienteId(projetoAtualizado.getCliente() != null ? projetoAtualizado.getCliente().getId() : null);
+                            projeto.setGerenteId(projetoAtualizado.getGerente() != null ? projetoAtualizado.getGerente().getId() : null);
+                            projeto.setNome(projetoAtualizado.getNome());
+                            projeto.setDescricao(projetoAtualizado.getDescricao());
+                            projeto.setStatus(projetoAtualizado.getStatus());
+                            projeto.setDataInicio(projetoAtualizado.getDataInicio());
+                            projeto.setDataFimPrevista(projetoAtualizado.getDataFimPrevista());
+                            projeto.setDataFimReal(projetoAtualizado.getDataFimReal());
+                            projeto.setOrcamento(projetoAtualizado.getOrcamento());
+                            projeto.setCustoAtual(projetoAtualizado.getCustoAtual());
+                            projeto.setPrioridade(projetoAtualizado.getPrioridade());
+                            return comRelacionamentos(projetoRepository.save(projeto).flux()).next().map(ResponseEntity::ok);
+                        })
+                        .onErrorResume(e -> Respostas.requisicaoInvalida()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> excluir(@PathVariable Long id) {
+        return projetoRepository.findById(id)
+                .filter(Projeto::getAtivo)
+                .flatMap(projeto -> {
+                    projeto.setAtivo(false);
+                    return projetoRepository.save(projeto).thenReturn(ResponseEntity.noContent().<Void>build());
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Preenche cliente e gerente com uma consulta por lote de projetos, em vez de uma por
+     * projeto. O {@code concatMap} preserva a ordem e só pede o próximo lote ao banco
+     * quando o anterior foi consumido, então a exportação continua respeitando a demanda.
+     */
+    private Flux<Projeto> comRelacionamentos(Flux<Projeto> projetos) {
+        return projetos.buffer(LOTE_RELACIONAMENTOS).concatMap(lote -> {
+            Set<Long> clienteIds = lote.stream().map(Projeto::getClienteId).filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<Long> gerenteIds = lote.stream().map(Projeto::getGerenteId).filter(Objects::nonNull).collect(Collectors.toSet());
+            Mono<Map<Long, Cliente>> clientes = clienteIds.isEmpty() ? Mono.just(Map.of())
+                    : clienteRepository.findAllById(clienteIds).collectMap(Cliente::getId);
+            Mono<Map<Long, Funcionario>> gerentes = gerenteIds.isEmpty() ? Mono.just(Map.of())
+                    : funcionarioRepository.findAllById(gerenteIds).collectMap(Funcionario::getId);
+            return Mono.zip(clientes, gerentes).flatMapIterable(mapas -> {
+                lote.forEach(projeto -> {
+                    projeto.setCliente(projeto.getClienteId() != null ? mapas.getT1().get(projeto.getClienteId()) : null);
+                    projeto.setGerente(projeto.getGerenteId() != null ? mapas.getT2().get(projeto.getGerenteId()) : null);
+                });
+                return lote;
+            });
+        });
+    }
+
+    private Mono<Boolean> relacionamentosAtivos(Projeto projeto) {
+        Mono<Boolean> cliente = projeto.getCliente() == null || projeto.getCliente().getId() == null ? Mono.just(true)
+                : clienteRepository.findById(projeto.getCliente().getId()).map(Cliente::getAtivo).defaultIfEmpty(false);
+        Mono<Boolean> gerente = projeto.getGerente() == null || projeto.getGerente().getId() == null ? Mono.just(true)
+                : funcionarioRepository.findById(projeto.getGerente().getId()).map(Funcionario::getAtivo).defaultIfEmpty(false);
+        return Flux.concat(cliente, gerente).all(Boolean::booleanValue);
+    }
+}
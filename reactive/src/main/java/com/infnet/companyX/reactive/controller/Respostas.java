@@ -0,0 +1,36 @@
+package com.infnet.companyX.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+final class Respostas {
+
+    private Respostas() {
+    }
+
+    static <T> Mono<ResponseEntity<T>> okOuNaoEncontrado(Mono<T> entidade) {
+        return entidade.map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    static <T> Mono<ResponseEntity<T>> criado(Mono<T> entidade) {
+        return entidade.map(salva -> ResponseEntity.status(HttpStatus.CREATED).body(salva));
+    }
+
+    static <T> Mono<ResponseEntity<T>> requisicaoInvalida() {
+        return Mono.just(ResponseEntity.badRequest().build());
+    }
+
+    /**
+     * Indica se a chave natural já pertence a outro registro; {@code proprioId} nulo
+     * (inclusão) considera qualquer registro encontrado.
+     */
+    static <T> Mono<Boolean> emUsoPorOutro(Mono<T> encontrado, Function<T, Long> id, Long proprioId) {
+        return encontrado.map(existente -> !Objects.equals(id.apply(existente), proprioId))
+                .defaultIfEmpty(false);
+    }
+}
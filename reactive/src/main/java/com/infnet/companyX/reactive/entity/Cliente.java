@@ -0,0 +1,56 @@
+package com.infnet.companyX.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Table("clientes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cliente {
+
+    @Id
+    @Sequence("CLIENTES_SEQ")
+    private Long id;
+
+    private String nome;
+
+    private String email;
+
+    private String telefone;
+
+    private String cpf;
+
+    private String cnpj;
+
+    private TipoPessoa tipoPessoa;
+
+    private String endereco;
+
+    private String cidade;
+
+    private String estado;
+
+    private String cep;
+
+    private LocalDate dataNascimento;
+
+    private LocalDateTime dataCadastro;
+
+    private Boolean ativo = true;
+
+    public void onCreate() {
+        dataCadastro = LocalDateTime.now();
+    }
+
+    public enum TipoPessoa {
+        FISICA, JURIDICA
+    }
+}
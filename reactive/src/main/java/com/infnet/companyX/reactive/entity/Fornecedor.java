@@ -0,0 +1,51 @@
+package com.infnet.companyX.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("fornecedores")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Fornecedor {
+
+    @Id
+    @Sequence("FORNECEDORES_SEQ")
+    private Long id;
+
+    private String nome;
+
+    private String razaoSocial;
+
+    private String cnpj;
+
+    private String email;
+
+    private String telefone;
+
+    private String endereco;
+
+    private String cidade;
+
+    private String estado;
+
+    private String cep;
+
+    private String pessoaContato;
+
+    private String telefoneContato;
+
+    private LocalDateTime dataCadastro;
+
+    private Boolean ativo = true;
+
+    public void onCreate() {
+        dataCadastro = LocalDateTime.now();
+    }
+}
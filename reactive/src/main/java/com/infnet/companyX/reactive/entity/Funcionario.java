@@ -0,0 +1,40 @@
+package com.infnet.companyX.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Table("funcionarios")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Funcionario {
+
+    @Id
+    @Sequence("FUNCIONARIOS_SEQ")
+    private Long id;
+
+    private String nome;
+
+    private String email;
+
+    private String cargo;
+
+    private String departamento;
+
+    private BigDecimal salario;
+
+    private LocalDate dataAdmissao;
+
+    private String telefone;
+
+    private String cpf;
+
+    private Boolean ativo = true;
+}
@@ -0,0 +1,48 @@
+package com.infnet.companyX.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Table("produtos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Produto {
+
+    @Id
+    @Sequence("PRODUTOS_SEQ")
+    private Long id;
+
+    private String nome;
+
+    private String descricao;
+
+    private String codigo;
+
+    private BigDecimal preco;
+
+    private Integer quantidadeEstoque;
+
+    private String categoria;
+
+    private String marca;
+
+    @Column("peso_kg")
+    private BigDecimal peso;
+
+    private LocalDateTime dataCriacao;
+
+    private Boolean ativo = true;
+
+    public void onCreate() {
+        dataCriacao = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,79 @@
+package com.infnet.companyX.reactive.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Sequence;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * O R2DBC não navega associações: a tabela guarda só {@code clienteId} e
+ * {@code gerenteId}, e {@code cliente}/{@code gerente} são preenchidos pelo controller
+ * para manter o mesmo JSON da API MVC.
+ */
+@Table("projetos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Projeto {
+
+    @Id
+    @Sequence("PROJETOS_SEQ")
+    private Long id;
+
+    private String nome;
+
+    private String descricao;
+
+    @JsonIgnore
+    private Long clienteId;
+
+    @JsonIgnore
+    private Long gerenteId;
+
+    @Transient
+    private Cliente cliente;
+
+    @Transient
+    private Funcionario gerente;
+
+    private StatusProjeto status;
+
+    private LocalDate dataInicio;
+
+    private LocalDate dataFimPrevista;
+
+    private LocalDate dataFimReal;
+
+    private BigDecimal orcamento;
+
+    private BigDecimal custoAtual;
+
+    private Integer prioridade;
+
+    private LocalDateTime dataCriacao;
+
+    private Boolean ativo = true;
+
+    public void onCreate() {
+        dataCriacao = LocalDateTime.now();
+        if (status == null) {
+            status = StatusProjeto.PLANEJAMENTO;
+        }
+    }
+
+    public enum StatusProjeto {
+        PLANEJAMENTO,
+        EM_ANDAMENTO,
+        PAUSADO,
+        CONCLUIDO,
+        CANCELADO
+    }
+}
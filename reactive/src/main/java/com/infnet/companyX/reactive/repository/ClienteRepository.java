@@ -0,0 +1,30 @@
+package com.infnet.companyX.reactive.repository;
+
+import com.infnet.companyX.reactive.entity.Cliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ClienteRepository extends ReactiveCrudRepository<Cliente, Long> {
+
+    Mono<Cliente> findByEmail(String email);
+
+    Mono<Cliente> findByCpf(String cpf);
+
+    Mono<Cliente> findByCnpj(String cnpj);
+
+    Flux<Cliente> findByAtivoTrueOrderByIdAsc();
+
+    Flux<Cliente> findByNomeContainingAndAtivoTrue(String nome, Limit limit);
+
+    Flux<Cliente> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    Flux<Cliente> findByTipoPessoaAndIdGreaterThanOrderByIdAsc(Cliente.TipoPessoa tipoPessoa, Long after, Limit limit);
+
+    Flux<Cliente> findByCidadeAndIdGreaterThanOrderByIdAsc(String cidade, Long after, Limit limit);
+
+    Flux<Cliente> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, Long after, Limit limit);
+}
@@ -0,0 +1,28 @@
+package com.infnet.companyX.reactive.repository;
+
+import com.infnet.companyX.reactive.entity.Fornecedor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface FornecedorRepository extends ReactiveCrudRepository<Fornecedor, Long> {
+
+    Mono<Fornecedor> findByCnpj(String cnpj);
+
+    Mono<Fornecedor> findByEmail(String email);
+
+    Flux<Fornecedor> findByAtivoTrueOrderByIdAsc();
+
+    Flux<Fornecedor> findByNomeContainingAndAtivoTrue(String nome, Limit limit);
+
+    Flux<Fornecedor> findByRazaoSocialContainingAndAtivoTrue(String razaoSocial, Limit limit);
+
+    Flux<Fornecedor> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    Flux<Fornecedor> findByCidadeAndIdGreaterThanOrderByIdAsc(String cidade, Long after, Limit limit);
+
+    Flux<Fornecedor> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, Long after, Limit limit);
+}
@@ -0,0 +1,26 @@
+package com.infnet.companyX.reactive.repository;
+
+import com.infnet.companyX.reactive.entity.Funcionario;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface FuncionarioRepository extends ReactiveCrudRepository<Funcionario, Long> {
+
+    Mono<Funcionario> findByEmail(String email);
+
+    Mono<Funcionario> findByCpf(String cpf);
+
+    Flux<Funcionario> findByAtivoTrueOrderByIdAsc();
+
+    Flux<Funcionario> findByNomeContainingAndAtivoTrue(String nome, Limit limit);
+
+    Flux<Funcionario> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    Flux<Funcionario> findByDepartamentoAndIdGreaterThanOrderByIdAsc(String departamento, Long after, Limit limit);
+
+    Flux<Funcionario> findByCargoAndIdGreaterThanOrderByIdAsc(String cargo, Long after, Limit limit);
+}
@@ -0,0 +1,30 @@
+package com.infnet.companyX.reactive.repository;
+
+import com.infnet.companyX.reactive.entity.Produto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ProdutoRepository extends ReactiveCrudRepository<Produto, Long> {
+
+    Mono<Produto> findByCodigo(String codigo);
+
+    Flux<Produto> findByAtivoTrueOrderByIdAsc();
+
+    Flux<Produto> findByNomeContainingAndAtivoTrue(String nome, Limit limit);
+
+    Flux<Produto> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    Flux<Produto> findByCategoriaAndIdGreaterThanOrderByIdAsc(String categoria, Long after, Limit limit);
+
+    Flux<Produto> findByMarcaAndIdGreaterThanOrderByIdAsc(String marca, Long after, Limit limit);
+
+    Flux<Produto> findByAtivoTrueAndPrecoBetweenAndIdGreaterThanOrderByIdAsc(BigDecimal precoMin, BigDecimal precoMax, Long after, Limit limit);
+
+    Flux<Produto> findByAtivoTrueAndQuantidadeEstoqueLessThanAndIdGreaterThanOrderByIdAsc(Integer limite, Long after, Limit limit);
+}
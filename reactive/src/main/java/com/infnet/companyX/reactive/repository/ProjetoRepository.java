@@ -0,0 +1,33 @@
+package com.infnet.companyX.reactive.repository;
+
+import com.infnet.companyX.reactive.entity.Projeto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ProjetoRepository extends ReactiveCrudRepository<Projeto, Long> {
+
+    Flux<Projeto> findByAtivoTrueOrderByIdAsc();
+
+    Flux<Projeto> findByNomeContainingAndAtivoTrue(String nome, Limit limit);
+
+    Flux<Projeto> findByAtivoTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    Flux<Projeto> findByStatusAndIdGreaterThanOrderByIdAsc(Projeto.StatusProjeto status, Long after, Limit limit);
+
+    Flux<Projeto> findByClienteIdAndIdGreaterThanOrderByIdAsc(Long clienteId, Long after, Limit limit);
+
+    Flux<Projeto> findByGerenteIdAndIdGreaterThanOrderByIdAsc(Long gerenteId, Long after, Limit limit);
+
+    Flux<Projeto> findByAtivoTrueAndPrioridadeAndIdGreaterThanOrderByIdAsc(Integer prioridade, Long after, Limit limit);
+
+    Flux<Projeto> findByAtivoTrueAndStatusAndDataFimPrevistaBeforeAndIdGreaterThanOrderByIdAsc(
+            Projeto.StatusProjeto status, LocalDate hoje, Long after, Limit limit);
+
+    Flux<Projeto> findByAtivoTrueAndDataFimPrevistaBetweenAndIdGreaterThanOrderByIdAsc(
+            LocalDate dataInicio, LocalDate dataFim, Long after, Limit limit);
+}
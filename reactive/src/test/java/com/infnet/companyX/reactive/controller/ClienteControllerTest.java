@@ -0,0 +1,131 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Cliente;
+import com.infnet.companyX.reactive.repository.ClienteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ClienteControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.deleteAll().block();
+    }
+
+    private Cliente cliente(int i) {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente " + i);
+        cliente.setEmail("cliente" + i + "@email.com");
+        cliente.setCpf(String.format("%011d", i));
+        cliente.setTipoPessoa(Cliente.TipoPessoa.FISICA);
+        cliente.setCidade("Rio de Janeiro");
+        return cliente;
+    }
+
+    @Test
+    void deveCriarEBuscarCliente() {
+        Cliente criado = webTestClient.post().uri("/api/clientes")
+                .bodyValue(cliente(1))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Cliente.class)
+                .returnResult().getResponseBody();
+
+        assertThat(criado.getId()).isNotNull();
+        assertThat(criado.getDataCadastro()).isNotNull();
+
+        webTestClient.get().uri("/api/clientes/{id}", criado.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("cliente1@email.com")
+                .jsonPath("$.tipoPessoa").isEqualTo("FISICA");
+    }
+
+    @Test
+    void deveRejeitarEmailDuplicado() {
+        webTestClient.post().uri("/api/clientes").bodyValue(cliente(1))
+                .exchange()
+                .expectStatus().isCreated();
+
+        Cliente duplicado = cliente(2);
+        duplicado.setEmail("cliente1@email.com");
+        webTestClient.post().uri("/api/clientes").bodyValue(duplicado)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void devePaginarPorCursor() {
+        Flux.range(1, 5).map(this::cliente).concatMap(c -> {
+            c.onCreate();
+            return clienteRepository.save(c);
+        }).blockLast();
+
+        String proximo = webTestClient.get().uri("/api/clientes?limit=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(Paginacao.CABECALHO_PROXIMO)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .returnResult().getResponseHeaders().getFirst(Paginacao.CABECALHO_PROXIMO);
+
+        webTestClient.get().uri("/api/clientes?limit=3&after={after}", proximo)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(Paginacao.CABECALHO_PROXIMO)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void deveExcluirLogicamente() {
+        Cliente salvo = clienteRepository.save(cliente(1)).block();
+
+        webTestClient.delete().uri("/api/clientes/{id}", salvo.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/clientes/{id}", salvo.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deveExportarComoNdjsonRespeitandoDemanda() {
+        Flux.fromStream(IntStream.rangeClosed(1, 50).boxed()).map(this::cliente)
+                .concatMap(clienteRepository::save).blockLast();
+
+        Flux<Cliente> exportados = webTestClient.get().uri("/api/clientes/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Cliente.class)
+                .getResponseBody();
+
+        StepVerifier.create(exportados, 10)
+                .expectNextCount(10)
+                .thenRequest(40)
+                .expectNextCount(40)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,138 @@
+package com.infnet.companyX.reactive.controller;
+
+import com.infnet.companyX.reactive.entity.Cliente;
+import com.infnet.companyX.reactive.entity.Funcionario;
+import com.infnet.companyX.reactive.entity.Projeto;
+import com.infnet.companyX.reactive.repository.ClienteRepository;
+import com.infnet.companyX.reactive.repository.FuncionarioRepository;
+import com.infnet.companyX.reactive.repository.ProjetoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ProjetoControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    private Cliente cliente;
+    private Funcionario gerente;
+
+    @BeforeEach
+    void setUp() {
+        projetoRepository.deleteAll().block();
+        clienteRepository.deleteAll().block();
+        funcionarioRepository.deleteAll().block();
+
+        Cliente novoCliente = new Cliente();
+        novoCliente.setNome("Tech Solutions");
+        novoCliente.setEmail("contato@tech.com");
+        novoCliente.setCnpj("12345678000199");
+        novoCliente.setTipoPessoa(Cliente.TipoPessoa.JURIDICA);
+        cliente = clienteRepository.save(novoCliente).block();
+
+        Funcionario novoGerente = new Funcionario();
+        novoGerente.setNome("Carlos Gerente");
+        novoGerente.setEmail("carlos@empresa.com");
+        novoGerente.setCargo("Gerente de Projetos");
+        novoGerente.setDepartamento("TI");
+        novoGerente.setSalario(new BigDecimal("12000.00"));
+        gerente = funcionarioRepository.save(novoGerente).block();
+    }
+
+    private Projeto projeto(String nome, Projeto.StatusProjeto status, LocalDate prazo) {
+        Projeto projeto = new Projeto();
+        projeto.setNome(nome);
+        projeto.setClienteId(cliente.getId());
+        projeto.setGerenteId(gerente.getId());
+        projeto.setStatus(status);
+        projeto.setDataFimPrevista(prazo);
+        projeto.setPrioridade(1);
+        return projeto;
+    }
+
+    @Test
+    void deveCriarProjetoComClienteEGerente() {
+        Map<String, Object> corpo = Map.of(
+                "nome", "Sistema ERP",
+                "cliente", Map.of("id", cliente.getId()),
+                "gerente", Map.of("id", gerente.getId()));
+
+        webTestClient.post().uri("/api/projetos")
+                .bodyValue(corpo)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PLANEJAMENTO")
+                .jsonPath("$.cliente.nome").isEqualTo("Tech Solutions")
+                .jsonPath("$.gerente.nome").isEqualTo("Carlos Gerente")
+                .jsonPath("$.clienteId").doesNotExist();
+    }
+
+    @Test
+    void deveRejeitarProjetoComClienteInexistente() {
+        webTestClient.post().uri("/api/projetos")
+                .bodyValue(Map.of("nome", "Sem cliente", "cliente", Map.of("id", 999999)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void deveListarAtrasadosComRelacionamentos() {
+        projetoRepository.saveAll(List.of(
+                projeto("Atrasado", Projeto.StatusProjeto.EM_ANDAMENTO, LocalDate.now().minusDays(5)),
+                projeto("No prazo", Projeto.StatusProjeto.EM_ANDAMENTO, LocalDate.now().plusDays(5)),
+                projeto("Concluído", Projeto.StatusProjeto.CONCLUIDO, LocalDate.now().minusDays(5)))).blockLast();
+
+        webTestClient.get().uri("/api/projetos/atrasados")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].nome").isEqualTo("Atrasado")
+                .jsonPath("$[0].cliente.nome").isEqualTo("Tech Solutions");
+    }
+
+    @Test
+    void deveExportarProjetosComRelacionamentos() {
+        Flux.range(1, 20)
+                .map(i -> projeto("Projeto " + i, Projeto.StatusProjeto.PLANEJAMENTO, LocalDate.now()))
+                .concatMap(projetoRepository::save)
+                .blockLast();
+
+        List<Projeto> exportados = webTestClient.get().uri("/api/projetos/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Projeto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(exportados).hasSize(20);
+        assertThat(exportados).allSatisfy(p -> assertThat(p.getGerente().getNome()).isEqualTo("Carlos Gerente"));
+    }
+}
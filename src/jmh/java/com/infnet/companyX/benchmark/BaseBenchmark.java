@@ -0,0 +1,159 @@
+package com.infnet.companyX.benchmark;
+
+import com.infnet.companyX.CompanyXApplication;
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Fornecedor;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe o contexto da aplicação (sem servidor web, salvo se a subclasse pedir) contra um
+ * H2 em memória próprio do benchmark, e semeia {@code volume} clientes, fornecedores, produtos e projetos
+ * (e um décimo disso em funcionários). Cada fork do JMH recebe o seu banco.
+ */
+@State(Scope.Benchmark)
+public abstract class BaseBenchmark {
+
+    static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Hugo"};
+
+    @Param({"1000", "10000"})
+    public int volume;
+
+    protected ConfigurableApplicationContext contexto;
+
+    @Setup
+    public void iniciarContexto() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN"));
+        argumentos.addAll(argumentosExtras());
+        contexto = new SpringApplicationBuilder(CompanyXApplication.class)
+                .web(tipoAplicacao())
+                .run(argumentos.toArray(String[]::new));
+        semear(contexto.getBean(InsercaoEmLote.class));
+    }
+
+    protected WebApplicationType tipoAplicacao() {
+        return WebApplicationType.NONE;
+    }
+
+    protected List<String> argumentosExtras() {
+        return List.of();
+    }
+
+    @TearDown
+    public void encerrarContexto() {
+        contexto.close();
+    }
+
+    private void semear(InsercaoEmLote insercaoEmLote) {
+        List<Cliente> clientes = new ArrayList<>(volume);
+        List<Fornecedor> fornecedores = new ArrayList<>(volume);
+        List<Produto> produtos = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            clientes.add(cliente(nome(i), "cliente" + i + "@benchmark.com", String.format("%011d", i)));
+            fornecedores.add(fornecedor(i));
+            produtos.add(produto(i));
+        }
+        List<Funcionario> funcionarios = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, volume / 10); i++) {
+            funcionarios.add(funcionario(i));
+        }
+        insercaoEmLote.inserir(clientes);
+        insercaoEmLote.inserir(fornecedores);
+        insercaoEmLote.inserir(funcionarios);
+        insercaoEmLote.inserir(produtos);
+
+        List<Projeto> projetos = new ArrayList<>(volume);
+        for (int i = 0; i < volume; i++) {
+            projetos.add(projeto(i, clientes.get(i), funcionarios.get(i % funcionarios.size())));
+        }
+        insercaoEmLote.inserir(projetos);
+    }
+
+    static String nome(int i) {
+        return NOMES[i % NOMES.length] + " " + i;
+    }
+
+    static Cliente cliente(String nome, String email, String cpf) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setEmail(email);
+        cliente.setCpf(cpf);
+        cliente.setTipoPessoa(Cliente.TipoPessoa.FISICA);
+        cliente.setCidade("Rio de Janeiro");
+        cliente.setEstado("RJ");
+        cliente.setAtivo(true);
+        return cliente;
+    }
+
+    private static Fornecedor fornecedor(int i) {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome(nome(i));
+        fornecedor.setRazaoSocial(nome(i) + " Ltda");
+        fornecedor.setCnpj(String.format("%014d", i));
+        fornecedor.setEmail("fornecedor" + i + "@benchmark.com");
+        fornecedor.setAtivo(true);
+        return fornecedor;
+    }
+
+    private static Funcionario funcionario(int i) {
+        Funcionario funcionario = new Funcionario();
+        funcionario.setNome(nome(i));
+        funcionario.setEmail("funcionario" + i + "@benchmark.com");
+        funcionario.setCpf(String.format("%011d", i));
+        funcionario.setCargo("Gerente");
+        funcionario.setDepartamento("Projetos");
+        funcionario.setSalario(new BigDecimal("10000.00"));
+        funcionario.setAtivo(true);
+        return funcionario;
+    }
+
+    static String codigoProduto(int i) {
+        return "PRD" + i;
+    }
+
+    private static Produto produto(int i) {
+        Produto produto = new Produto();
+        produto.setNome("Produto " + nome(i));
+        produto.setCodigo(codigoProduto(i));
+        produto.setPreco(BigDecimal.valueOf(10 + i % 1000));
+        produto.setQuantidadeEstoque(i % 50);
+        produto.setCategoria("Categoria " + i % 20);
+        produto.setMarca("Marca " + i % 50);
+        produto.setAtivo(true);
+        return produto;
+    }
+
+    private static Projeto projeto(int i, Cliente cliente, Funcionario gerente) {
+        Projeto projeto = new Projeto();
+        projeto.setNome("Projeto " + nome(i));
+        projeto.setCliente(cliente);
+        projeto.setGerente(gerente);
+        projeto.setStatus(Projeto.StatusProjeto.values()[i % Projeto.StatusProjeto.values().length]);
+        projeto.setDataInicio(LocalDate.now().minusDays(i % 365));
+        projeto.setDataFimPrevista(LocalDate.now().plusDays(i % 365 - 180));
+        projeto.setOrcamento(new BigDecimal("50000.00"));
+        projeto.setCustoAtual(new BigDecimal("10000.00"));
+        projeto.setPrioridade(i % 5 + 1);
+        projeto.setAtivo(true);
+        return projeto;
+    }
+}
@@ -0,0 +1,97 @@
+package com.infnet.companyX.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga HTTP de {@code GET /api/clientes} e {@code POST /api/clientes} com o
+ * Tomcat em threads de plataforma e em threads virtuais (perfil {@code virtual}).
+ * Reporta vazão e a distribuição de latência (p50/p99/p99.9) de cada modo; a
+ * concorrência dos clientes muda com {@code -t}. O fork registra as threads virtuais
+ * que prendem o carrier ({@code jdk.tracePinnedThreads}), para que uma cauda longa no
+ * modo virtual possa ser atribuída.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(64)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CargaHttpBenchmark extends BaseBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    public String threads;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private HttpClient http;
+    private URI clientes;
+
+    @Override
+    protected WebApplicationType tipoAplicacao() {
+        return WebApplicationType.SERVLET;
+    }
+
+    @Override
+    protected List<String> argumentosExtras() {
+        return "virtual".equals(threads)
+                ? List.of("--server.port=0", "--spring.profiles.active=virtual")
+                : List.of("--server.port=0");
+    }
+
+    @Setup
+    public void iniciarCliente() {
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        clientes = URI.create("http://localhost:" + porta + "/api/clientes");
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Benchmark
+    public int clienteListarTodos() throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(clientes).GET().build();
+        return esperar(requisicao, 200);
+    }
+
+    @Benchmark
+    public int clienteCriar() throws IOException, InterruptedException {
+        long n = sequencia.incrementAndGet();
+        String corpo = """
+                {"nome":"Carga %1$d","email":"carga%1$d@benchmark.com","cpf":"8%2$010d","tipoPessoa":"FISICA"}
+                """.formatted(n, n);
+        HttpRequest requisicao = HttpRequest.newBuilder(clientes)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return esperar(requisicao, 201);
+    }
+
+    private int esperar(HttpRequest requisicao, int statusEsperado) throws IOException, InterruptedException {
+        HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+        if (resposta.statusCode() != statusEsperado) {
+            throw new IllegalStateException(requisicao.method() + " " + requisicao.uri() + " respondeu " + resposta.statusCode());
+        }
+        return resposta.statusCode();
+    }
+}
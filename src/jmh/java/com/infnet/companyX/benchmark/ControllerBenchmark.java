@@ -0,0 +1,77 @@
+package com.infnet.companyX.benchmark;
+
+import com.infnet.companyX.controller.ClienteController;
+import com.infnet.companyX.controller.Paginacao;
+import com.infnet.companyX.controller.ProdutoController;
+import com.infnet.companyX.controller.ProjetoController;
+import com.infnet.companyX.entity.Cliente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chama os controllers direto pelo bean, sem a camada HTTP, para medir validação,
+ * transação e acesso a dados de cada endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ControllerBenchmark extends BaseBenchmark {
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private ClienteController clienteController;
+    private ProdutoController produtoController;
+    private ProjetoController projetoController;
+
+    @Setup
+    public void obterControllers() {
+        clienteController = contexto.getBean(ClienteController.class);
+        produtoController = contexto.getBean(ProdutoController.class);
+        projetoController = contexto.getBean(ProjetoController.class);
+    }
+
+    @Benchmark
+    public ResponseEntity<Cliente> clienteCriar() {
+        long n = sequencia.incrementAndGet();
+        return clienteController.criar(cliente("Novo " + n, "novo" + n + "@benchmark.com", String.format("9%010d", n)));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> produtoBuscarPorCodigo() {
+        return produtoController.buscarPorCodigo(codigoProduto(ThreadLocalRandom.current().nextInt(volume)), null);
+    }
+
+    /**
+     * Percorre a listagem inteira pelo cursor, em páginas do tamanho máximo, para que o
+     * custo acompanhe {@code volume}.
+     */
+    @Benchmark
+    public int projetoListarTodos() {
+        int total = 0;
+        String proximo = "0";
+        while (proximo != null) {
+            ResponseEntity<List<Object>> pagina = projetoController.listarTodos(
+                    Long.valueOf(proximo), Paginacao.LIMITE_MAXIMO, null);
+            total += pagina.getBody().size();
+            proximo = pagina.getHeaders().getFirst(Paginacao.CABECALHO_PROXIMO);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,76 @@
+package com.infnet.companyX.benchmark;
+
+import com.infnet.companyX.controller.ProdutoController;
+import com.infnet.companyX.entity.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grava {@code linhas} produtos por operação, um POST por produto contra um único POST
+ * em lote; o tempo por operação dividido por {@code linhas} dá o custo de cada linha.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProdutoBulkBenchmark extends BaseBenchmark {
+
+    @Param({"100", "2000"})
+    public int linhas;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private ProdutoController produtoController;
+
+    @Setup
+    public void obterController() {
+        produtoController = contexto.getBean(ProdutoController.class);
+    }
+
+    @Benchmark
+    public int unitario() {
+        int criados = 0;
+        for (Produto produto : gerarProdutos("UNI")) {
+            ResponseEntity<Produto> resposta = produtoController.criar(produto);
+            criados += resposta.getStatusCode().is2xxSuccessful() ? 1 : 0;
+        }
+        return criados;
+    }
+
+    @Benchmark
+    public int lote() {
+        return produtoController.criarEmLote(gerarProdutos("LOTE")).getBody().size();
+    }
+
+    private List<Produto> gerarProdutos(String prefixo) {
+        long operacao = sequencia.incrementAndGet();
+        List<Produto> produtos = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + prefixo + " " + operacao + "-" + i);
+            produto.setCodigo(prefixo + "-" + operacao + "-" + i);
+            produto.setPreco(new BigDecimal("10.00"));
+            produto.setQuantidadeEstoque(100);
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+}
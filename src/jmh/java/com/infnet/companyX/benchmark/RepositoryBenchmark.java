@@ -0,0 +1,82 @@
+package com.infnet.companyX.benchmark;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Fornecedor;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.repository.FornecedorRepository;
+import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.repository.ProdutoRepository;
+import com.infnet.companyX.repository.ProjetoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o {@code findByNomeContaining} de cada repositório. O termo padrão casa com os
+ * nomes semeados "Ana &lt;n&gt;" cujo número começa com 1; troque com {@code -p termo=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryBenchmark extends BaseBenchmark {
+
+    @Param({"Ana 1"})
+    public String termo;
+
+    private ClienteRepository clienteRepository;
+    private FornecedorRepository fornecedorRepository;
+    private FuncionarioRepository funcionarioRepository;
+    private ProdutoRepository produtoRepository;
+    private ProjetoRepository projetoRepository;
+
+    @Setup
+    public void obterRepositorios() {
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        fornecedorRepository = contexto.getBean(FornecedorRepository.class);
+        funcionarioRepository = contexto.getBean(FuncionarioRepository.class);
+        produtoRepository = contexto.getBean(ProdutoRepository.class);
+        projetoRepository = contexto.getBean(ProjetoRepository.class);
+    }
+
+    @Benchmark
+    public List<Cliente> clienteFindByNomeContaining() {
+        return clienteRepository.findByNomeContaining(termo);
+    }
+
+    @Benchmark
+    public List<Fornecedor> fornecedorFindByNomeContaining() {
+        return fornecedorRepository.findByNomeContaining(termo);
+    }
+
+    @Benchmark
+    public List<Funcionario> funcionarioFindByNomeContaining() {
+        return funcionarioRepository.findByNomeContaining(termo);
+    }
+
+    @Benchmark
+    public List<Produto> produtoFindByNomeContaining() {
+        return produtoRepository.findByNomeContaining(termo);
+    }
+
+    @Benchmark
+    public List<Projeto> projetoFindByNomeContaining() {
+        return projetoRepository.findByNomeContaining(termo);
+    }
+}
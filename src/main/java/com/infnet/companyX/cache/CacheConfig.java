@@ -0,0 +1,62 @@
+package com.infnet.companyX.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CLIENTES_POR_EMAIL = "clientesPorEmail";
+    public static final String CLIENTES_POR_CPF = "clientesPorCpf";
+    public static final String CLIENTES_POR_CNPJ = "clientesPorCnpj";
+    public static final String FORNECEDORES_POR_CNPJ = "fornecedoresPorCnpj";
+    public static final String FORNECEDORES_POR_EMAIL = "fornecedoresPorEmail";
+    public static final String FUNCIONARIOS_POR_EMAIL = "funcionariosPorEmail";
+    public static final String FUNCIONARIOS_POR_CPF = "funcionariosPorCpf";
+    public static final String PRODUTOS_POR_CODIGO = "produtosPorCodigo";
+    public static final String FINANCEIRO_PROJETOS = "financeiroProjetos";
+
+    private static final Set<String> CHAVES_NATURAIS = Set.of(
+            CLIENTES_POR_EMAIL, CLIENTES_POR_CPF, CLIENTES_POR_CNPJ,
+            FORNECEDORES_POR_CNPJ, FORNECEDORES_POR_EMAIL,
+            FUNCIONARIOS_POR_EMAIL, FUNCIONARIOS_POR_CPF,
+            PRODUTOS_POR_CODIGO);
+
+    /**
+     * Fixa os nomes para que o gerenciador seja estático e as métricas de todos os caches
+     * sejam registradas na inicialização; tamanho e TTL vêm de spring.cache.caffeine.spec.
+     * Os caches de chave natural guardam entidades, então guardam e entregam cópias
+     * ({@link CacheDeCopias}), com um construtor próprio que registra o índice reverso
+     * por id no despejo, e carregam do primário.
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(@Value("${spring.cache.caffeine.spec:}") String especificacao) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache createCaffeineCache(String nome) {
+                if (!CHAVES_NATURAIS.contains(nome)) {
+                    return super.createCaffeineCache(nome);
+                }
+                Caffeine<Object, Object> construtor = especificacao.isEmpty() ? Caffeine.newBuilder() : Caffeine.from(especificacao);
+                return CacheDeCopias.criar(nome, construtor, isAllowNullValues());
+            }
+        };
+        if (!especificacao.isEmpty()) {
+            cacheManager.setCacheSpecification(especificacao);
+        }
+        List<String> nomes = new ArrayList<>(CHAVES_NATURAIS);
+        nomes.add(FINANCEIRO_PROJETOS);
+        cacheManager.setCacheNames(nomes);
+        return cacheManager;
+    }
+}
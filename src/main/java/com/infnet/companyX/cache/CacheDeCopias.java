@@ -0,0 +1,142 @@
+package com.infnet.companyX.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.replica.RoteamentoDataSource;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache de entidades que guarda uma cópia desanexada e entrega uma cópia nova a cada
+ * leitura: a instância da sessão que preencheu o cache nunca é compartilhada, e quem
+ * altera o que recebeu não altera o que as outras requisições vão ler. A cópia é rasa,
+ * o que basta para as entidades sem associações guardadas pelas chaves naturais.
+ * <p>
+ * Mantém também um índice reverso de id para chaves, para que a invalidação de uma
+ * entidade custe o número de chaves dela, e não uma varredura do cache. Uma chave
+ * indexada que não aponta mais para o id só causa uma remoção a mais.
+ * <p>
+ * Os carregamentos vão ao primário: lida de uma réplica atrasada, uma entrada antiga ou
+ * negativa ficaria em cache até o TTL. Por isso os finders que preenchem estes caches usam
+ * {@code sync = true}, que passa o carregamento por {@link #get(Object, Callable)}.
+ */
+public class CacheDeCopias extends CaffeineCache {
+
+    private final Map<Long, Set<Object>> chavesPorId;
+
+    private CacheDeCopias(String nome, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean permitirNulos,
+                          Map<Long, Set<Object>> chavesPorId) {
+        super(nome, cache, permitirNulos);
+        this.chavesPorId = chavesPorId;
+    }
+
+    /**
+     * As entradas que o Caffeine despeja por tamanho ou TTL saem do índice no próprio
+     * despejo, que é síncrono.
+     */
+    public static CacheDeCopias criar(String nome, Caffeine<Object, Object> construtor, boolean permitirNulos) {
+        Map<Long, Set<Object>> chavesPorId = new ConcurrentHashMap<>();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = construtor
+                .evictionListener((chave, valor, causa) -> {
+                    if (valor instanceof Entidade entidade) {
+                        desindexar(chavesPorId, entidade.getId(), chave);
+                    }
+                })
+                .build();
+        return new CacheDeCopias(nome, cache, permitirNulos, chavesPorId);
+    }
+
+    /**
+     * Remove as entradas que guardam alguma das entidades de {@code ids}.
+     */
+    public void evictPorIds(Collection<Long> ids) {
+        for (Long id : ids) {
+            Set<Object> chaves = chavesPorId.remove(id);
+            if (chaves != null) {
+                chaves.forEach(this::evict);
+            }
+        }
+    }
+
+    /**
+     * O índice é atualizado antes da gravação, para que um despejo logo em seguida sempre
+     * encontre a chave indexada.
+     */
+    @Override
+    public void put(Object chave, Object valor) {
+        indexar(chave, valor);
+        super.put(chave, valor);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object chave, Object valor) {
+        indexar(chave, valor);
+        return super.putIfAbsent(chave, valor);
+    }
+
+    @Override
+    public <T> T get(Object chave, Callable<T> carregador) {
+        return super.get(chave, () -> {
+            T valor = RoteamentoDataSource.noPrimario(carregador);
+            indexar(chave, valor);
+            return valor;
+        });
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        chavesPorId.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean havia = super.invalidate();
+        chavesPorId.clear();
+        return havia;
+    }
+
+    @Override
+    protected Object toStoreValue(Object valor) {
+        return super.toStoreValue(copiar(valor));
+    }
+
+    @Override
+    protected Object fromStoreValue(Object valor) {
+        return copiar(super.fromStoreValue(valor));
+    }
+
+    private void indexar(Object chave, Object valor) {
+        if (valor instanceof Entidade entidade && entidade.getId() != null) {
+            chavesPorId.compute(entidade.getId(), (id, chaves) -> {
+                Set<Object> conjunto = chaves != null ? chaves : ConcurrentHashMap.newKeySet();
+                conjunto.add(chave);
+                return conjunto;
+            });
+        }
+    }
+
+    private static void desindexar(Map<Long, Set<Object>> chavesPorId, Long id, Object chave) {
+        chavesPorId.computeIfPresent(id, (chaveId, chaves) -> {
+            chaves.remove(chave);
+            return chaves.isEmpty() ? null : chaves;
+        });
+    }
+
+    private static Object copiar(Object valor) {
+        if (!(valor instanceof Entidade)) {
+            return valor;
+        }
+        Object original = Hibernate.unproxy(valor);
+        Object copia = BeanUtils.instantiateClass(original.getClass());
+        BeanUtils.copyProperties(original, copia);
+        return copia;
+    }
+}
@@ -0,0 +1,133 @@
+package com.infnet.companyX.cache;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.entity.Fornecedor;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.event.PosCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class InvalidacaoChaveNatural {
+
+    private static final Map<Class<?>, List<ChaveNatural<?>>> CHAVES = Map.of(
+            Cliente.class, List.of(
+                    new ChaveNatural<>(CacheConfig.CLIENTES_POR_EMAIL, "email", Cliente::getEmail),
+                    new ChaveNatural<>(CacheConfig.CLIENTES_POR_CPF, "cpf", Cliente::getCpf),
+                    new ChaveNatural<>(CacheConfig.CLIENTES_POR_CNPJ, "cnpj", Cliente::getCnpj)),
+            Fornecedor.class, List.of(
+                    new ChaveNatural<>(CacheConfig.FORNECEDORES_POR_CNPJ, "cnpj", Fornecedor::getCnpj),
+                    new ChaveNatural<>(CacheConfig.FORNECEDORES_POR_EMAIL, "email", Fornecedor::getEmail)),
+            Funcionario.class, List.of(
+                    new ChaveNatural<>(CacheConfig.FUNCIONARIOS_POR_EMAIL, "email", Funcionario::getEmail),
+                    new ChaveNatural<>(CacheConfig.FUNCIONARIOS_POR_CPF, "cpf", Funcionario::getCpf)),
+            Produto.class, List.of(
+                    new ChaveNatural<>(CacheConfig.PRODUTOS_POR_CODIGO, "codigo", Produto::getCodigo)));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CacheManager cacheManager;
+
+    public InvalidacaoChaveNatural(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Roda após o commit, na thread que o fez, para que nenhuma leitura concorrente
+     * repopule o cache com o valor antigo; a próxima leitura que não encontrar a chave
+     * carrega a linha.
+     * A chave nova é removida (pode haver uma entrada negativa para ela); alterações e exclusões
+     * também removem, pelo índice reverso do cache, as entradas que apontam para o id, pois o
+     * conteúdo ou a própria chave podem ter mudado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidar(EntidadeAlteradaEvent evento) {
+        List<ChaveNatural<?>> chaves = CHAVES.getOrDefault(evento.tipo(), List.of());
+        Entidade entidade = evento.entidade();
+        for (ChaveNatural<?> chave : chaves) {
+            if (!(cacheManager.getCache(chave.cache()) instanceof CacheDeCopias cache)) {
+                continue;
+            }
+
+            Object valor = entidade != null ? chave.valor(entidade) : evento.valores().get(chave.atributo());
+            if (valor != null) {
+                cache.evict(valor);
+            }
+
+            if (evento.operacao() != EntidadeAlteradaEvent.Operacao.INCLUSAO) {
+                cache.evictPorIds(Set.of(evento.id()));
+            }
+        }
+    }
+
+    /**
+     * A desativação remove as entradas dos ids pelo índice reverso. Na reativação, as chaves
+     * dos registros que voltaram podem estar em cache como negativas: só elas são lidas,
+     * antes do commit e na transação de quem reativou, com um {@code IN} por lote, e
+     * removidas depois dele.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void invalidar(AtivacaoEmLoteEvent evento) {
+        List<ChaveNatural<?>> chaves = CHAVES.getOrDefault(evento.tipo(), List.of());
+        if (chaves.isEmpty()) {
+            return;
+        }
+        if (!evento.ativo()) {
+            List<Long> ids = List.copyOf(evento.ids());
+            PosCommit.executar(() -> {
+                for (ChaveNatural<?> chave : chaves) {
+                    if (cacheManager.getCache(chave.cache()) instanceof CacheDeCopias cache) {
+                        cache.evictPorIds(ids);
+                    }
+                }
+            });
+            return;
+        }
+
+        String jpql = chaves.stream().map(chave -> "e." + chave.atributo())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM " + evento.tipo().getSimpleName() + " e WHERE e.id IN :ids"));
+        for (List<Long> lote : evento.lotes()) {
+            List<Tuple> linhas = entityManager.createQuery(jpql, Tuple.class)
+                    .setParameter("ids", lote)
+                    .getResultList();
+            PosCommit.executar(() -> removerReativados(chaves, linhas));
+        }
+    }
+
+    private void removerReativados(List<ChaveNatural<?>> chaves, List<Tuple> linhas) {
+        for (int i = 0; i < chaves.size(); i++) {
+            if (!(cacheManager.getCache(chaves.get(i).cache()) instanceof CacheDeCopias cache)) {
+                continue;
+            }
+            for (Tuple linha : linhas) {
+                if (linha.get(i) != null) {
+                    cache.evict(linha.get(i));
+                }
+            }
+        }
+    }
+
+    private record ChaveNatural<T extends Entidade>(String cache, String atributo, Function<T, Object> extrator) {
+
+        @SuppressWarnings("unchecked")
+        Object valor(Entidade entidade) {
+            return extrator.apply((T) entidade);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.entity.Fornecedor;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.repository.ConsultaInativos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Leituras que incluem os registros excluídos logicamente, que a API comum nunca devolve.
+ */
+@RestController
+@RequestMapping("/api/admin/{colecao}")
+@CrossOrigin(origins = "*")
+public class AdminController {
+
+    private static final Map<String, Class<? extends Entidade>> TIPOS = Map.of(
+            "clientes", Cliente.class,
+            "fornecedores", Fornecedor.class,
+            "funcionarios", Funcionario.class,
+            "produtos", Produto.class,
+            "projetos", Projeto.class);
+
+    @Autowired
+    private ConsultaInativos consultaInativos;
+
+    @GetMapping("/inativos")
+    public ResponseEntity<List<Object>> listarInativos(
+            @PathVariable String colecao,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        Class<? extends Entidade> tipo = TIPOS.get(colecao);
+        if (tipo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<? extends Entidade> inativos = consultaInativos.listarInativos(tipo, after, Paginacao.limite(limit));
+        return Paginacao.responder(inativos, limit, Entidade::getId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Object> buscarIncluindoInativos(@PathVariable String colecao, @PathVariable Long id) {
+        Class<? extends Entidade> tipo = TIPOS.get(colecao);
+        if (tipo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<? extends Entidade> entidade = consultaInativos.buscarIncluindoInativos(tipo, id);
+        if (entidade.isPresent()) {
+            return ResponseEntity.ok(entidade.get());
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.outbox.DestinoMemoria;
+import com.infnet.companyX.outbox.EventoAlteracao;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Cursor sobre as alterações que o relay publicou no destino em memória. O consumidor
+ * guarda a última sequência vista e continua dela; se o buffer já descartou alterações
+ * posteriores a ela, recebe 410 e tem de recarregar o que sincroniza. Com outro destino
+ * o endpoint não existe (404).
+ */
+@RestController
+@RequestMapping("/api/alteracoes")
+@CrossOrigin(origins = "*")
+public class AlteracaoController {
+
+    @Autowired
+    private ObjectProvider<DestinoMemoria> destino;
+
+    @GetMapping
+    public ResponseEntity<List<EventoAlteracao>> listar(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit) {
+        DestinoMemoria memoria = destino.getIfAvailable();
+        if (memoria == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!memoria.cobre(after)) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        List<EventoAlteracao> eventos = memoria.listar(after, Paginacao.tamanho(limit) + 1);
+        return Paginacao.responder(eventos, limit, EventoAlteracao::sequencia);
+    }
+}
@@ -0,0 +1,53 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Desativação e reativação em lote ({@code POST .../desativar} e {@code .../reativar}).
+ * O corpo traz os ids ou um filtro de igualdade por atributo, como
+ * {@code {"filtro": {"estado": "RJ"}}}, nunca os dois; a resposta diz quantos registros
+ * mudaram de estado.
+ */
+public final class Ativacao {
+
+    public record Selecao(List<Long> ids, Map<String, String> filtro) {
+    }
+
+    public record Resultado(int alterados) {
+    }
+
+    private Ativacao() {
+    }
+
+    public static ResponseEntity<Resultado> alterar(
+            AtivacaoEmLote ativacaoEmLote, Class<? extends Entidade> tipo, Selecao selecao, boolean ativo) {
+        boolean porIds = selecao.ids() != null && !selecao.ids().isEmpty();
+        boolean porFiltro = selecao.filtro() != null && !selecao.filtro().isEmpty();
+        if (porIds == porFiltro) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (porIds && (selecao.ids().size() > PorIds.MAXIMO || selecao.ids().contains(null))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            int alterados = porIds
+                    ? ativacaoEmLote.alterarPorIds(tipo, selecao.ids(), ativo)
+                    : ativacaoEmLote.alterarPorFiltro(tipo, selecao.filtro(), ativo);
+            return ResponseEntity.ok(new Resultado(alterados));
+        } catch (InvalidDataAccessApiUsageException e) {
+            ProblemDetail problema = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+            problema.setTitle("Filtro inválido");
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, problema, e);
+        }
+    }
+}
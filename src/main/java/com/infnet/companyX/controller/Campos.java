@@ -0,0 +1,79 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Respostas do parâmetro {@code fields} ({@code ?fields=nome,cliente.nome}): os endpoints
+ * de listagem e de busca repassam o mesmo filtro da consulta completa, e só as colunas
+ * pedidas são lidas do banco. As listagens servidas da memória projetam as entidades
+ * que já têm.
+ */
+public final class Campos {
+
+    private Campos() {
+    }
+
+    public static <T extends Entidade> ResponseEntity<List<Object>> listar(
+            ProjecaoCampos projecao, Class<T> tipo, String fields, Specification<T> filtro, Long after, Integer limit) {
+        List<Map<String, Object>> itens = projetar(() -> projecao.listar(tipo, fields, filtro, after, Paginacao.limite(limit)));
+        return Paginacao.responder(itens, limit, Campos::id);
+    }
+
+    /**
+     * Para listagens servidas da memória: {@code itens} já é a página, com um registro a
+     * mais se houver próxima, e a projeção é feita sobre ele, sem consultar o banco.
+     */
+    public static <T extends Entidade> ResponseEntity<List<Object>> listar(
+            ProjecaoCampos projecao, Class<T> tipo, String fields, List<T> itens, Integer limit) {
+        return Paginacao.responder(projetar(() -> projecao.projetar(tipo, fields, itens)), limit, Campos::id);
+    }
+
+    public static <T extends Entidade> ResponseEntity<List<Object>> listarPorIds(
+            ProjecaoCampos projecao, Class<T> tipo, String fields, Collection<Long> ids) {
+        return ResponseEntity.ok(List.copyOf(projetar(() -> projecao.listarPorIds(tipo, fields, ids))));
+    }
+
+    public static <T extends Entidade> ResponseEntity<Object> buscar(
+            ProjecaoCampos projecao, Class<T> tipo, String fields, Specification<T> filtro) {
+        Optional<Map<String, Object>> item = projetar(() -> projecao.buscar(tipo, fields, filtro));
+        return item.<ResponseEntity<Object>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    public static <T extends Entidade> Specification<T> todos() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static <T extends Entidade> Specification<T> igual(String atributo, Object valor) {
+        return (root, query, cb) -> cb.equal(root.get(atributo), valor);
+    }
+
+    /**
+     * O campo inválido chega traduzido pelo proxy do {@code @Repository}.
+     */
+    private static <R> R projetar(Supplier<R> consulta) {
+        try {
+            return consulta.get();
+        } catch (InvalidDataAccessApiUsageException e) {
+            ProblemDetail problema = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+            problema.setTitle("Campos inválidos");
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST, problema, e);
+        }
+    }
+
+    private static Long id(Map<String, Object> item) {
+        return (Long) item.get("id");
+    }
+}
@@ -2,102 +2,209 @@ package com.infnet.companyX.controller;
 
 import com.infnet.companyX.entity.Cliente;
 import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.export.ExportadorNdjson;
+import com.infnet.companyX.repository.AtualizacaoParcial;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import com.infnet.companyX.repository.ConsultaInativos;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import com.infnet.companyX.search.CampoIndexado;
+import com.infnet.companyX.search.IndiceNomes;
+import com.infnet.companyX.search.IndiceTrigrama;
+import com.infnet.companyX.versao.Colecao;
+import com.infnet.companyX.versao.Etags;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/clientes")
 @CrossOrigin(origins = "*")
+@Colecao(Cliente.class)
 public class ClienteController {
 
     @Autowired
     private ClienteRepository clienteRepository;
+    
+    @Autowired
+    private ExportadorNdjson exportadorNdjson;
+    
+    @Autowired
+    private InsercaoEmLote insercaoEmLote;
+    
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+    
+    @Autowired
+    private IndiceNomes indiceNomes;
+    
+    @Autowired
+    private ProjecaoCampos projecaoCampos;
+    
+    @Autowired
+    private ConsultaInativos consultaInativos;
+    
+    @Autowired
+    private AtivacaoEmLote ativacaoEmLote;
 
     @GetMapping
-    public ResponseEntity<List<Cliente>> listarTodos() {
-        List<Cliente> clientes = clienteRepository.findByAtivoTrue();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<Object>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Cliente.class, fields, Campos.todos(), after, limit);
+        }
+        List<Cliente> clientes = clienteRepository.findByIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PorIds.Resposta<Cliente>> buscarPorIds(@RequestParam List<Long> ids) {
+        return PorIds.buscar(ids, clienteRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Cliente.class, lote));
+    }
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<PorIds.Resposta<Cliente>> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return PorIds.buscar(ids, clienteRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Cliente.class, lote));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return exportadorNdjson.exportar(clienteRepository::streamAll);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<Object>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (!IndiceTrigrama.aceita(nome)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = indiceNomes.buscar(CampoIndexado.CLIENTE_NOME, nome, Paginacao.tamanho(limit));
+        if (fields != null) {
+            return Campos.listarPorIds(projecaoCampos, Cliente.class, fields, ids);
+        }
+        List<Cliente> clientes = clienteRepository.findByIdInOrderByIdAsc(ids);
+        return ResponseEntity.ok(List.copyOf(clientes));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Object> buscarPorId(@PathVariable Long id, WebRequest request, @RequestParam(required = false) String fields) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = clienteRepository.findVersaoAtivaById(id);
+            if (versao.isPresent() && request.checkNotModified(Etags.deVersoes(versao.get()))) {
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Cliente.class, fields, Campos.igual("id", id));
+        }
+        
         Optional<Cliente> cliente = clienteRepository.findById(id);
-        if (cliente.isPresent() && cliente.get().getAtivo()) {
-            return ResponseEntity.ok(cliente.get());
+        if (cliente.isPresent()) {
+            return ResponseEntity.ok().eTag(Etags.deVersoes(cliente.get().getVersao())).body(cliente.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<Cliente> buscarPorEmail(@PathVariable String email) {
+    public ResponseEntity<Object> buscarPorEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Cliente.class, fields, Campos.igual("email", email));
+        }
         Optional<Cliente> cliente = clienteRepository.findByEmail(email);
-        if (cliente.isPresent() && cliente.get().getAtivo()) {
+        if (cliente.isPresent()) {
             return ResponseEntity.ok(cliente.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/cpf/{cpf}")
-    public ResponseEntity<Cliente> buscarPorCpf(@PathVariable String cpf) {
+    public ResponseEntity<Object> buscarPorCpf(@PathVariable String cpf, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Cliente.class, fields, Campos.igual("cpf", cpf));
+        }
         Optional<Cliente> cliente = clienteRepository.findByCpf(cpf);
-        if (cliente.isPresent() && cliente.get().getAtivo()) {
+        if (cliente.isPresent()) {
             return ResponseEntity.ok(cliente.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/cnpj/{cnpj}")
-    public ResponseEntity<Cliente> buscarPorCnpj(@PathVariable String cnpj) {
+    public ResponseEntity<Object> buscarPorCnpj(@PathVariable String cnpj, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Cliente.class, fields, Campos.igual("cnpj", cnpj));
+        }
         Optional<Cliente> cliente = clienteRepository.findByCnpj(cnpj);
-        if (cliente.isPresent() && cliente.get().getAtivo()) {
+        if (cliente.isPresent()) {
             return ResponseEntity.ok(cliente.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/tipo/{tipo}")
-    public ResponseEntity<List<Cliente>> buscarPorTipoPessoa(@PathVariable String tipo) {
+    public ResponseEntity<List<Object>> buscarPorTipoPessoa(
+            @PathVariable String tipo,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         try {
             Cliente.TipoPessoa tipoPessoa = Cliente.TipoPessoa.valueOf(tipo.toUpperCase());
-            List<Cliente> clientes = clienteRepository.findByTipoPessoa(tipoPessoa);
-            return ResponseEntity.ok(clientes);
+            if (fields != null) {
+                return Campos.listar(projecaoCampos, Cliente.class, fields, Campos.igual("tipoPessoa", tipoPessoa), after, limit);
+            }
+            List<Cliente> clientes = clienteRepository.findByTipoPessoaAndIdGreaterThanOrderByIdAsc(tipoPessoa, after, Paginacao.limite(limit));
+            return Paginacao.responder(clientes, limit, Cliente::getId);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/cidade/{cidade}")
-    public ResponseEntity<List<Cliente>> buscarPorCidade(@PathVariable String cidade) {
-        List<Cliente> clientes = clienteRepository.findByCidade(cidade);
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<Object>> buscarPorCidade(
+            @PathVariable String cidade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Cliente.class, fields, Campos.igual("cidade", cidade), after, limit);
+        }
+        List<Cliente> clientes = clienteRepository.findByCidadeAndIdGreaterThanOrderByIdAsc(cidade, after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
     }
 
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Cliente>> buscarPorEstado(@PathVariable String estado) {
-        List<Cliente> clientes = clienteRepository.findByEstado(estado);
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<Object>> buscarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Cliente.class, fields, Campos.igual("estado", estado), after, limit);
+        }
+        List<Cliente> clientes = clienteRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Paginacao.limite(limit));
+        return Paginacao.responder(clientes, limit, Cliente::getId);
     }
 
     @PostMapping
     public ResponseEntity<Cliente> criar(@RequestBody Cliente cliente) {
         try {
-            if (clienteRepository.findByEmail(cliente.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            if (cliente.getCpf() != null && clienteRepository.findByCpf(cliente.getCpf()).isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            if (cliente.getCnpj() != null && clienteRepository.findByCnpj(cliente.getCnpj()).isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
             if (cliente.getTipoPessoa() == Cliente.TipoPessoa.FISICA && cliente.getCpf() == null) {
                 return ResponseEntity.badRequest().build();
             }
@@ -109,41 +216,66 @@ public class ClienteController {
             cliente.setAtivo(true);
             Cliente novoCliente = clienteRepository.save(cliente);
             return ResponseEntity.status(HttpStatus.CREATED).body(novoCliente);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<Cliente> atualizar(@PathVariable Long id, @RequestBody Cliente clienteAtualizado) {
-        Optional<Cliente> clienteExistente = clienteRepository.findById(id);
-        
-        if (!clienteExistente.isPresent() || !clienteExistente.get().getAtivo()) {
-            return ResponseEntity.notFound().build();
-        }
-        
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Cliente>> criarEmLote(@RequestBody List<Cliente> clientes) {
         try {
-            Cliente cliente = clienteExistente.get();
-            
-            Optional<Cliente> clienteComEmail = clienteRepository.findByEmail(clienteAtualizado.getEmail());
-            if (clienteComEmail.isPresent() && !clienteComEmail.get().getId().equals(id)) {
+            if (clientes.isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
             
-            if (clienteAtualizado.getCpf() != null) {
-                Optional<Cliente> clienteComCpf = clienteRepository.findByCpf(clienteAtualizado.getCpf());
-                if (clienteComCpf.isPresent() && !clienteComCpf.get().getId().equals(id)) {
+            Set<String> emails = new HashSet<>();
+            Set<String> cpfs = new HashSet<>();
+            Set<String> cnpjs = new HashSet<>();
+            for (Cliente cliente : clientes) {
+                if (!emails.add(cliente.getEmail())) {
                     return ResponseEntity.badRequest().build();
                 }
-            }
-            
-            if (clienteAtualizado.getCnpj() != null) {
-                Optional<Cliente> clienteComCnpj = clienteRepository.findByCnpj(clienteAtualizado.getCnpj());
-                if (clienteComCnpj.isPresent() && !clienteComCnpj.get().getId().equals(id)) {
+                
+                if (cliente.getCpf() != null && !cpfs.add(cliente.getCpf())) {
+                    return ResponseEntity.badRequest().build();
+                }
+                
+                if (cliente.getCnpj() != null && !cnpjs.add(cliente.getCnpj())) {
+                    return ResponseEntity.badRequest().build();
+                }
+                
+                if (cliente.getTipoPessoa() == Cliente.TipoPessoa.FISICA && cliente.getCpf() == null) {
+                    return ResponseEntity.badRequest().build();
+                }
+                
+                if (cliente.getTipoPessoa() == Cliente.TipoPessoa.JURIDICA && cliente.getCnpj() == null) {
                     return ResponseEntity.badRequest().build();
                 }
             }
             
+            clientes.forEach(cliente -> cliente.setAtivo(true));
+            List<Cliente> novosClientes = insercaoEmLote.inserir(clientes);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novosClientes);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Cliente> atualizar(@PathVariable Long id, @RequestBody Cliente clienteAtualizado) {
+        Optional<Cliente> clienteExistente = clienteRepository.findById(id);
+        
+        if (clienteExistente.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        try {
+            Cliente cliente = clienteExistente.get();
+            
             cliente.setNome(clienteAtualizado.getNome());
             cliente.setEmail(clienteAtualizado.getEmail());
             cliente.setTelefone(clienteAtualizado.getTelefone());
@@ -158,6 +290,39 @@ public class ClienteController {
             
             Cliente clienteSalvo = clienteRepository.save(cliente);
             return ResponseEntity.ok(clienteSalvo);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        
+        Optional<Long> versao = clienteRepository.findVersaoAtivaById(id);
+        if (!versao.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!Etags.confere(ifMatch, Etags.deVersoes(versao.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        try {
+            Optional<Long> novaVersao = atualizacaoParcial.aplicar(Cliente.class, id, versao.get(), patch);
+            if (!novaVersao.isPresent()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.noContent().eTag(Etags.deVersoes(novaVersao.get())).build();
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -167,7 +332,7 @@ public class ClienteController {
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         Optional<Cliente> cliente = clienteRepository.findById(id);
         
-        if (!cliente.isPresent() || !cliente.get().getAtivo()) {
+        if (cliente.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -177,4 +342,14 @@ public class ClienteController {
         
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/desativar")
+    public ResponseEntity<Ativacao.Resultado> desativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Cliente.class, selecao, false);
+    }
+
+    @PostMapping("/reativar")
+    public ResponseEntity<Ativacao.Resultado> reativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Cliente.class, selecao, true);
+    }
 }
@@ -0,0 +1,20 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.painel.Painel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    @Autowired
+    private Painel painel;
+
+    @GetMapping
+    public ResponseEntity<Painel.Resumo> resumir() {
+        return ResponseEntity.ok(painel.montar());
+    }
+}
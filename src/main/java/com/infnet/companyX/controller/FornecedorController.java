@@ -2,62 +2,165 @@ package com.infnet.companyX.controller;
 
 import com.infnet.companyX.entity.Fornecedor;
 import com.infnet.companyX.repository.FornecedorRepository;
+import com.infnet.companyX.repository.AtualizacaoParcial;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import com.infnet.companyX.repository.ConsultaInativos;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import com.infnet.companyX.search.CampoIndexado;
+import com.infnet.companyX.search.IndiceNomes;
+import com.infnet.companyX.search.IndiceTrigrama;
+import com.infnet.companyX.versao.Colecao;
+import com.infnet.companyX.versao.Etags;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/fornecedores")
 @CrossOrigin(origins = "*")
+@Colecao(Fornecedor.class)
 public class FornecedorController {
 
     @Autowired
     private FornecedorRepository fornecedorRepository;
+    
+    @Autowired
+    private InsercaoEmLote insercaoEmLote;
+    
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+    
+    @Autowired
+    private IndiceNomes indiceNomes;
+    
+    @Autowired
+    private ProjecaoCampos projecaoCampos;
+    
+    @Autowired
+    private ConsultaInativos consultaInativos;
+    
+    @Autowired
+    private AtivacaoEmLote ativacaoEmLote;
 
     @GetMapping
-    public ResponseEntity<List<Fornecedor>> listarTodos() {
-        List<Fornecedor> fornecedores = fornecedorRepository.findByAtivoTrue();
-        return ResponseEntity.ok(fornecedores);
+    public ResponseEntity<List<Object>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Fornecedor.class, fields, Campos.todos(), after, limit);
+        }
+        List<Fornecedor> fornecedores = fornecedorRepository.findByIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PorIds.Resposta<Fornecedor>> buscarPorIds(@RequestParam List<Long> ids) {
+        return PorIds.buscar(ids, fornecedorRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Fornecedor.class, lote));
+    }
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<PorIds.Resposta<Fornecedor>> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return PorIds.buscar(ids, fornecedorRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Fornecedor.class, lote));
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<Object>> buscarPorNome(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String razaoSocial,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (nome == null && razaoSocial == null || !IndiceTrigrama.aceita(nome != null ? nome : razaoSocial)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        List<Long> ids = nome != null
+                ? indiceNomes.buscar(CampoIndexado.FORNECEDOR_NOME, nome, Paginacao.tamanho(limit))
+                : indiceNomes.buscar(CampoIndexado.FORNECEDOR_RAZAO_SOCIAL, razaoSocial, Paginacao.tamanho(limit));
+        if (fields != null) {
+            return Campos.listarPorIds(projecaoCampos, Fornecedor.class, fields, ids);
+        }
+        List<Fornecedor> fornecedores = fornecedorRepository.findByIdInOrderByIdAsc(ids);
+        return ResponseEntity.ok(List.copyOf(fornecedores));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Fornecedor> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Object> buscarPorId(@PathVariable Long id, WebRequest request, @RequestParam(required = false) String fields) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = fornecedorRepository.findVersaoAtivaById(id);
+            if (versao.isPresent() && request.checkNotModified(Etags.deVersoes(versao.get()))) {
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Fornecedor.class, fields, Campos.igual("id", id));
+        }
+        
         Optional<Fornecedor> fornecedor = fornecedorRepository.findById(id);
-        if (fornecedor.isPresent() && fornecedor.get().getAtivo()) {
-            return ResponseEntity.ok(fornecedor.get());
+        if (fornecedor.isPresent()) {
+            return ResponseEntity.ok().eTag(Etags.deVersoes(fornecedor.get().getVersao())).body(fornecedor.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/cnpj/{cnpj}")
-    public ResponseEntity<Fornecedor> buscarPorCnpj(@PathVariable String cnpj) {
+    public ResponseEntity<Object> buscarPorCnpj(@PathVariable String cnpj, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Fornecedor.class, fields, Campos.igual("cnpj", cnpj));
+        }
         Optional<Fornecedor> fornecedor = fornecedorRepository.findByCnpj(cnpj);
-        if (fornecedor.isPresent() && fornecedor.get().getAtivo()) {
+        if (fornecedor.isPresent()) {
             return ResponseEntity.ok(fornecedor.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/cidade/{cidade}")
-    public ResponseEntity<List<Fornecedor>> buscarPorCidade(@PathVariable String cidade) {
-        List<Fornecedor> fornecedores = fornecedorRepository.findByCidade(cidade);
-        return ResponseEntity.ok(fornecedores);
+    public ResponseEntity<List<Object>> buscarPorCidade(
+            @PathVariable String cidade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Fornecedor.class, fields, Campos.igual("cidade", cidade), after, limit);
+        }
+        List<Fornecedor> fornecedores = fornecedorRepository.findByCidadeAndIdGreaterThanOrderByIdAsc(cidade, after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
     }
 
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<Fornecedor>> buscarPorEstado(@PathVariable String estado) {
-        List<Fornecedor> fornecedores = fornecedorRepository.findByEstado(estado);
-        return ResponseEntity.ok(fornecedores);
+    public ResponseEntity<List<Object>> buscarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Fornecedor.class, fields, Campos.igual("estado", estado), after, limit);
+        }
+        List<Fornecedor> fornecedores = fornecedorRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Paginacao.limite(limit));
+        return Paginacao.responder(fornecedores, limit, Fornecedor::getId);
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<Fornecedor> buscarPorEmail(@PathVariable String email) {
+    public ResponseEntity<Object> buscarPorEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Fornecedor.class, fields, Campos.igual("email", email));
+        }
         Optional<Fornecedor> fornecedor = fornecedorRepository.findByEmail(email);
-        if (fornecedor.isPresent() && fornecedor.get().getAtivo()) {
+        if (fornecedor.isPresent()) {
             return ResponseEntity.ok(fornecedor.get());
         }
         return ResponseEntity.notFound().build();
@@ -66,17 +169,36 @@ public class FornecedorController {
     @PostMapping
     public ResponseEntity<Fornecedor> criar(@RequestBody Fornecedor fornecedor) {
         try {
-            if (fornecedorRepository.findByCnpj(fornecedor.getCnpj()).isPresent()) {
+            fornecedor.setAtivo(true);
+            Fornecedor novoFornecedor = fornecedorRepository.save(fornecedor);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novoFornecedor);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Fornecedor>> criarEmLote(@RequestBody List<Fornecedor> fornecedores) {
+        try {
+            if (fornecedores.isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
             
-            if (fornecedorRepository.findByEmail(fornecedor.getEmail()).isPresent()) {
-                return ResponseEntity.badRequest().build();
+            Set<String> cnpjs = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (Fornecedor fornecedor : fornecedores) {
+                if (!cnpjs.add(fornecedor.getCnpj()) || !emails.add(fornecedor.getEmail())) {
+                    return ResponseEntity.badRequest().build();
+                }
             }
             
-            fornecedor.setAtivo(true);
-            Fornecedor novoFornecedor = fornecedorRepository.save(fornecedor);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novoFornecedor);
+            fornecedores.forEach(fornecedor -> fornecedor.setAtivo(true));
+            List<Fornecedor> novosFornecedores = insercaoEmLote.inserir(fornecedores);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novosFornecedores);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -86,23 +208,13 @@ public class FornecedorController {
     public ResponseEntity<Fornecedor> atualizar(@PathVariable Long id, @RequestBody Fornecedor fornecedorAtualizado) {
         Optional<Fornecedor> fornecedorExistente = fornecedorRepository.findById(id);
         
-        if (!fornecedorExistente.isPresent() || !fornecedorExistente.get().getAtivo()) {
+        if (fornecedorExistente.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
         try {
             Fornecedor fornecedor = fornecedorExistente.get();
             
-            Optional<Fornecedor> fornecedorComCnpj = fornecedorRepository.findByCnpj(fornecedorAtualizado.getCnpj());
-            if (fornecedorComCnpj.isPresent() && !fornecedorComCnpj.get().getId().equals(id)) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            Optional<Fornecedor> fornecedorComEmail = fornecedorRepository.findByEmail(fornecedorAtualizado.getEmail());
-            if (fornecedorComEmail.isPresent() && !fornecedorComEmail.get().getId().equals(id)) {
-                return ResponseEntity.badRequest().build();
-            }
-            
             fornecedor.setNome(fornecedorAtualizado.getNome());
             fornecedor.setRazaoSocial(fornecedorAtualizado.getRazaoSocial());
             fornecedor.setCnpj(fornecedorAtualizado.getCnpj());
@@ -117,6 +229,39 @@ public class FornecedorController {
             
             Fornecedor fornecedorSalvo = fornecedorRepository.save(fornecedor);
             return ResponseEntity.ok(fornecedorSalvo);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        
+        Optional<Long> versao = fornecedorRepository.findVersaoAtivaById(id);
+        if (!versao.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!Etags.confere(ifMatch, Etags.deVersoes(versao.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        try {
+            Optional<Long> novaVersao = atualizacaoParcial.aplicar(Fornecedor.class, id, versao.get(), patch);
+            if (!novaVersao.isPresent()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.noContent().eTag(Etags.deVersoes(novaVersao.get())).build();
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -126,7 +271,7 @@ public class FornecedorController {
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         Optional<Fornecedor> fornecedor = fornecedorRepository.findById(id);
         
-        if (!fornecedor.isPresent() || !fornecedor.get().getAtivo()) {
+        if (fornecedor.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -136,4 +281,14 @@ public class FornecedorController {
         
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/desativar")
+    public ResponseEntity<Ativacao.Resultado> desativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Fornecedor.class, selecao, false);
+    }
+
+    @PostMapping("/reativar")
+    public ResponseEntity<Ativacao.Resultado> reativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Fornecedor.class, selecao, true);
+    }
 }
@@ -2,53 +2,149 @@ package com.infnet.companyX.controller;
 
 import com.infnet.companyX.entity.Funcionario;
 import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.repository.AtualizacaoParcial;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import com.infnet.companyX.repository.ConsultaInativos;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import com.infnet.companyX.search.CampoIndexado;
+import com.infnet.companyX.search.IndiceNomes;
+import com.infnet.companyX.search.IndiceTrigrama;
+import com.infnet.companyX.versao.Colecao;
+import com.infnet.companyX.versao.Etags;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/funcionarios")
 @CrossOrigin(origins = "*")
+@Colecao(Funcionario.class)
 public class FuncionarioController {
 
     @Autowired
     private FuncionarioRepository funcionarioRepository;
+    
+    @Autowired
+    private InsercaoEmLote insercaoEmLote;
+    
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+    
+    @Autowired
+    private IndiceNomes indiceNomes;
+    
+    @Autowired
+    private ProjecaoCampos projecaoCampos;
+    
+    @Autowired
+    private ConsultaInativos consultaInativos;
+    
+    @Autowired
+    private AtivacaoEmLote ativacaoEmLote;
 
     @GetMapping
-    public ResponseEntity<List<Funcionario>> listarTodos() {
-        List<Funcionario> funcionarios = funcionarioRepository.findByAtivoTrue();
-        return ResponseEntity.ok(funcionarios);
+    public ResponseEntity<List<Object>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Funcionario.class, fields, Campos.todos(), after, limit);
+        }
+        List<Funcionario> funcionarios = funcionarioRepository.findByIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PorIds.Resposta<Funcionario>> buscarPorIds(@RequestParam List<Long> ids) {
+        return PorIds.buscar(ids, funcionarioRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Funcionario.class, lote));
+    }
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<PorIds.Resposta<Funcionario>> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return PorIds.buscar(ids, funcionarioRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Funcionario.class, lote));
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<Object>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (!IndiceTrigrama.aceita(nome)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = indiceNomes.buscar(CampoIndexado.FUNCIONARIO_NOME, nome, Paginacao.tamanho(limit));
+        if (fields != null) {
+            return Campos.listarPorIds(projecaoCampos, Funcionario.class, fields, ids);
+        }
+        List<Funcionario> funcionarios = funcionarioRepository.findByIdInOrderByIdAsc(ids);
+        return ResponseEntity.ok(List.copyOf(funcionarios));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Funcionario> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Object> buscarPorId(@PathVariable Long id, WebRequest request, @RequestParam(required = false) String fields) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = funcionarioRepository.findVersaoAtivaById(id);
+            if (versao.isPresent() && request.checkNotModified(Etags.deVersoes(versao.get()))) {
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Funcionario.class, fields, Campos.igual("id", id));
+        }
+        
         Optional<Funcionario> funcionario = funcionarioRepository.findById(id);
-        if (funcionario.isPresent() && funcionario.get().getAtivo()) {
-            return ResponseEntity.ok(funcionario.get());
+        if (funcionario.isPresent()) {
+            return ResponseEntity.ok().eTag(Etags.deVersoes(funcionario.get().getVersao())).body(funcionario.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/departamento/{departamento}")
-    public ResponseEntity<List<Funcionario>> buscarPorDepartamento(@PathVariable String departamento) {
-        List<Funcionario> funcionarios = funcionarioRepository.findByDepartamento(departamento);
-        return ResponseEntity.ok(funcionarios);
+    public ResponseEntity<List<Object>> buscarPorDepartamento(
+            @PathVariable String departamento,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Funcionario.class, fields, Campos.igual("departamento", departamento), after, limit);
+        }
+        List<Funcionario> funcionarios = funcionarioRepository.findByDepartamentoAndIdGreaterThanOrderByIdAsc(departamento, after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
     }
 
     @GetMapping("/cargo/{cargo}")
-    public ResponseEntity<List<Funcionario>> buscarPorCargo(@PathVariable String cargo) {
-        List<Funcionario> funcionarios = funcionarioRepository.findByCargo(cargo);
-        return ResponseEntity.ok(funcionarios);
+    public ResponseEntity<List<Object>> buscarPorCargo(
+            @PathVariable String cargo,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Funcionario.class, fields, Campos.igual("cargo", cargo), after, limit);
+        }
+        List<Funcionario> funcionarios = funcionarioRepository.findByCargoAndIdGreaterThanOrderByIdAsc(cargo, after, Paginacao.limite(limit));
+        return Paginacao.responder(funcionarios, limit, Funcionario::getId);
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<Funcionario> buscarPorEmail(@PathVariable String email) {
+    public ResponseEntity<Object> buscarPorEmail(@PathVariable String email, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Funcionario.class, fields, Campos.igual("email", email));
+        }
         Optional<Funcionario> funcionario = funcionarioRepository.findByEmail(email);
-        if (funcionario.isPresent() && funcionario.get().getAtivo()) {
+        if (funcionario.isPresent()) {
             return ResponseEntity.ok(funcionario.get());
         }
         return ResponseEntity.notFound().build();
@@ -57,17 +153,40 @@ public class FuncionarioController {
     @PostMapping
     public ResponseEntity<Funcionario> criar(@RequestBody Funcionario funcionario) {
         try {
-            if (funcionarioRepository.findByEmail(funcionario.getEmail()).isPresent()) {
+            funcionario.setAtivo(true);
+            Funcionario novoFuncionario = funcionarioRepository.save(funcionario);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novoFuncionario);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Funcionario>> criarEmLote(@RequestBody List<Funcionario> funcionarios) {
+        try {
+            if (funcionarios.isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
             
-            if (funcionario.getCpf() != null && funcionarioRepository.findByCpf(funcionario.getCpf()).isPresent()) {
-                return ResponseEntity.badRequest().build();
+            Set<String> emails = new HashSet<>();
+            Set<String> cpfs = new HashSet<>();
+            for (Funcionario funcionario : funcionarios) {
+                if (!emails.add(funcionario.getEmail())) {
+                    return ResponseEntity.badRequest().build();
+                }
+                
+                if (funcionario.getCpf() != null && !cpfs.add(funcionario.getCpf())) {
+                    return ResponseEntity.badRequest().build();
+                }
             }
             
-            funcionario.setAtivo(true);
-            Funcionario novoFuncionario = funcionarioRepository.save(funcionario);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novoFuncionario);
+            funcionarios.forEach(funcionario -> funcionario.setAtivo(true));
+            List<Funcionario> novosFuncionarios = insercaoEmLote.inserir(funcionarios);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novosFuncionarios);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -77,25 +196,13 @@ public class FuncionarioController {
     public ResponseEntity<Funcionario> atualizar(@PathVariable Long id, @RequestBody Funcionario funcionarioAtualizado) {
         Optional<Funcionario> funcionarioExistente = funcionarioRepository.findById(id);
         
-        if (!funcionarioExistente.isPresent() || !funcionarioExistente.get().getAtivo()) {
+        if (funcionarioExistente.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
         try {
             Funcionario funcionario = funcionarioExistente.get();
             
-            Optional<Funcionario> funcionarioComEmail = funcionarioRepository.findByEmail(funcionarioAtualizado.getEmail());
-            if (funcionarioComEmail.isPresent() && !funcionarioComEmail.get().getId().equals(id)) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            if (funcionarioAtualizado.getCpf() != null) {
-                Optional<Funcionario> funcionarioComCpf = funcionarioRepository.findByCpf(funcionarioAtualizado.getCpf());
-                if (funcionarioComCpf.isPresent() && !funcionarioComCpf.get().getId().equals(id)) {
-                    return ResponseEntity.badRequest().build();
-                }
-            }
-            
             funcionario.setNome(funcionarioAtualizado.getNome());
             funcionario.setEmail(funcionarioAtualizado.getEmail());
             funcionario.setCargo(funcionarioAtualizado.getCargo());
@@ -107,6 +214,39 @@ public class FuncionarioController {
             
             Funcionario funcionarioSalvo = funcionarioRepository.save(funcionario);
             return ResponseEntity.ok(funcionarioSalvo);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        
+        Optional<Long> versao = funcionarioRepository.findVersaoAtivaById(id);
+        if (!versao.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!Etags.confere(ifMatch, Etags.deVersoes(versao.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        try {
+            Optional<Long> novaVersao = atualizacaoParcial.aplicar(Funcionario.class, id, versao.get(), patch);
+            if (!novaVersao.isPresent()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.noContent().eTag(Etags.deVersoes(novaVersao.get())).build();
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -116,7 +256,7 @@ public class FuncionarioController {
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         Optional<Funcionario> funcionario = funcionarioRepository.findById(id);
         
-        if (!funcionario.isPresent() || !funcionario.get().getAtivo()) {
+        if (funcionario.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -126,4 +266,14 @@ public class FuncionarioController {
         
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/desativar")
+    public ResponseEntity<Ativacao.Resultado> desativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Funcionario.class, selecao, false);
+    }
+
+    @PostMapping("/reativar")
+    public ResponseEntity<Ativacao.Resultado> reativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Funcionario.class, selecao, true);
+    }
 }
@@ -0,0 +1,49 @@
+package com.infnet.companyX.controller;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public final class Paginacao {
+
+    public static final String CABECALHO_PROXIMO = "X-Next-Cursor";
+
+    public static final int LIMITE_PADRAO = 100;
+
+    public static final int LIMITE_MAXIMO = 1000;
+
+    private Paginacao() {
+    }
+
+    public static int tamanho(Integer limit) {
+        if (limit == null) {
+            return LIMITE_PADRAO;
+        }
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    /**
+     * Busca um registro a mais que o tamanho da página para saber se existe uma próxima.
+     */
+    public static Limit limite(Integer limit) {
+        return Limit.of(tamanho(limit) + 1);
+    }
+
+    /**
+     * O corpo pode ser declarado com um supertipo dos itens, como nos endpoints que
+     * respondem com entidades ou com os mapas do parâmetro {@code fields}.
+     */
+    public static <T, E extends T> ResponseEntity<List<T>> responder(List<E> itens, Integer limit, Function<E, Long> id) {
+        int tamanho = tamanho(limit);
+        if (itens.size() <= tamanho) {
+            return ResponseEntity.ok(Collections.unmodifiableList(itens));
+        }
+        List<T> pagina = Collections.unmodifiableList(itens.subList(0, tamanho));
+        return ResponseEntity.ok()
+                .header(CABECALHO_PROXIMO, String.valueOf(id.apply(itens.get(tamanho - 1))))
+                .body(pagina);
+    }
+}
@@ -0,0 +1,74 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Entidade;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Busca de vários registros por id numa chamada ({@code ?ids=1,2,3} ou corpo com a lista):
+ * os ids vão ao banco em lotes de {@code IN}, e a resposta segue a ordem pedida, sem
+ * repetições, apontando os ids que não existem e os que estão inativos. Como a consulta
+ * principal já não carrega inativos, só os ids que ela não encontrou passam pela consulta
+ * nativa que os distingue dos inexistentes.
+ */
+public final class PorIds {
+
+    /**
+     * Lotes de tamanho fixo mantêm o número de parâmetros do {@code IN} limitado e, com o
+     * padding de parâmetros do Hibernate, poucos planos distintos em cache.
+     */
+    public static final int TAMANHO_LOTE = 500;
+
+    public static final int MAXIMO = 10_000;
+
+    public record Resposta<T>(List<T> itens, List<Long> ausentes, List<Long> inativos) {
+    }
+
+    private PorIds() {
+    }
+
+    public static <T extends Entidade> ResponseEntity<Resposta<T>> buscar(
+            List<Long> ids, Function<Collection<Long>, List<T>> consulta,
+            Function<Collection<Long>, List<Long>> inativos) {
+        if (ids.size() > MAXIMO || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> pedidos = List.copyOf(new LinkedHashSet<>(ids));
+
+        Map<Long, T> encontrados = new HashMap<>();
+        emLotes(pedidos, lote -> consulta.apply(lote).forEach(entidade -> encontrados.put(entidade.getId(), entidade)));
+
+        List<T> itens = new ArrayList<>();
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : pedidos) {
+            T entidade = encontrados.get(id);
+            if (entidade != null) {
+                itens.add(entidade);
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+
+        Set<Long> desativados = new HashSet<>();
+        emLotes(naoEncontrados, lote -> desativados.addAll(inativos.apply(lote)));
+        List<Long> ausentes = naoEncontrados.stream().filter(id -> !desativados.contains(id)).toList();
+        List<Long> inativosPedidos = naoEncontrados.stream().filter(desativados::contains).toList();
+        return ResponseEntity.ok(new Resposta<>(itens, ausentes, inativosPedidos));
+    }
+
+    private static void emLotes(List<Long> ids, Consumer<List<Long>> consulta) {
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            consulta.accept(ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size())));
+        }
+    }
+}
@@ -2,83 +2,247 @@ package com.infnet.companyX.controller;
 
 import com.infnet.companyX.entity.Produto;
 import com.infnet.companyX.repository.ProdutoRepository;
+import com.infnet.companyX.estoque.EstoqueBaixo;
+import com.infnet.companyX.export.ExportadorNdjson;
+import com.infnet.companyX.repository.AtualizacaoParcial;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import com.infnet.companyX.repository.ConsultaInativos;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import com.infnet.companyX.repository.ReservaEstoque;
+import com.infnet.companyX.search.CampoIndexado;
+import com.infnet.companyX.search.IndiceNomes;
+import com.infnet.companyX.search.IndiceTrigrama;
+import com.infnet.companyX.versao.Colecao;
+import com.infnet.companyX.versao.Etags;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/produtos")
 @CrossOrigin(origins = "*")
+@Colecao(Produto.class)
 public class ProdutoController {
 
     @Autowired
     private ProdutoRepository produtoRepository;
+    
+    @Autowired
+    private ExportadorNdjson exportadorNdjson;
+    
+    @Autowired
+    private InsercaoEmLote insercaoEmLote;
+    
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+    
+    @Autowired
+    private ReservaEstoque reservaEstoque;
+    
+    @Autowired
+    private EstoqueBaixo estoqueBaixo;
+    
+    @Autowired
+    private IndiceNomes indiceNomes;
+    
+    @Autowired
+    private ProjecaoCampos projecaoCampos;
+    
+    @Autowired
+    private ConsultaInativos consultaInativos;
+    
+    @Autowired
+    private AtivacaoEmLote ativacaoEmLote;
 
     @GetMapping
-    public ResponseEntity<List<Produto>> listarTodos() {
-        List<Produto> produtos = produtoRepository.findByAtivoTrue();
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Object>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Produto.class, fields, Campos.todos(), after, limit);
+        }
+        List<Produto> produtos = produtoRepository.findByIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PorIds.Resposta<Produto>> buscarPorIds(@RequestParam List<Long> ids) {
+        return PorIds.buscar(ids, produtoRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Produto.class, lote));
+    }
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<PorIds.Resposta<Produto>> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return PorIds.buscar(ids, produtoRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Produto.class, lote));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return exportadorNdjson.exportar(produtoRepository::streamAll);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<Object>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (!IndiceTrigrama.aceita(nome)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = indiceNomes.buscar(CampoIndexado.PRODUTO_NOME, nome, Paginacao.tamanho(limit));
+        if (fields != null) {
+            return Campos.listarPorIds(projecaoCampos, Produto.class, fields, ids);
+        }
+        List<Produto> produtos = produtoRepository.findByIdInOrderByIdAsc(ids);
+        return ResponseEntity.ok(List.copyOf(produtos));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Produto> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Object> buscarPorId(@PathVariable Long id, WebRequest request, @RequestParam(required = false) String fields) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = produtoRepository.findVersaoAtivaById(id);
+            if (versao.isPresent() && request.checkNotModified(Etags.deVersoes(versao.get()))) {
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Produto.class, fields, Campos.igual("id", id));
+        }
+        
         Optional<Produto> produto = produtoRepository.findById(id);
-        if (produto.isPresent() && produto.get().getAtivo()) {
-            return ResponseEntity.ok(produto.get());
+        if (produto.isPresent()) {
+            return ResponseEntity.ok().eTag(Etags.deVersoes(produto.get().getVersao())).body(produto.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/codigo/{codigo}")
-    public ResponseEntity<Produto> buscarPorCodigo(@PathVariable String codigo) {
+    public ResponseEntity<Object> buscarPorCodigo(@PathVariable String codigo, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Produto.class, fields, Campos.igual("codigo", codigo));
+        }
         Optional<Produto> produto = produtoRepository.findByCodigo(codigo);
-        if (produto.isPresent() && produto.get().getAtivo()) {
+        if (produto.isPresent()) {
             return ResponseEntity.ok(produto.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<Produto>> buscarPorCategoria(@PathVariable String categoria) {
-        List<Produto> produtos = produtoRepository.findByCategoria(categoria);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Object>> buscarPorCategoria(
+            @PathVariable String categoria,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Produto.class, fields, Campos.igual("categoria", categoria), after, limit);
+        }
+        List<Produto> produtos = produtoRepository.findByCategoriaAndIdGreaterThanOrderByIdAsc(categoria, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
     }
 
     @GetMapping("/marca/{marca}")
-    public ResponseEntity<List<Produto>> buscarPorMarca(@PathVariable String marca) {
-        List<Produto> produtos = produtoRepository.findByMarca(marca);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Object>> buscarPorMarca(
+            @PathVariable String marca,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Produto.class, fields, Campos.igual("marca", marca), after, limit);
+        }
+        List<Produto> produtos = produtoRepository.findByMarcaAndIdGreaterThanOrderByIdAsc(marca, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
     }
 
     @GetMapping("/preco")
-    public ResponseEntity<List<Produto>> buscarPorFaixaPreco(
+    public ResponseEntity<List<Object>> buscarPorFaixaPreco(
             @RequestParam BigDecimal min, 
-            @RequestParam BigDecimal max) {
-        List<Produto> produtos = produtoRepository.findByPrecoRange(min, max);
-        return ResponseEntity.ok(produtos);
+            @RequestParam BigDecimal max,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Produto.class, fields,
+                    (root, query, cb) -> cb.between(root.<BigDecimal>get("preco"), min, max), after, limit);
+        }
+        List<Produto> produtos = produtoRepository.findByPrecoRange(min, max, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
     }
 
     @GetMapping("/estoque-baixo")
-    public ResponseEntity<List<Produto>> buscarEstoqueBaixo(@RequestParam(defaultValue = "10") Integer limite) {
-        List<Produto> produtos = produtoRepository.findEstoqueBaixo(limite);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<List<Object>> buscarEstoqueBaixo(
+            @RequestParam(defaultValue = "10") Integer limite,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Produto.class, fields,
+                    (root, query, cb) -> cb.lessThan(root.<Integer>get("quantidadeEstoque"), limite), after, limit);
+        }
+        if (limite <= estoqueBaixo.getLimiar()) {
+            List<Produto> produtos = estoqueBaixo.listar(limite, after, Paginacao.tamanho(limit) + 1);
+            return Paginacao.responder(produtos, limit, Produto::getId);
+        }
+        List<Produto> produtos = produtoRepository.findEstoqueBaixo(limite, after, Paginacao.limite(limit));
+        return Paginacao.responder(produtos, limit, Produto::getId);
+    }
+
+    @GetMapping(value = "/estoque-baixo/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharEstoqueBaixo() {
+        return estoqueBaixo.assinar();
     }
 
     @PostMapping
     public ResponseEntity<Produto> criar(@RequestBody Produto produto) {
         try {
-            if (produtoRepository.findByCodigo(produto.getCodigo()).isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            
             produto.setAtivo(true);
             Produto novoProduto = produtoRepository.save(produto);
             return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Produto>> criarEmLote(@RequestBody List<Produto> produtos) {
+        try {
+            if (produtos.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            Set<String> codigos = new HashSet<>();
+            for (Produto produto : produtos) {
+                if (!codigos.add(produto.getCodigo())) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+            
+            produtos.forEach(produto -> produto.setAtivo(true));
+            List<Produto> novosProdutos = insercaoEmLote.inserir(produtos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novosProdutos);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -88,18 +252,13 @@ public class ProdutoController {
     public ResponseEntity<Produto> atualizar(@PathVariable Long id, @RequestBody Produto produtoAtualizado) {
         Optional<Produto> produtoExistente = produtoRepository.findById(id);
         
-        if (!produtoExistente.isPresent() || !produtoExistente.get().getAtivo()) {
+        if (produtoExistente.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
         try {
             Produto produto = produtoExistente.get();
             
-            Optional<Produto> produtoComCodigo = produtoRepository.findByCodigo(produtoAtualizado.getCodigo());
-            if (produtoComCodigo.isPresent() && !produtoComCodigo.get().getId().equals(id)) {
-                return ResponseEntity.badRequest().build();
-            }
-            
             produto.setNome(produtoAtualizado.getNome());
             produto.setDescricao(produtoAtualizado.getDescricao());
             produto.setCodigo(produtoAtualizado.getCodigo());
@@ -111,16 +270,90 @@ public class ProdutoController {
             
             Produto produtoSalvo = produtoRepository.save(produto);
             return ResponseEntity.ok(produtoSalvo);
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        
+        Optional<Long> versao = produtoRepository.findVersaoAtivaById(id);
+        if (!versao.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        if (!Etags.confere(ifMatch, Etags.deVersoes(versao.get()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        try {
+            Optional<Long> novaVersao = atualizacaoParcial.aplicar(Produto.class, id, versao.get(), patch);
+            if (!novaVersao.isPresent()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.noContent().eTag(Etags.deVersoes(novaVersao.get())).build();
+        } catch (DataIntegrityViolationException e) {
+            throw ViolacaoUnicidade.traduzir(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/{id}/estoque/reservar")
+    public ResponseEntity<Void> reservarEstoque(@PathVariable Long id, @RequestParam Integer quantidade) {
+        if (quantidade <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        if (reservaEstoque.reservar(id, quantidade)) {
+            return ResponseEntity.noContent().build();
+        }
+        return semEstoque(id);
+    }
+
+    @PostMapping("/{id}/estoque/repor")
+    public ResponseEntity<Void> reporEstoque(@PathVariable Long id, @RequestParam Integer quantidade) {
+        if (quantidade <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        if (reservaEstoque.repor(id, quantidade)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Corpo no formato {@code {"<idProduto>": quantidade, ...}}; ou todos os itens são
+     * reservados, ou nenhum.
+     */
+    @PostMapping("/estoque/reservar")
+    public ResponseEntity<Void> reservarEstoqueEmLote(@RequestBody Map<Long, Integer> itens) {
+        if (itens.isEmpty() || itens.values().stream().anyMatch(quantidade -> quantidade == null || quantidade <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Optional<Long> semSaldo = reservaEstoque.reservarLote(itens);
+        if (!semSaldo.isPresent()) {
+            return ResponseEntity.noContent().build();
+        }
+        return semEstoque(semSaldo.get());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         Optional<Produto> produto = produtoRepository.findById(id);
         
-        if (!produto.isPresent() || !produto.get().getAtivo()) {
+        if (produto.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -130,4 +363,29 @@ public class ProdutoController {
         
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/desativar")
+    public ResponseEntity<Ativacao.Resultado> desativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Produto.class, selecao, false);
+    }
+
+    @PostMapping("/reativar")
+    public ResponseEntity<Ativacao.Resultado> reativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Produto.class, selecao, true);
+    }
+
+    /**
+     * Só roda quando a reserva falha, para distinguir produto inexistente (404) de saldo
+     * insuficiente (409) sem acrescentar uma leitura ao caminho de sucesso.
+     */
+    private ResponseEntity<Void> semEstoque(Long produtoId) {
+        if (!produtoRepository.findVersaoAtivaById(produtoId).isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        ProblemDetail problema = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "Estoque insuficiente para o produto " + produtoId + ".");
+        problema.setTitle("Estoque insuficiente");
+        problema.setProperty("produtoId", produtoId);
+        throw new ErrorResponseException(HttpStatus.CONFLICT, problema, null);
+    }
 }
@@ -6,18 +6,41 @@ import com.infnet.companyX.entity.Funcionario;
 import com.infnet.companyX.repository.ProjetoRepository;
 import com.infnet.companyX.repository.ClienteRepository;
 import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.export.ExportadorNdjson;
+import com.infnet.companyX.financeiro.PortfolioFinanceiro;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
+import com.infnet.companyX.repository.AtualizacaoParcial;
+import com.infnet.companyX.repository.AtivacaoEmLote;
+import com.infnet.companyX.repository.ConsultaInativos;
+import com.infnet.companyX.repository.InsercaoEmLote;
+import com.infnet.companyX.repository.ProjecaoCampos;
+import com.infnet.companyX.search.CampoIndexado;
+import com.infnet.companyX.search.IndiceNomes;
+import com.infnet.companyX.search.IndiceTrigrama;
+import com.infnet.companyX.versao.Colecao;
+import com.infnet.companyX.versao.Etags;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/projetos")
 @CrossOrigin(origins = "*")
+@Colecao(Projeto.class)
 public class ProjetoController {
 
     @Autowired
@@ -28,66 +51,210 @@ public class ProjetoController {
     
     @Autowired
     private FuncionarioRepository funcionarioRepository;
+    
+    @Autowired
+    private ExportadorNdjson exportadorNdjson;
+    
+    @Autowired
+    private InsercaoEmLote insercaoEmLote;
+    
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+    
+    @Autowired
+    private IndiceNomes indiceNomes;
+    
+    @Autowired
+    private ProjecaoCampos projecaoCampos;
+    
+    @Autowired
+    private ConsultaInativos consultaInativos;
+    
+    @Autowired
+    private AtivacaoEmLote ativacaoEmLote;
+    
+    @Autowired
+    private ProjetosAtrasados projetosAtrasados;
+    
+    @Autowired
+    private PortfolioFinanceiro portfolioFinanceiro;
 
     @GetMapping
-    public ResponseEntity<List<Projeto>> listarTodos() {
-        List<Projeto> projetos = projetoRepository.findByAtivoTrue();
-        return ResponseEntity.ok(projetos);
+    public ResponseEntity<List<Object>> listarTodos(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Projeto.class, fields, Campos.todos(), after, limit);
+        }
+        List<Projeto> projetos = projetoRepository.findByIdGreaterThanOrderByIdAsc(after, Paginacao.limite(limit));
+        return Paginacao.responder(projetos, limit, Projeto::getId);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<PorIds.Resposta<Projeto>> buscarPorIds(@RequestParam List<Long> ids) {
+        return PorIds.buscar(ids, projetoRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Projeto.class, lote));
+    }
+
+    @PostMapping("/por-ids")
+    public ResponseEntity<PorIds.Resposta<Projeto>> buscarPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return PorIds.buscar(ids, projetoRepository::findByIdInOrderByIdAsc, lote -> consultaInativos.idsInativos(Projeto.class, lote));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        return exportadorNdjson.exportar(projetoRepository::streamAll);
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<List<Object>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (!IndiceTrigrama.aceita(nome)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = indiceNomes.buscar(CampoIndexado.PROJETO_NOME, nome, Paginacao.tamanho(limit));
+        if (fields != null) {
+            return Campos.listarPorIds(projecaoCampos, Projeto.class, fields, ids);
+        }
+        List<Projeto> projetos = projetoRepository.findByIdInOrderByIdAsc(ids);
+        return ResponseEntity.ok(List.copyOf(projetos));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Projeto> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<Object> buscarPorId(@PathVariable Long id, WebRequest request, @RequestParam(required = false) String fields) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<ProjetoRepository.Versoes> versoes = projetoRepository.findVersoesAtivasById(id);
+            if (versoes.isPresent() && request.checkNotModified(Etags.deVersoes(
+                    versoes.get().getProjeto(), versoes.get().getCliente(), versoes.get().getGerente()))) {
+                return null;
+            }
+        }
+        
+        if (fields != null) {
+            return Campos.buscar(projecaoCampos, Projeto.class, fields, Campos.igual("id", id));
+        }
+        
         Optional<Projeto> projeto = projetoRepository.findById(id);
-        if (projeto.isPresent() && projeto.get().getAtivo()) {
-            return ResponseEntity.ok(projeto.get());
+        if (projeto.isPresent()) {
+            return ResponseEntity.ok().eTag(etag(projeto.get())).body(projeto.get());
         }
         return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Projeto>> buscarPorStatus(@PathVariable String status) {
+    public ResponseEntity<List<Object>> buscarPorStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         try {
             Projeto.StatusProjeto statusProjeto = Projeto.StatusProjeto.valueOf(status.toUpperCase());
-            List<Projeto> projetos = projetoRepository.findByStatus(statusProjeto);
-            return ResponseEntity.ok(projetos);
+            if (fields != null) {
+                return Campos.listar(projecaoCampos, Projeto.class, fields, Campos.igual("status", statusProjeto), after, limit);
+            }
+            List<Projeto> projetos = projetoRepository.findByStatusAndIdGreaterThanOrderByIdAsc(statusProjeto, after, Paginacao.limite(limit));
+            return Paginacao.responder(projetos, limit, Projeto::getId);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Projeto>> buscarPorCliente(@PathVariable Long clienteId) {
-        List<Projeto> projetos = projetoRepository.findByClienteId(clienteId);
-        return ResponseEntity.ok(projetos);
+    public ResponseEntity<List<Object>> buscarPorCliente(
+            @PathVariable Long clienteId,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Projeto.class, fields,
+                    (root, query, cb) -> cb.equal(root.get("cliente").get("id"), clienteId), after, limit);
+        }
+        List<Projeto> projetos = projetoRepository.findByClienteIdAndIdGreaterThanOrderByIdAsc(clienteId, after, Paginacao.limite(limit));
+        return Paginacao.responder(projetos, limit, Projeto::getId);
     }
 
     @GetMapping("/gerente/{gerenteId}")
-    public ResponseEntity<List<Projeto>> buscarPorGerente(@PathVariable Long gerenteId) {
-        List<Projeto> projetos = projetoRepository.findByGerenteId(gerenteId);
-        return ResponseEntity.ok(projetos);
+    public ResponseEntity<List<Object>> buscarPorGerente(
+            @PathVariable Long gerenteId,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Projeto.class, fields,
+                    (root, query, cb) -> cb.equal(root.get("gerente").get("id"), gerenteId), after, limit);
+        }
+        List<Projeto> projetos = projetoRepository.findByGerenteIdAndIdGreaterThanOrderByIdAsc(gerenteId, after, Paginacao.limite(limit));
+        return Paginacao.responder(projetos, limit, Projeto::getId);
     }
 
     @GetMapping("/prioridade/{prioridade}")
-    public ResponseEntity<List<Projeto>> buscarPorPrioridade(@PathVariable Integer prioridade) {
-        List<Projeto> projetos = projetoRepository.findByPrioridade(prioridade);
-        return ResponseEntity.ok(projetos);
+    public ResponseEntity<List<Object>> buscarPorPrioridade(
+            @PathVariable Integer prioridade,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Projeto.class, fields, Campos.igual("prioridade", prioridade), after, limit);
+        }
+        List<Projeto> projetos = projetoRepository.findByPrioridade(prioridade, after, Paginacao.limite(limit));
+        return Paginacao.responder(projetos, limit, Projeto::getId);
     }
 
     @GetMapping("/atrasados")
-    public ResponseEntity<List<Projeto>> buscarProjetosAtrasados() {
-        List<Projeto> projetos = projetoRepository.findProjetosAtrasados(LocalDate.now());
-        return ResponseEntity.ok(projetos);
+    public ResponseEntity<List<Object>> buscarProjetosAtrasados(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        List<Projeto> projetos = projetosAtrasados.listar(after, Paginacao.tamanho(limit) + 1);
+        if (fields != null) {
+            return Campos.listar(projecaoCampos, Projeto.class, fields, projetos, limit);
+        }
+        return Paginacao.responder(projetos, limit, Projeto::getId);
+    }
+
+    @GetMapping("/atrasados/resumo")
+    public ResponseEntity<ProjetosAtrasados.Resumo> resumirProjetosAtrasados() {
+        return ResponseEntity.ok(projetosAtrasados.resumo());
+    }
+
+    @GetMapping("/financeiro/cliente")
+    public ResponseEntity<List<PortfolioFinanceiro.Grupo>> agregarFinanceiroPorCliente() {
+        return ResponseEntity.ok(portfolioFinanceiro.porCliente());
+    }
+
+    @GetMapping("/financeiro/gerente")
+    public ResponseEntity<List<PortfolioFinanceiro.Grupo>> agregarFinanceiroPorGerente() {
+        return ResponseEntity.ok(portfolioFinanceiro.porGerente());
+    }
+
+    @GetMapping("/financeiro/status")
+    public ResponseEntity<List<PortfolioFinanceiro.Grupo>> agregarFinanceiroPorStatus() {
+        return ResponseEntity.ok(portfolioFinanceiro.porStatus());
+    }
+
+    @GetMapping("/financeiro/mes")
+    public ResponseEntity<List<PortfolioFinanceiro.Grupo>> agregarFinanceiroPorMesDeInicio() {
+        return ResponseEntity.ok(portfolioFinanceiro.porMesDeInicio());
     }
 
     @GetMapping("/prazo")
-    public ResponseEntity<List<Projeto>> buscarPorPrazoEntrega(
+    public ResponseEntity<List<Object>> buscarPorPrazoEntrega(
             @RequestParam String dataInicio, 
-            @RequestParam String dataFim) {
+            @RequestParam String dataFim,
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
         try {
             LocalDate inicio = LocalDate.parse(dataInicio);
             LocalDate fim = LocalDate.parse(dataFim);
-            List<Projeto> projetos = projetoRepository.findByPrazoEntrega(inicio, fim);
-            return ResponseEntity.ok(projetos);
+            if (fields != null) {
+                return Campos.listar(projecaoCampos, Projeto.class, fields,
+                        (root, query, cb) -> cb.between(root.<LocalDate>get("dataFimPrevista"), inicio, fim), after, limit);
+            }
+            List<Projeto> projetos = projetoRepository.findByPrazoEntrega(inicio, fim, after, Paginacao.limite(limit));
+            return Paginacao.responder(projetos, limit, Projeto::getId);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -98,7 +265,7 @@ public class ProjetoController {
         try {
             if (projeto.getCliente() != null && projeto.getCliente().getId() != null) {
                 Optional<Cliente> cliente = clienteRepository.findById(projeto.getCliente().getId());
-                if (!cliente.isPresent() || !cliente.get().getAtivo()) {
+                if (cliente.isEmpty()) {
                     return ResponseEntity.badRequest().build();
                 }
                 projeto.setCliente(cliente.get());
@@ -106,7 +273,7 @@ public class ProjetoController {
             
             if (projeto.getGerente() != null && projeto.getGerente().getId() != null) {
                 Optional<Funcionario> gerente = funcionarioRepository.findById(projeto.getGerente().getId());
-                if (!gerente.isPresent() || !gerente.get().getAtivo()) {
+                if (gerente.isEmpty()) {
                     return ResponseEntity.badRequest().build();
                 }
                 projeto.setGerente(gerente.get());
@@ -120,11 +287,53 @@ public class ProjetoController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Projeto>> criarEmLote(@RequestBody List<Projeto> projetos) {
+        try {
+            if (projetos.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            Set<Long> clienteIds = projetos.stream()
+                    .filter(projeto -> projeto.getCliente() != null && projeto.getCliente().getId() != null)
+                    .map(projeto -> projeto.getCliente().getId())
+                    .collect(Collectors.toSet());
+            Set<Long> gerenteIds = projetos.stream()
+                    .filter(projeto -> projeto.getGerente() != null && projeto.getGerente().getId() != null)
+                    .map(projeto -> projeto.getGerente().getId())
+                    .collect(Collectors.toSet());
+            
+            Map<Long, Cliente> clientes = clienteRepository.findAllById(clienteIds).stream()
+                    .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+            Map<Long, Funcionario> gerentes = funcionarioRepository.findAllById(gerenteIds).stream()
+                    .collect(Collectors.toMap(Funcionario::getId, Function.identity()));
+            
+            if (clientes.size() != clienteIds.size() || gerentes.size() != gerenteIds.size()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            for (Projeto projeto : projetos) {
+                if (projeto.getCliente() != null && projeto.getCliente().getId() != null) {
+                    projeto.setCliente(clientes.get(projeto.getCliente().getId()));
+                }
+                if (projeto.getGerente() != null && projeto.getGerente().getId() != null) {
+                    projeto.setGerente(gerentes.get(projeto.getGerente().getId()));
+                }
+                projeto.setAtivo(true);
+            }
+            
+            List<Projeto> novosProjetos = insercaoEmLote.inserir(projetos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novosProjetos);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Projeto> atualizar(@PathVariable Long id, @RequestBody Projeto projetoAtualizado) {
         Optional<Projeto> projetoExistente = projetoRepository.findById(id);
         
-        if (!projetoExistente.isPresent() || !projetoExistente.get().getAtivo()) {
+        if (projetoExistente.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -133,7 +342,7 @@ public class ProjetoController {
             
             if (projetoAtualizado.getCliente() != null && projetoAtualizado.getCliente().getId() != null) {
                 Optional<Cliente> cliente = clienteRepository.findById(projetoAtualizado.getCliente().getId());
-                if (!cliente.isPresent() || !cliente.get().getAtivo()) {
+                if (cliente.isEmpty()) {
                     return ResponseEntity.badRequest().build();
                 }
                 projeto.setCliente(cliente.get());
@@ -143,7 +352,7 @@ public class ProjetoController {
             
             if (projetoAtualizado.getGerente() != null && projetoAtualizado.getGerente().getId() != null) {
                 Optional<Funcionario> gerente = funcionarioRepository.findById(projetoAtualizado.getGerente().getId());
-                if (!gerente.isPresent() || !gerente.get().getAtivo()) {
+                if (gerente.isEmpty()) {
                     return ResponseEntity.badRequest().build();
                 }
                 projeto.setGerente(gerente.get());
@@ -162,17 +371,57 @@ public class ProjetoController {
             projeto.setPrioridade(projetoAtualizado.getPrioridade());
             
             Projeto projetoSalvo = projetoRepository.save(projeto);
+            // o merge devolve cliente e gerente como proxies da transação já encerrada
+            projetoSalvo.setCliente(projeto.getCliente());
+            projetoSalvo.setGerente(projeto.getGerente());
             return ResponseEntity.ok(projetoSalvo);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Cliente e gerente entram como {"id": n} ou null e precisam estar ativos; as versões
+     * deles vêm da mesma consulta que valida, para montar o ETag sem reler o projeto.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> atualizarParcialmente(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ObjectNode patch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        
+        Optional<ProjetoRepository.Versoes> versoes = projetoRepository.findVersoesAtivasById(id);
+        if (!versoes.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        ProjetoRepository.Versoes atuais = versoes.get();
+        if (!Etags.confere(ifMatch, Etags.deVersoes(atuais.getProjeto(), atuais.getCliente(), atuais.getGerente()))) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        try {
+            Optional<Long[]> novasVersoes = atualizacaoParcial.aplicarComEmbutidas(
+                    Projeto.class, id, atuais.getProjeto(), patch, "cliente", "gerente");
+            if (!novasVersoes.isPresent()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.noContent()
+                    .eTag(Etags.deVersoes(novasVersoes.get()))
+                    .build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> excluir(@PathVariable Long id) {
         Optional<Projeto> projeto = projetoRepository.findById(id);
         
-        if (!projeto.isPresent() || !projeto.get().getAtivo()) {
+        if (projeto.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         
@@ -182,4 +431,20 @@ public class ProjetoController {
         
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/desativar")
+    public ResponseEntity<Ativacao.Resultado> desativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Projeto.class, selecao, false);
+    }
+
+    @PostMapping("/reativar")
+    public ResponseEntity<Ativacao.Resultado> reativarEmLote(@RequestBody Ativacao.Selecao selecao) {
+        return Ativacao.alterar(ativacaoEmLote, Projeto.class, selecao, true);
+    }
+
+    private static String etag(Projeto projeto) {
+        return Etags.deVersoes(projeto.getVersao(),
+                projeto.getCliente() != null ? projeto.getCliente().getVersao() : null,
+                projeto.getGerente() != null ? projeto.getGerente().getVersao() : null);
+    }
 }
@@ -0,0 +1,58 @@
+package com.infnet.companyX.controller;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.Locale;
+import java.util.Map;
+
+public final class ViolacaoUnicidade {
+
+    public static final String CAMPO = "campo";
+
+    private static final Map<String, String> CAMPOS_POR_RESTRICAO = Map.of(
+            "UK_CLIENTES_EMAIL", "email",
+            "UK_CLIENTES_CPF", "cpf",
+            "UK_CLIENTES_CNPJ", "cnpj",
+            "UK_FORNECEDORES_CNPJ", "cnpj",
+            "UK_FORNECEDORES_EMAIL", "email",
+            "UK_FUNCIONARIOS_EMAIL", "email",
+            "UK_FUNCIONARIOS_CPF", "cpf",
+            "UK_PRODUTOS_CODIGO", "codigo");
+
+    private ViolacaoUnicidade() {
+    }
+
+    /**
+     * Violação de uma das restrições únicas das migrações vira 409 com o campo em conflito;
+     * as demais (NOT NULL, CHECK, chave estrangeira) continuam sendo 400. O H2 informa o
+     * índice da restrição ("UK_CLIENTES_EMAIL_INDEX_5"), por isso a busca é por prefixo.
+     */
+    public static ErrorResponseException traduzir(DataIntegrityViolationException e) {
+        String restricao = restricao(e);
+        for (Map.Entry<String, String> entrada : CAMPOS_POR_RESTRICAO.entrySet()) {
+            if (restricao.contains(entrada.getKey())) {
+                String campo = entrada.getValue();
+                ProblemDetail problema = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                        "Já existe um registro com o mesmo valor de " + campo + ".");
+                problema.setTitle("Valor duplicado");
+                problema.setProperty(CAMPO, campo);
+                return new ErrorResponseException(HttpStatus.CONFLICT, problema, e);
+            }
+        }
+        return new ErrorResponseException(HttpStatus.BAD_REQUEST, e);
+    }
+
+    private static String restricao(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                return violacao.getConstraintName().toUpperCase(Locale.ROOT);
+            }
+        }
+        return String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,9 @@
 package com.infnet.companyX.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.infnet.companyX.event.EntidadeEventListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,13 +13,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "clientes")
+@SQLRestriction(Entidade.SOMENTE_ATIVOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Cliente {
+@EntityListeners(EntidadeEventListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Cliente implements Entidade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -53,6 +60,9 @@ public class Cliente {
     
     private Boolean ativo = true;
     
+    @Version
+    private Long versao;
+    
     @PrePersist
     protected void onCreate() {
         dataCadastro = LocalDateTime.now();
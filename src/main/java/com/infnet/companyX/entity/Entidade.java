@@ -0,0 +1,17 @@
+package com.infnet.companyX.entity;
+
+public interface Entidade {
+
+    /**
+     * Restrição aplicada pelo Hibernate a toda leitura das entidades: registros excluídos
+     * logicamente nunca são carregados por JPQL, {@code find} ou associação. Só as
+     * consultas nativas de administração enxergam os inativos.
+     */
+    String SOMENTE_ATIVOS = "ativo = true";
+
+    Long getId();
+
+    Boolean getAtivo();
+
+    Long getVersao();
+}
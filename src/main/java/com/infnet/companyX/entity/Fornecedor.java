@@ -1,6 +1,8 @@
 package com.infnet.companyX.entity;
 
+import com.infnet.companyX.event.EntidadeEventListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,13 +11,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "fornecedores")
+@SQLRestriction(Entidade.SOMENTE_ATIVOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Fornecedor {
+@EntityListeners(EntidadeEventListener.class)
+public class Fornecedor implements Entidade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fornecedores_seq")
+    @SequenceGenerator(name = "fornecedores_seq", sequenceName = "fornecedores_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -27,7 +32,7 @@ public class Fornecedor {
     @Column(unique = true, nullable = false)
     private String cnpj;
     
-    @Column(nullable = false)
+    @Column(nullable = false, unique = true)
     private String email;
     
     private String telefone;
@@ -51,6 +56,9 @@ public class Fornecedor {
     
     private Boolean ativo = true;
     
+    @Version
+    private Long versao;
+    
     @PrePersist
     protected void onCreate() {
         dataCadastro = LocalDateTime.now();
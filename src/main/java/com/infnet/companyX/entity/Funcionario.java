@@ -1,6 +1,9 @@
 package com.infnet.companyX.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.infnet.companyX.event.EntidadeEventListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,13 +13,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "funcionarios")
+@SQLRestriction(Entidade.SOMENTE_ATIVOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Funcionario {
+@EntityListeners(EntidadeEventListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Funcionario implements Entidade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "funcionarios_seq")
+    @SequenceGenerator(name = "funcionarios_seq", sequenceName = "funcionarios_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -44,4 +51,7 @@ public class Funcionario {
     private String cpf;
     
     private Boolean ativo = true;
+    
+    @Version
+    private Long versao;
 }
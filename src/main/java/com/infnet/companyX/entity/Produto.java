@@ -1,6 +1,8 @@
 package com.infnet.companyX.entity;
 
+import com.infnet.companyX.event.EntidadeEventListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,13 +12,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "produtos")
+@SQLRestriction(Entidade.SOMENTE_ATIVOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Produto {
+@EntityListeners(EntidadeEventListener.class)
+public class Produto implements Entidade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -46,6 +51,9 @@ public class Produto {
     
     private Boolean ativo = true;
     
+    @Version
+    private Long versao;
+    
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
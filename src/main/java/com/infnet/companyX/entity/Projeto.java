@@ -1,6 +1,8 @@
 package com.infnet.companyX.entity;
 
+import com.infnet.companyX.event.EntidadeEventListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,13 +13,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "projetos")
+@SQLRestriction(Entidade.SOMENTE_ATIVOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Projeto {
+@EntityListeners(EntidadeEventListener.class)
+public class Projeto implements Entidade {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projetos_seq")
+    @SequenceGenerator(name = "projetos_seq", sequenceName = "projetos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -26,11 +31,11 @@ public class Projeto {
     @Column(columnDefinition = "TEXT")
     private String descricao;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id")
     private Cliente cliente;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "gerente_id")
     private Funcionario gerente;
     
@@ -59,6 +64,9 @@ public class Projeto {
     
     private Boolean ativo = true;
     
+    @Version
+    private Long versao;
+    
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
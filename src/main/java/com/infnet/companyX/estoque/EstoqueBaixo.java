@@ -0,0 +1,303 @@
+package com.infnet.companyX.estoque;
+
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.event.PosCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conjunto dos produtos ativos com estoque abaixo do limiar, carregado uma vez na
+ * inicialização e mantido pelos eventos de alteração de Produto. Cada entrada ou saída
+ * do conjunto é enviada aos assinantes SSE.
+ * <p>
+ * As transições são aplicadas na thread que fez o commit, antes de a requisição
+ * responder, então quem lê em seguida já as enxerga. Quando um evento não traz o bastante
+ * para montar a entrada, a linha é lida antes do commit, na transação e com a conexão de
+ * quem escreveu, e aplicada depois dele.
+ */
+@Component
+public class EstoqueBaixo implements SmartInitializingSingleton, DisposableBean {
+
+    public static final String ENTRADA = "entrada";
+
+    public static final String SAIDA = "saida";
+
+    private static final String QUANTIDADE = "quantidadeEstoque";
+
+    private static final int VERSOES_FORA = 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int limiar;
+
+    private final Duration tempoLimiteAssinatura;
+
+    private final ConcurrentSkipListMap<Long, Produto> produtos = new ConcurrentSkipListMap<>();
+
+    /**
+     * Os listeners de commits concorrentes podem chegar fora de ordem, e uma versão mais
+     * antiga não pode desfazer uma mais nova. A versão aplicada a um produto do conjunto é
+     * a da própria cópia guardada; para os de fora, só a dos últimos vistos, já que a
+     * janela em que um evento atrasa é curta. Assim a memória fica limitada pelo tamanho
+     * do conjunto mais um teto fixo. Só {@link #aplicar} escreve no conjunto e aqui.
+     */
+    private final Map<Long, Long> versoesFora = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> maisAntiga) {
+            return size() > VERSOES_FORA;
+        }
+    };
+
+    private final List<SseEmitter> assinantes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Uma única thread de envio preserva a ordem dos eventos e evita que um cliente lento
+     * segure a thread que fez o commit.
+     */
+    private final ExecutorService envio = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("estoque-baixo-sse").daemon(true).factory());
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    /**
+     * A transação da carga inicial não é somente leitura para que, com réplicas, o
+     * conjunto seja lido do primário; lido de uma réplica atrasada, ficaria desatualizado
+     * em memória até o próximo evento do mesmo produto.
+     */
+    public EstoqueBaixo(PlatformTransactionManager transactionManager,
+                        @Value("${companyx.estoque.limite-baixo:10}") int limiar,
+                        @Value("${companyx.estoque.tempo-limite-assinatura:30m}") Duration tempoLimiteAssinatura) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.limiar = limiar;
+        this.tempoLimiteAssinatura = tempoLimiteAssinatura;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("SELECT p FROM Produto p WHERE p.quantidadeEstoque < :limiar", Produto.class)
+                .setParameter("limiar", limiar)
+                .getResultStream()
+                .forEach(produto -> produtos.put(produto.getId(), produto)));
+    }
+
+    public int getLimiar() {
+        return limiar;
+    }
+
+    public int quantidade() {
+        return produtos.size();
+    }
+
+    /**
+     * Produtos com estoque abaixo de {@code limite}, que não pode passar do limiar mantido,
+     * em ordem de id a partir de {@code after}.
+     */
+    public List<Produto> listar(int limite, Long after, int quantidade) {
+        return produtos.tailMap(after, false).values().stream()
+                .filter(produto -> produto.getQuantidadeEstoque() < limite)
+                .limit(quantidade)
+                .toList();
+    }
+
+    /**
+     * Chamado depois do commit, para os eventos do ciclo de vida. A entidade do evento é a
+     * da sessão de quem escreveu, que pode continuar a alterá-la depois do commit; o
+     * conjunto, lido por outras threads, guarda uma cópia.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(EntidadeAlteradaEvent evento) {
+        if (evento.tipo() != Produto.class || evento.entidade() == null) {
+            return;
+        }
+        aplicar(evento.id(), evento.operacao() == EntidadeAlteradaEvent.Operacao.EXCLUSAO ? null
+                : copiar((Produto) evento.entidade()));
+    }
+
+    /**
+     * Um UPDATE direto só traz os campos gravados. Se o produto está no conjunto na versão
+     * imediatamente anterior, eles bastam; se não está, só entra se o saldo gravado ficou
+     * abaixo do limiar, e só então a linha é lida. Uma entrada com versão intermediária
+     * ainda não aplicada também faz ler a linha.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void atualizarValores(EntidadeAlteradaEvent evento) {
+        if (evento.tipo() != Produto.class || evento.entidade() != null) {
+            return;
+        }
+        Optional<Produto> lido = precisaLer(evento) ? ler(evento.id(), evento.versao()) : null;
+        PosCommit.executar(() -> aplicarValores(evento, lido));
+    }
+
+    /**
+     * Desativados saem do conjunto sem consulta; dos reativados só interessam os que já
+     * voltam abaixo do limiar, lidos antes do commit com um {@code IN} por lote.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void atualizar(AtivacaoEmLoteEvent evento) {
+        if (evento.tipo() != Produto.class) {
+            return;
+        }
+        if (!evento.ativo()) {
+            List<Long> ids = List.copyOf(evento.ids());
+            PosCommit.executar(() -> ids.forEach(id -> aplicar(id, null)));
+            return;
+        }
+        for (List<Long> lote : evento.lotes()) {
+            List<Produto> reativados = entityManager
+                    .createQuery("SELECT p FROM Produto p WHERE p.id IN :ids AND p.quantidadeEstoque < :limiar", Produto.class)
+                    .setParameter("ids", lote)
+                    .setParameter("limiar", limiar)
+                    .getResultStream()
+                    .map(EstoqueBaixo::copiar)
+                    .toList();
+            PosCommit.executar(() -> reativados.forEach(produto -> aplicar(produto.getId(), produto)));
+        }
+    }
+
+    private boolean precisaLer(EntidadeAlteradaEvent evento) {
+        Produto atual = produtos.get(evento.id());
+        if (atual != null && atual.getVersao() >= evento.versao() - 1) {
+            return false;
+        }
+        Object quantidade = evento.valores().get(QUANTIDADE);
+        return quantidade instanceof Integer gravada ? gravada < limiar : atual != null;
+    }
+
+    /**
+     * A sessão de quem escreveu pode ter o produto numa versão anterior ao UPDATE direto.
+     * Vazio se o produto foi excluído ou desativado.
+     */
+    private Optional<Produto> ler(Long id, Long versao) {
+        Produto produto = entityManager.find(Produto.class, id);
+        if (produto != null && produto.getVersao() < versao) {
+            entityManager.refresh(produto);
+        }
+        return Optional.ofNullable(produto).map(EstoqueBaixo::copiar);
+    }
+
+    /**
+     * Sem a linha lida ({@code lido} nulo), um saldo gravado no limiar ou acima dele tira
+     * do conjunto a entrada que estiver lá, mesmo atrasada, e basta anotar a versão dos que
+     * estão fora.
+     */
+    private synchronized void aplicarValores(EntidadeAlteradaEvent evento, Optional<Produto> lido) {
+        Produto atual = produtos.get(evento.id());
+        if (atual != null && atual.getVersao() >= evento.versao()) {
+            return;
+        }
+        if (atual != null && (atual.getVersao() == evento.versao() - 1 || lido == null)) {
+            Produto produto = copiar(atual);
+            PropertyAccessorFactory.forBeanPropertyAccess(produto).setPropertyValues(evento.valores());
+            produto.setVersao(evento.versao());
+            aplicar(evento.id(), produto);
+        } else if (lido != null) {
+            aplicar(evento.id(), lido.orElse(null));
+        } else {
+            versoesFora.merge(evento.id(), evento.versao(), Math::max);
+        }
+    }
+
+    private synchronized void aplicar(Long id, Produto produto) {
+        if (produto != null) {
+            Produto atual = produtos.get(id);
+            Long aplicada = atual != null ? atual.getVersao() : versoesFora.get(id);
+            if (aplicada != null && aplicada > produto.getVersao()) {
+                return;
+            }
+        }
+
+        boolean baixo = produto != null && Boolean.TRUE.equals(produto.getAtivo())
+                && produto.getQuantidadeEstoque() != null && produto.getQuantidadeEstoque() < limiar;
+        if (baixo || produto == null) {
+            versoesFora.remove(id);
+        } else {
+            versoesFora.put(id, produto.getVersao());
+        }
+        Produto anterior = baixo ? produtos.put(id, produto) : produtos.remove(id);
+        if (baixo && anterior == null) {
+            publicar(ENTRADA, produto);
+        } else if (!baixo && anterior != null) {
+            publicar(SAIDA, produto != null ? produto : anterior);
+        }
+    }
+
+    /**
+     * Cópia rasa, que basta para Produto, sem associações.
+     */
+    private static Produto copiar(Produto produto) {
+        Produto copia = new Produto();
+        BeanUtils.copyProperties(Hibernate.unproxy(produto), copia);
+        return copia;
+    }
+
+    /**
+     * O assinante recebe primeiro o conjunto atual como eventos de entrada e depois as
+     * transições; como ambos passam pela mesma fila de envio, e o estado inicial é tirado
+     * sem transições em andamento, nenhuma é perdida ou repetida.
+     */
+    public SseEmitter assinar() {
+        SseEmitter assinante = new SseEmitter(tempoLimiteAssinatura.toMillis());
+        assinante.onCompletion(() -> assinantes.remove(assinante));
+        assinante.onTimeout(assinante::complete);
+        assinante.onError(erro -> assinantes.remove(assinante));
+        synchronized (this) {
+            assinantes.add(assinante);
+            List<Produto> atuais = List.copyOf(produtos.values());
+            envio.execute(() -> atuais.forEach(produto -> enviar(assinante, ENTRADA, produto)));
+        }
+        return assinante;
+    }
+
+    private void publicar(String nome, Produto produto) {
+        envio.execute(() -> assinantes.forEach(assinante -> enviar(assinante, nome, produto)));
+    }
+
+    private void enviar(SseEmitter assinante, String nome, Produto produto) {
+        try {
+            assinante.send(SseEmitter.event()
+                    .id(String.valueOf(sequencia.incrementAndGet()))
+                    .name(nome)
+                    .data(produto, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            assinantes.remove(assinante);
+            assinante.completeWithError(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        envio.shutdownNow();
+        assinantes.forEach(SseEmitter::complete);
+    }
+}
@@ -0,0 +1,30 @@
+package com.infnet.companyX.event;
+
+import com.infnet.companyX.entity.Entidade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publicado uma vez por desativação ou reativação em lote, com todos os ids alcançados,
+ * para que caches e visões derivadas sejam ajustados de uma vez e não linha a linha.
+ */
+public record AtivacaoEmLoteEvent(Class<? extends Entidade> tipo, List<Long> ids, boolean ativo) {
+
+    public static final int TAMANHO_LOTE = 500;
+
+    public AtivacaoEmLoteEvent {
+        ids = List.copyOf(ids);
+    }
+
+    /**
+     * Os ids em lotes de {@link #TAMANHO_LOTE}, para quem precisa voltar ao banco com um {@code IN}.
+     */
+    public List<List<Long>> lotes() {
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE) {
+            lotes.add(ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE, ids.size())));
+        }
+        return lotes;
+    }
+}
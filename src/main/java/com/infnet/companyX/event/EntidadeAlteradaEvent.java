@@ -0,0 +1,47 @@
+package com.infnet.companyX.event;
+
+import com.infnet.companyX.entity.Entidade;
+import org.hibernate.Hibernate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nos eventos do ciclo de vida da entidade, {@code entidade} é a instância da sessão e
+ * {@code valores} é vazio. Nos de UPDATE direto não há entidade: o evento leva a versão
+ * gravada e, em {@code valores}, só os atributos gravados, com o valor gravado
+ * (associações pelo id). Quem precisa de outras colunas as lê na sua fila, fora da
+ * thread que fez o commit.
+ */
+public record EntidadeAlteradaEvent(Class<?> tipo, Long id, Operacao operacao, Entidade entidade, Long versao,
+                                    Map<String, Object> valores) {
+
+    public enum Operacao {
+        INCLUSAO, ALTERACAO, EXCLUSAO
+    }
+
+    public static EntidadeAlteradaEvent de(Entidade entidade, Operacao operacao) {
+        return new EntidadeAlteradaEvent(Hibernate.getClass(entidade), entidade.getId(), operacao, entidade,
+                entidade.getVersao(), Map.of());
+    }
+
+    /**
+     * Para alterações feitas por UPDATE direto, com os valores que o próprio UPDATE gravou.
+     * Os valores podem ser nulos.
+     */
+    public static EntidadeAlteradaEvent deValores(Class<? extends Entidade> tipo, Long id, Long versao,
+                                                  Map<String, Object> valores) {
+        return new EntidadeAlteradaEvent(tipo, id, Operacao.ALTERACAO, null, versao,
+                Collections.unmodifiableMap(new LinkedHashMap<>(valores)));
+    }
+
+    /**
+     * Atributos gravados por um UPDATE direto; vazio nos eventos do ciclo de vida, que podem
+     * ter mudado qualquer um.
+     */
+    public Set<String> campos() {
+        return valores.keySet();
+    }
+}
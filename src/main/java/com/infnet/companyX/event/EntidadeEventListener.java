@@ -0,0 +1,33 @@
+package com.infnet.companyX.event;
+
+import com.infnet.companyX.entity.Entidade;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EntidadeEventListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EntidadeEventListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    public void aposIncluir(Object entidade) {
+        publisher.publishEvent(EntidadeAlteradaEvent.de((Entidade) entidade, EntidadeAlteradaEvent.Operacao.INCLUSAO));
+    }
+
+    @PostUpdate
+    public void aposAlterar(Object entidade) {
+        publisher.publishEvent(EntidadeAlteradaEvent.de((Entidade) entidade, EntidadeAlteradaEvent.Operacao.ALTERACAO));
+    }
+
+    @PostRemove
+    public void aposExcluir(Object entidade) {
+        publisher.publishEvent(EntidadeAlteradaEvent.de((Entidade) entidade, EntidadeAlteradaEvent.Operacao.EXCLUSAO));
+    }
+}
@@ -0,0 +1,116 @@
+package com.infnet.companyX.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executa numa thread própria, em ordem de chegada, o trabalho que um listener de
+ * pós-commit faria no banco. Na thread que fez o commit a sessão só fecha depois dos
+ * listeners, ainda com a conexão da transação, e uma transação nova pediria uma segunda
+ * ao pool: com o pool tomado por requisições fazendo o mesmo, todas esperam umas pelas
+ * outras até o {@code connection-timeout}. Cada fila usa no máximo uma conexão, e a
+ * obtém sem depender de nenhuma requisição terminar.
+ * <p>
+ * As tarefas têm de poder ser repetidas: a que falha é tentada de novo algumas vezes,
+ * para que uma falha passageira não deixe a visão derivada divergente do banco; a que
+ * continua falhando é registrada no log e descartada, para não segurar as seguintes.
+ * Ninguém espera pela fila: quem lê a visão enxerga o último resultado publicado.
+ */
+public class FilaPosCommit implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaPosCommit.class);
+
+    private static final Duration INTERVALO_NOVA_TENTATIVA = Duration.ofSeconds(1);
+
+    private static final int TENTATIVAS = 5;
+
+    private final String nome;
+
+    private final ExecutorService executor;
+
+    private final Set<Object> pendentes = ConcurrentHashMap.newKeySet();
+
+    private long agendadas;
+
+    private long concluidas;
+
+    public FilaPosCommit(String nome) {
+        this.nome = nome;
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name(nome).daemon(true).factory());
+    }
+
+    public synchronized void agendar(Runnable tarefa) {
+        executor.execute(() -> executar(tarefa));
+        agendadas++;
+    }
+
+    /**
+     * Como {@link #agendar}, mas descarta a tarefa se outra com a mesma chave ainda não
+     * começou: ela vai ler o banco depois deste commit e já cobre o que esta faria.
+     */
+    public synchronized void agendarUnica(Object chave, Runnable tarefa) {
+        if (!pendentes.add(chave)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                pendentes.remove(chave);
+                executar(tarefa);
+            });
+        } catch (RuntimeException e) {
+            pendentes.remove(chave);
+            throw e;
+        }
+        agendadas++;
+    }
+
+    /**
+     * Sem tarefas agendadas por rodar ou rodando.
+     */
+    public synchronized boolean ociosa() {
+        return concluidas == agendadas;
+    }
+
+    /**
+     * A tarefa conta como concluída em qualquer desfecho, inclusive {@link Error} e
+     * interrupção, para que a fila nunca pareça ocupada por ela.
+     */
+    private void executar(Runnable tarefa) {
+        try {
+            for (int tentativa = 1; ; tentativa++) {
+                try {
+                    tarefa.run();
+                    return;
+                } catch (RuntimeException e) {
+                    if (tentativa == TENTATIVAS) {
+                        log.error("Trabalho pós-commit descartado em {} após {} tentativas", nome, tentativa, e);
+                        return;
+                    }
+                    log.warn("Falha no trabalho pós-commit em {}; nova tentativa em {}", nome, INTERVALO_NOVA_TENTATIVA, e);
+                }
+                try {
+                    Thread.sleep(INTERVALO_NOVA_TENTATIVA);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Trabalho pós-commit descartado em {}: fila interrompida", nome);
+                    return;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                concluidas++;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
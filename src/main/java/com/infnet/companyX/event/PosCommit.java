@@ -0,0 +1,28 @@
+package com.infnet.companyX.event;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma tarefa para depois do commit da transação corrente, na mesma thread; sem
+ * transação, ela roda na hora. Serve aos listeners de antes do commit que leem no banco
+ * o que a transação gravou, mas só podem publicar o resultado depois de confirmado.
+ */
+public final class PosCommit {
+
+    private PosCommit() {
+    }
+
+    public static void executar(Runnable tarefa) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tarefa.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tarefa.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.infnet.companyX.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Component
+public class ExportadorNdjson {
+
+    public static final int TAMANHO_LOTE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportadorNdjson(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> exportar(Supplier<Stream<T>> consulta) {
+        StreamingResponseBody corpo = saida -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> registros = consulta.get()) {
+                escrever(registros.iterator(), saida);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+    private <T> void escrever(Iterator<T> registros, OutputStream saida) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long escritos = 0;
+        while (registros.hasNext()) {
+            writer.writeValue(gerador, registros.next());
+            gerador.writeRaw('\n');
+            escritos++;
+
+            if (escritos == 1 || escritos % TAMANHO_LOTE == 0) {
+                gerador.flush();
+            }
+            if (escritos % TAMANHO_LOTE == 0) {
+                entityManager.clear();
+            }
+        }
+        gerador.flush();
+    }
+}
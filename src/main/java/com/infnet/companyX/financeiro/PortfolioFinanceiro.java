@@ -0,0 +1,155 @@
+package com.infnet.companyX.financeiro;
+
+import com.infnet.companyX.cache.CacheConfig;
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.repository.ProjetoRepository;
+import com.infnet.companyX.repository.ProjetoRepository.AgregadoFinanceiro;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Somas, médias e razões de estouro do portfólio de projetos ativos, calculadas por
+ * GROUP BY no banco e guardadas em cache por dimensão até a próxima alteração commitada.
+ * Cada cálculo guarda a geração em que começou; a invalidação avança a geração, então um
+ * cálculo concorrente, que pode ter lido os totais de antes do commit, nunca é servido
+ * depois dela, mesmo que chegue ao cache depois da limpeza.
+ */
+@Component
+public class PortfolioFinanceiro {
+
+    /**
+     * Cliente e gerente entram pelo nome exibido em cada grupo.
+     */
+    private static final Set<Class<?>> TIPOS_AFETADOS = Set.of(Projeto.class, Cliente.class, Funcionario.class);
+
+    private static final int ESCALA_RAZAO = 4;
+
+    private static final int ESCALA_MOEDA = 2;
+
+    /**
+     * @param razaoCusto custo total sobre orçamento total; nulo se não há orçamento
+     * @param razaoEstourados fração dos projetos cujo custo já passou do orçamento
+     */
+    public record Grupo(Object chave, String nome, long quantidade,
+                        BigDecimal orcamentoTotal, BigDecimal custoTotal,
+                        BigDecimal orcamentoMedio, BigDecimal custoMedio,
+                        BigDecimal razaoCusto, long estourados, BigDecimal razaoEstourados) {
+    }
+
+    private record Calculado(long geracao, List<Grupo> grupos) {
+    }
+
+    private final AtomicLong geracao = new AtomicLong();
+
+    private final ProjetoRepository projetoRepository;
+
+    private final CacheManager cacheManager;
+
+    public PortfolioFinanceiro(ProjetoRepository projetoRepository, CacheManager cacheManager) {
+        this.projetoRepository = projetoRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public List<Grupo> porCliente() {
+        return emCache("cliente", () -> projetoRepository.agregarPorCliente().stream()
+                .map(agregado -> grupo(agregado.getId(), agregado.getNome(), agregado))
+                .toList());
+    }
+
+    public List<Grupo> porGerente() {
+        return emCache("gerente", () -> projetoRepository.agregarPorGerente().stream()
+                .map(agregado -> grupo(agregado.getId(), agregado.getNome(), agregado))
+                .toList());
+    }
+
+    public List<Grupo> porStatus() {
+        return emCache("status", () -> projetoRepository.agregarPorStatus().stream()
+                .map(agregado -> grupo(agregado.getStatus(), null, agregado))
+                .toList());
+    }
+
+    /**
+     * A chave é o mês de {@code dataInicio} no formato {@code yyyy-MM}.
+     */
+    public List<Grupo> porMesDeInicio() {
+        return emCache("mes", () -> projetoRepository.agregarPorMesDeInicio().stream()
+                .map(agregado -> grupo(agregado.getAno() != null
+                        ? String.format("%04d-%02d", agregado.getAno(), agregado.getMes()) : null, null, agregado))
+                .toList());
+    }
+
+    /**
+     * Avança a geração e limpa após o commit, como os caches de chave natural; a limpeza
+     * só libera memória, quem descarta os cálculos antigos é a geração.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidar(EntidadeAlteradaEvent evento) {
+        invalidar(evento.tipo());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidar(AtivacaoEmLoteEvent evento) {
+        invalidar(evento.tipo());
+    }
+
+    private void invalidar(Class<?> tipo) {
+        if (!TIPOS_AFETADOS.contains(tipo)) {
+            return;
+        }
+        geracao.incrementAndGet();
+        cacheManager.getCache(CacheConfig.FINANCEIRO_PROJETOS).clear();
+    }
+
+    /**
+     * A geração é lida antes do cálculo: uma invalidação que chegue durante ele faz o
+     * resultado ser devolvido sem ir ao cache, e uma entrada de geração anterior que
+     * tenha entrado mesmo assim conta como ausente.
+     */
+    private List<Grupo> emCache(String dimensao, Supplier<List<Grupo>> calculo) {
+        Cache cache = cacheManager.getCache(CacheConfig.FINANCEIRO_PROJETOS);
+        long inicio = geracao.get();
+        Calculado guardado = cache.get(dimensao, Calculado.class);
+        if (guardado != null && guardado.geracao() == inicio) {
+            return guardado.grupos();
+        }
+        List<Grupo> grupos = calculo.get();
+        if (geracao.get() == inicio) {
+            cache.put(dimensao, new Calculado(inicio, grupos));
+        }
+        return grupos;
+    }
+
+    private static Grupo grupo(Object chave, String nome, AgregadoFinanceiro agregado) {
+        long quantidade = agregado.getQuantidade();
+        BigDecimal orcamento = agregado.getOrcamentoTotal() != null ? agregado.getOrcamentoTotal() : BigDecimal.ZERO;
+        BigDecimal custo = agregado.getCustoTotal() != null ? agregado.getCustoTotal() : BigDecimal.ZERO;
+        long estourados = agregado.getEstourados() != null ? agregado.getEstourados() : 0;
+        return new Grupo(chave, nome, quantidade, orcamento, custo,
+                media(orcamento, agregado.getComOrcamento()), media(custo, agregado.getComCusto()),
+                orcamento.signum() > 0 ? custo.divide(orcamento, ESCALA_RAZAO, RoundingMode.HALF_UP) : null,
+                estourados,
+                BigDecimal.valueOf(estourados).divide(BigDecimal.valueOf(quantidade), ESCALA_RAZAO, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Como o AVG do SQL, ignora os projetos sem o valor; a divisão é feita em BigDecimal
+     * para que a média de valores monetários não passe por {@code double}.
+     */
+    private static BigDecimal media(BigDecimal soma, Long quantidade) {
+        return quantidade != null && quantidade > 0
+                ? soma.divide(BigDecimal.valueOf(quantidade), ESCALA_MOEDA, RoundingMode.HALF_UP) : null;
+    }
+}
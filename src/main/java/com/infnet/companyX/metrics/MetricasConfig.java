@@ -0,0 +1,40 @@
+package com.infnet.companyX.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricasConfig {
+
+    static final String HANDLER = "handler";
+
+    /**
+     * Acrescenta a tag {@code handler} (ex.: {@code ClienteController.criar}) ao
+     * http.server.requests, para filtrar a latência por método de controller em vez de
+     * só por URI; o timing dos repositórios vem do spring.data.repository.invocations.
+     */
+    @Bean
+    public ServerRequestObservationConvention convencaoComHandler() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                instanceof HandlerMethod metodo) {
+            return KeyValue.of(HANDLER, metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName());
+        }
+        return KeyValue.of(HANDLER, "none");
+    }
+}
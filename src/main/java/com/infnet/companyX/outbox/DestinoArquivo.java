@@ -0,0 +1,37 @@
+package com.infnet.companyX.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Destino para uso local: acrescenta cada lote a um arquivo NDJSON, um evento por linha.
+ */
+public class DestinoArquivo implements DestinoEventos {
+
+    private final Path arquivo;
+
+    private final ObjectMapper objectMapper;
+
+    public DestinoArquivo(Path arquivo, ObjectMapper objectMapper) {
+        this.arquivo = arquivo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoAlteracao> eventos) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (EventoAlteracao evento : eventos) {
+                writer.write(objectMapper.writeValueAsString(evento));
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.infnet.companyX.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Para onde o relay envia as alterações. Uma falha faz o lote inteiro voltar ao outbox e
+ * ser reenviado, então a entrega é pelo menos uma vez e o destino deve tolerar repetições.
+ */
+@FunctionalInterface
+public interface DestinoEventos {
+
+    void publicar(List<EventoAlteracao> eventos) throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.infnet.companyX.outbox;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Destino em processo: guarda as últimas alterações publicadas, por sequência, para
+ * consumidores locais que sincronizam a partir da última sequência vista
+ * ({@code GET /api/alteracoes}).
+ */
+public class DestinoMemoria implements DestinoEventos {
+
+    private final int capacidade;
+
+    private final ConcurrentSkipListMap<Long, EventoAlteracao> eventos = new ConcurrentSkipListMap<>();
+
+    private volatile long descartadaAte;
+
+    public DestinoMemoria(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    @Override
+    public void publicar(List<EventoAlteracao> lote) {
+        lote.forEach(evento -> eventos.put(evento.sequencia(), evento));
+        while (eventos.size() > capacidade) {
+            Map.Entry<Long, EventoAlteracao> descartada = eventos.pollFirstEntry();
+            if (descartada != null) {
+                descartadaAte = Math.max(descartadaAte, descartada.getKey());
+            }
+        }
+    }
+
+    public List<EventoAlteracao> listar(long after, int quantidade) {
+        return eventos.tailMap(after, false).values().stream().limit(quantidade).toList();
+    }
+
+    /**
+     * Se nada depois de {@code after} já saiu do buffer. As sequências podem ter lacunas,
+     * então isso não se deduz da primeira guardada; sem esta garantia o consumidor tem de
+     * ressincronizar por outro meio.
+     */
+    public boolean cobre(long after) {
+        return after >= descartadaAte;
+    }
+}
@@ -0,0 +1,21 @@
+package com.infnet.companyX.outbox;
+
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Uma alteração publicada pelo relay. A sequência é o id da linha do outbox e só cresce,
+ * mas transações concorrentes podem confirmar fora de ordem; para aplicar alterações da
+ * mesma entidade, o consumidor deve comparar a versão.
+ */
+public record EventoAlteracao(
+        long sequencia,
+        String entidade,
+        Long id,
+        Long versao,
+        EntidadeAlteradaEvent.Operacao operacao,
+        List<String> campos,
+        LocalDateTime ocorridoEm) {
+}
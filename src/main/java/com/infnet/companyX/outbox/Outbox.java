@@ -0,0 +1,192 @@
+package com.infnet.companyX.outbox;
+
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.event.EntidadeAlteradaEvent.Operacao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grava no outbox, na mesma transação, toda alteração de entidade. As que passam pelo
+ * ciclo de vida do Hibernate são capturadas pelos listeners de pós-inclusão, pós-alteração
+ * e pós-exclusão, que já conhecem a versão e os campos sujos; as linhas se acumulam por
+ * sessão e vão ao banco num único batch depois do último flush, antes do commit. Os
+ * UPDATEs diretos, que não passam por esse ciclo, chamam {@link #registrar}, quando já
+ * sabem a versão gravada, ou {@link #registrarPorIds}.
+ */
+@Component
+public class Outbox implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT = "INSERT INTO outbox (entidade, entidade_id, versao, operacao, campos, ocorrido_em) "
+            + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<EventSource, Pendentes> pendentesPorSessao = new ConcurrentHashMap<>();
+
+    public Outbox(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, this);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+        registro.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Registra uma alteração feita por UPDATE direto, lendo a versão já gravada por esse
+     * UPDATE; deve rodar na transação dele.
+     */
+    public void registrarPorIds(Class<? extends Entidade> tipo, Collection<Long> ids, Collection<String> campos) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        entityManager.createNativeQuery("INSERT INTO outbox (entidade, entidade_id, versao, operacao, campos, ocorrido_em) "
+                        + "SELECT :entidade, id, versao, :operacao, :campos, CURRENT_TIMESTAMP FROM "
+                        + tipo.getAnnotation(Table.class).name() + " WHERE id IN (:ids)")
+                .setParameter("entidade", tipo.getSimpleName())
+                .setParameter("operacao", Operacao.ALTERACAO.name())
+                .setParameter("campos", String.join(",", campos))
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Registra uma alteração feita por UPDATE direto cuja versão gravada o chamador já
+     * conhece; a linha entra no mesmo batch das do ciclo de vida. Deve rodar na transação
+     * do UPDATE.
+     */
+    public void registrar(Class<? extends Entidade> tipo, Long id, Long versao, Collection<String> campos) {
+        adicionar(entityManager.unwrap(EventSource.class),
+                new Linha(tipo.getSimpleName(), id, versao, Operacao.ALTERACAO, String.join(",", campos)));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent evento) {
+        EntityPersister persister = evento.getPersister();
+        Object[] estado = evento.getState();
+        List<String> campos = new ArrayList<>();
+        for (int i = 0; i < estado.length; i++) {
+            if (estado[i] != null && !versao(persister, i)) {
+                campos.add(persister.getPropertyNames()[i]);
+            }
+        }
+        registrar(evento.getSession(), persister, evento.getId(), estado, Operacao.INCLUSAO, campos);
+    }
+
+    /**
+     * Sem a lista de sujos (alteração sem verificação de sujeira), todos os campos contam.
+     */
+    @Override
+    public void onPostUpdate(PostUpdateEvent evento) {
+        EntityPersister persister = evento.getPersister();
+        List<String> campos = new ArrayList<>();
+        if (evento.getDirtyProperties() != null) {
+            for (int i : evento.getDirtyProperties()) {
+                if (!versao(persister, i)) {
+                    campos.add(persister.getPropertyNames()[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < persister.getPropertyNames().length; i++) {
+                if (!versao(persister, i)) {
+                    campos.add(persister.getPropertyNames()[i]);
+                }
+            }
+        }
+        registrar(evento.getSession(), persister, evento.getId(), evento.getState(), Operacao.ALTERACAO, campos);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent evento) {
+        registrar(evento.getSession(), evento.getPersister(), evento.getId(), evento.getDeletedState(), Operacao.EXCLUSAO, List.of());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void registrar(EventSource sessao, EntityPersister persister, Object id, Object[] estado,
+                           Operacao operacao, List<String> campos) {
+        if (!Entidade.class.isAssignableFrom(persister.getMappedClass())) {
+            return;
+        }
+        Long versao = persister.isVersioned() && estado != null ? (Long) estado[persister.getVersionProperty()] : null;
+        adicionar(sessao, new Linha(persister.getMappedClass().getSimpleName(), (Long) id, versao, operacao,
+                String.join(",", campos)));
+    }
+
+    private void adicionar(EventSource sessao, Linha linha) {
+        pendentesPorSessao.computeIfAbsent(sessao, this::abrir).linhas.add(linha);
+    }
+
+    private Pendentes abrir(EventSource sessao) {
+        Pendentes pendentes = new Pendentes();
+        sessao.getActionQueue().registerProcess(pendentes);
+        sessao.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (sucesso, s) -> pendentesPorSessao.remove(sessao));
+        return pendentes;
+    }
+
+    private static boolean versao(EntityPersister persister, int indice) {
+        return persister.isVersioned() && persister.getVersionProperty() == indice;
+    }
+
+    private record Linha(String entidade, Long id, Long versao, Operacao operacao, String campos) {
+    }
+
+    /**
+     * Roda depois do flush final da transação, então já viu todas as alterações dela.
+     */
+    private final class Pendentes implements BeforeTransactionCompletionProcess {
+
+        private final List<Linha> linhas = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor sessao) {
+            pendentesPorSessao.remove(sessao);
+            sessao.doWork(conexao -> {
+                try (PreparedStatement insert = conexao.prepareStatement(INSERT)) {
+                    for (Linha linha : linhas) {
+                        insert.setString(1, linha.entidade());
+                        insert.setLong(2, linha.id());
+                        if (linha.versao() != null) {
+                            insert.setLong(3, linha.versao());
+                        } else {
+                            insert.setNull(3, Types.BIGINT);
+                        }
+                        insert.setString(4, linha.operacao().name());
+                        insert.setString(5, linha.campos());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.infnet.companyX.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Escolhe o destino do relay por {@code companyx.outbox.destino}: {@code memoria} (padrão)
+ * ou {@code arquivo}. Qualquer outro valor desliga os dois, e a aplicação deve declarar o
+ * próprio bean {@link DestinoEventos}.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "companyx.outbox.destino", havingValue = "memoria", matchIfMissing = true)
+    public DestinoMemoria destinoMemoria(@Value("${companyx.outbox.memoria.capacidade:10000}") int capacidade) {
+        return new DestinoMemoria(capacidade);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "companyx.outbox.destino", havingValue = "arquivo")
+    public DestinoArquivo destinoArquivo(@Value("${companyx.outbox.arquivo:outbox.ndjson}") Path arquivo,
+                                         ObjectMapper objectMapper) {
+        return new DestinoArquivo(arquivo, objectMapper);
+    }
+}
@@ -0,0 +1,93 @@
+package com.infnet.companyX.outbox;
+
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Publica o outbox em lotes, em ordem de id. Cada lote é lido com bloqueio, enviado ao
+ * destino e apagado na mesma transação: se o destino falhar, as linhas continuam lá para
+ * a próxima rodada, e uma segunda instância do relay espera em vez de publicar o mesmo lote.
+ */
+@Component
+public class RelayOutbox {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DestinoEventos destino;
+
+    private final int tamanhoLote;
+
+    public RelayOutbox(PlatformTransactionManager transactionManager, DestinoEventos destino,
+                       @Value("${companyx.outbox.tamanho-lote:500}") int tamanhoLote) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.destino = destino;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Esvazia o outbox, um lote por transação.
+     *
+     * @return quantas alterações foram publicadas
+     */
+    @Scheduled(fixedDelayString = "${companyx.outbox.intervalo:1s}")
+    public synchronized int publicarPendentes() {
+        int total = 0;
+        int publicadas;
+        do {
+            publicadas = transactionTemplate.execute(status -> publicarLote());
+            total += publicadas;
+        } while (publicadas == tamanhoLote);
+        return total;
+    }
+
+    private int publicarLote() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = entityManager.createNativeQuery(
+                        "SELECT id, entidade, entidade_id, versao, operacao, campos, ocorrido_em FROM outbox "
+                                + "ORDER BY id FETCH FIRST " + tamanhoLote + " ROWS ONLY FOR UPDATE")
+                .getResultList();
+        if (linhas.isEmpty()) {
+            return 0;
+        }
+
+        List<EventoAlteracao> eventos = linhas.stream().map(RelayOutbox::evento).toList();
+        try {
+            destino.publicar(eventos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // por id, e não por faixa: uma linha ainda não confirmada pode ter id no meio do lote
+        entityManager.createNativeQuery("DELETE FROM outbox WHERE id IN (:ids)")
+                .setParameter("ids", eventos.stream().map(EventoAlteracao::sequencia).toList())
+                .executeUpdate();
+        return eventos.size();
+    }
+
+    private static EventoAlteracao evento(Object[] linha) {
+        String campos = (String) linha[5];
+        return new EventoAlteracao(
+                ((Number) linha[0]).longValue(),
+                (String) linha[1],
+                ((Number) linha[2]).longValue(),
+                linha[3] != null ? ((Number) linha[3]).longValue() : null,
+                EntidadeAlteradaEvent.Operacao.valueOf((String) linha[4]),
+                campos == null || campos.isEmpty() ? List.of() : Arrays.asList(campos.split(",")),
+                linha[6] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) linha[6]);
+    }
+}
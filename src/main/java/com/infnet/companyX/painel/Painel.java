@@ -0,0 +1,153 @@
+package com.infnet.companyX.painel;
+
+import com.infnet.companyX.estoque.EstoqueBaixo;
+import com.infnet.companyX.financeiro.PortfolioFinanceiro;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
+import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.repository.FornecedorRepository;
+import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.repository.ProdutoRepository;
+import com.infnet.companyX.repository.ProjetoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resumo da tela inicial. Cada fonte roda em sua própria thread virtual, e as consultas ao
+ * banco usam uma conexão cada uma, ao mesmo tempo. Como uma chamada do painel pode tomar
+ * várias conexões, as consultas de todos os painéis em andamento dividem um orçamento
+ * próprio de conexões, além da licença da requisição. Todas dividem o mesmo prazo; uma
+ * fonte que falha ou não responde a tempo sai como {@code null} e marca o resumo como
+ * degradado, sem derrubar as demais.
+ */
+@Component
+public class Painel {
+
+    public record Resumo(Map<String, Object> dados, boolean degradado, List<String> indisponiveis) {
+    }
+
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("painel-", 0).factory();
+
+    private record Fonte(Supplier<?> leitura, boolean consulta) {
+    }
+
+    private final Map<String, Fonte> fontes = new LinkedHashMap<>();
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Duration tempoLimite;
+
+    private final Semaphore conexoes;
+
+    public Painel(ClienteRepository clienteRepository,
+                  FornecedorRepository fornecedorRepository,
+                  FuncionarioRepository funcionarioRepository,
+                  ProdutoRepository produtoRepository,
+                  ProjetoRepository projetoRepository,
+                  EstoqueBaixo estoqueBaixo,
+                  ProjetosAtrasados projetosAtrasados,
+                  PortfolioFinanceiro portfolioFinanceiro,
+                  PlatformTransactionManager transactionManager,
+                  @Value("${companyx.painel.tempo-limite:2s}") Duration tempoLimite,
+                  @Value("${companyx.painel.conexoes-simultaneas:4}") int conexoes) {
+        fontes.put("clientes", new Fonte(clienteRepository::count, true));
+        fontes.put("fornecedores", new Fonte(fornecedorRepository::count, true));
+        fontes.put("funcionarios", new Fonte(funcionarioRepository::count, true));
+        fontes.put("produtos", new Fonte(produtoRepository::count, true));
+        fontes.put("projetos", new Fonte(projetoRepository::count, true));
+        fontes.put("estoqueBaixo", new Fonte(estoqueBaixo::quantidade, false));
+        fontes.put("projetosAtrasados", new Fonte(projetosAtrasados::resumo, false));
+        fontes.put("projetosPorStatus", new Fonte(portfolioFinanceiro::porStatus, true));
+        fontes.put("clientesPorEstado", new Fonte(clienteRepository::contarAtivosPorEstado, true));
+        this.transactionManager = transactionManager;
+        this.tempoLimite = tempoLimite;
+        this.conexoes = new Semaphore(conexoes, true);
+    }
+
+    public Resumo montar() {
+        return montar(tempoLimite);
+    }
+
+    /**
+     * O escopo é fechado com {@code shutdownNow} sem esperar o término: as fontes que
+     * estouraram o prazo são interrompidas, inclusive as que ainda esperam por conexão.
+     */
+    public Resumo montar(Duration tempoLimite) {
+        long prazo = System.nanoTime() + tempoLimite.toNanos();
+        Map<String, Object> dados = new LinkedHashMap<>();
+        List<String> indisponiveis = new ArrayList<>();
+        ExecutorService escopo = Executors.newThreadPerTaskExecutor(THREADS);
+        try {
+            Map<String, Future<?>> tarefas = new LinkedHashMap<>();
+            fontes.forEach((nome, fonte) -> {
+                Callable<?> leitura = fonte.consulta() ? () -> consultar(fonte.leitura(), prazo) : fonte.leitura()::get;
+                tarefas.put(nome, escopo.submit(leitura));
+            });
+            tarefas.forEach((nome, tarefa) -> {
+                Object valor = aguardar(tarefa, prazo);
+                dados.put(nome, valor);
+                if (valor == null) {
+                    indisponiveis.add(nome);
+                }
+            });
+        } finally {
+            escopo.shutdownNow();
+        }
+        return new Resumo(Collections.unmodifiableMap(dados), !indisponiveis.isEmpty(), List.copyOf(indisponiveis));
+    }
+
+    /**
+     * A conexão sai do orçamento do painel, esperada no máximo até o prazo. A consulta roda
+     * numa transação somente leitura cujo tempo-limite é o que resta do prazo, arredondado
+     * para cima ao segundo; ele vira o tempo-limite dos comandos JDBC, então uma consulta
+     * lenta é cancelada pelo driver e não segura a conexão muito depois da resposta.
+     */
+    private Object consultar(Supplier<?> consulta, long prazo) throws InterruptedException {
+        if (!conexoes.tryAcquire(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+        try {
+            long restante = prazo - System.nanoTime();
+            if (restante <= 0) {
+                return null;
+            }
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setReadOnly(true);
+            transacao.setTimeout((int) Math.ceilDiv(restante, TimeUnit.SECONDS.toNanos(1)));
+            return transacao.execute(status -> consulta.get());
+        } finally {
+            conexoes.release();
+        }
+    }
+
+    private static Object aguardar(Future<?> tarefa, long prazo) {
+        try {
+            return tarefa.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            tarefa.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tarefa.cancel(true);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.infnet.companyX.prazo;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.event.FilaPosCommit;
+import com.infnet.companyX.repository.ProjetoRepository;
+import com.infnet.companyX.versao.VerificacaoColecao;
+import com.infnet.companyX.versao.VersaoColecoes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Instantâneo dos projetos atrasados, com as contagens por gerente e por cliente, pronto
+ * para ser servido sem consultar o banco. É recalculado na virada do dia e após o commit
+ * de qualquer alteração que possa mudar o conjunto ou o JSON de um projeto dele. Os
+ * recálculos rodam numa fila própria e, ao terminar, publicam um instantâneo novo e
+ * imutável; quem lê serve o instantâneo corrente, sem esperar pelos agendados.
+ */
+@Component
+public class ProjetosAtrasados implements SmartInitializingSingleton, VerificacaoColecao, DisposableBean {
+
+    public record Resumo(LocalDate data, int total, Map<Long, Long> porGerente, Map<Long, Long> porCliente) {
+    }
+
+    private record Instantaneo(LocalDate data, NavigableMap<Long, Projeto> projetos, Resumo resumo) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProjetoRepository projetoRepository;
+
+    private final VersaoColecoes versaoColecoes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Atributos de Projeto que decidem se ele está no conjunto ou em que contagem entra.
+     */
+    private static final Set<String> CAMPOS_DO_CRITERIO = Set.of("status", "dataFimPrevista", "ativo", "cliente", "gerente");
+
+    private static final Object RECALCULO = new Object();
+
+    private volatile Instantaneo instantaneo;
+
+    private final FilaPosCommit fila;
+
+    /**
+     * O recálculo roda numa transação própria, na thread da fila, para não pedir uma
+     * segunda conexão na thread que fez o commit, que ainda segura a dela. A transação
+     * não é somente leitura para que, com réplicas, o instantâneo seja sempre lido do
+     * primário: a carga inicial e a virada do dia rodam fora de qualquer requisição, e um
+     * instantâneo lido de uma réplica atrasada ficaria em memória até o próximo evento.
+     */
+    public ProjetosAtrasados(ProjetoRepository projetoRepository, VersaoColecoes versaoColecoes,
+                             PlatformTransactionManager transactionManager) {
+        this.projetoRepository = projetoRepository;
+        this.versaoColecoes = versaoColecoes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fila = new FilaPosCommit("projetos-atrasados");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recalcular();
+    }
+
+    /**
+     * Projetos atrasados em ordem de id a partir de {@code after}.
+     */
+    public List<Projeto> listar(Long after, int quantidade) {
+        return atual().projetos().tailMap(after, false).values().stream()
+                .limit(quantidade)
+                .toList();
+    }
+
+    public Resumo resumo() {
+        return atual().resumo();
+    }
+
+    /**
+     * Se há recálculo agendado ou em andamento, cujo instantâneo ainda não foi publicado.
+     */
+    public boolean recalculoPendente() {
+        return !fila.ociosa();
+    }
+
+    @Scheduled(cron = "${companyx.projetos.atrasados.virada-do-dia:0 0 0 * * *}")
+    public void virarDia() {
+        fila.agendarUnica(RECALCULO, this::recalcular);
+    }
+
+    /**
+     * Um projeto do conjunto é recalculado a cada alteração, pois qualquer campo muda o JSON
+     * servido. Um de fora só entra se passou a satisfazer o critério, o que um UPDATE direto
+     * só consegue gravando algum dos {@link #CAMPOS_DO_CRITERIO}, e o evento dele só traz
+     * os campos gravados, então o recálculo decide; os eventos do ciclo de vida, sem
+     * campos, podem ter mudado qualquer um. Cliente e gerente só importam se algum projeto
+     * atrasado os embute.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(EntidadeAlteradaEvent evento) {
+        Instantaneo atual = instantaneo;
+        boolean relevante;
+        if (evento.tipo() == Projeto.class) {
+            relevante = atual.projetos().containsKey(evento.id())
+                    || (evento.campos().isEmpty() || evento.campos().stream().anyMatch(CAMPOS_DO_CRITERIO::contains))
+                    && (evento.entidade() == null || atrasado((Projeto) evento.entidade(), atual.data()));
+        } else if (evento.tipo() == Cliente.class) {
+            relevante = atual.resumo().porCliente().containsKey(evento.id());
+        } else if (evento.tipo() == Funcionario.class) {
+            relevante = atual.resumo().porGerente().containsKey(evento.id());
+        } else {
+            relevante = false;
+        }
+        if (relevante) {
+            fila.agendarUnica(RECALCULO, this::recalcular);
+        }
+    }
+
+    /**
+     * Uma desativação só importa se alcançou algo que o instantâneo mostra; numa
+     * reativação não há como saber sem ler os registros, então o recálculo é único
+     * para o lote inteiro.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(AtivacaoEmLoteEvent evento) {
+        Instantaneo atual = instantaneo;
+        Map<Long, ?> exibidos;
+        if (evento.tipo() == Projeto.class) {
+            exibidos = atual.projetos();
+        } else if (evento.tipo() == Cliente.class) {
+            exibidos = atual.resumo().porCliente();
+        } else if (evento.tipo() == Funcionario.class) {
+            exibidos = atual.resumo().porGerente();
+        } else {
+            return;
+        }
+        if (evento.ativo() || evento.ids().stream().anyMatch(exibidos::containsKey)) {
+            fila.agendarUnica(RECALCULO, this::recalcular);
+        }
+    }
+
+    /**
+     * A listagem de atrasados responde pelo ETag da coleção de projetos. Enquanto a virada
+     * do dia não roda, ETag e lista continuam os de ontem; o recálculo troca a lista e só
+     * então invalida a coleção, e o ETag muda junto.
+     */
+    @Override
+    public void verificar(Class<?> tipo) {
+        if (tipo == Projeto.class) {
+            atual();
+        }
+    }
+
+    /**
+     * Se a virada agendada ainda não rodou (ou a aplicação ficou suspensa durante ela), a
+     * primeira leitura do dia agenda o recálculo e serve o instantâneo de ontem até ele
+     * terminar.
+     */
+    private Instantaneo atual() {
+        Instantaneo atual = instantaneo;
+        if (!atual.data().equals(LocalDate.now())) {
+            fila.agendarUnica(RECALCULO, this::recalcular);
+        }
+        return atual;
+    }
+
+    /**
+     * Serializado para que um recálculo mais antigo nunca substitua um mais novo: cada um
+     * lê o estado já commitado quando começa.
+     */
+    private synchronized void recalcular() {
+        LocalDate hoje = LocalDate.now();
+        Instantaneo anterior = instantaneo;
+        NavigableMap<Long, Projeto> projetos = transactionTemplate.execute(status -> projetoRepository.findProjetosAtrasados(hoje).stream()
+                .peek(this::desanexar)
+                .collect(Collectors.toMap(Projeto::getId, Function.identity(), (a, b) -> a, TreeMap::new)));
+        Resumo resumo = new Resumo(hoje, projetos.size(),
+                contar(projetos, projeto -> projeto.getGerente() != null ? projeto.getGerente().getId() : null),
+                contar(projetos, projeto -> projeto.getCliente() != null ? projeto.getCliente().getId() : null));
+        instantaneo = new Instantaneo(hoje, Collections.unmodifiableNavigableMap(projetos), resumo);
+        if (anterior != null && !anterior.data().equals(hoje)) {
+            // a virada muda a listagem sem nenhum evento de entidade
+            versaoColecoes.invalidar(Projeto.class);
+        }
+    }
+
+    /**
+     * O instantâneo é lido por todas as threads; desanexados, projeto, cliente e gerente
+     * deixam de pertencer à sessão que os carregou, que pode ser a de uma requisição.
+     */
+    private void desanexar(Projeto projeto) {
+        entityManager.detach(projeto);
+        if (projeto.getCliente() != null) {
+            entityManager.detach(projeto.getCliente());
+        }
+        if (projeto.getGerente() != null) {
+            entityManager.detach(projeto.getGerente());
+        }
+    }
+
+    private static Map<Long, Long> contar(NavigableMap<Long, Projeto> projetos, Function<Projeto, Long> chave) {
+        return Collections.unmodifiableMap(projetos.values().stream()
+                .map(chave)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting())));
+    }
+
+    private static boolean atrasado(Projeto projeto, LocalDate hoje) {
+        return Boolean.TRUE.equals(projeto.getAtivo())
+                && projeto.getStatus() == Projeto.StatusProjeto.EM_ANDAMENTO
+                && projeto.getDataFimPrevista() != null
+                && projeto.getDataFimPrevista().isBefore(hoje);
+    }
+
+    @Override
+    public void destroy() {
+        fila.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.infnet.companyX.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Leitura das próprias escritas: requisições que podem escrever leem tudo do primário e
+ * devolvem um cookie que mantém as leituras do mesmo cliente no primário durante a janela
+ * de aderência, tempo suficiente para as réplicas alcançarem a escrita. O cookie carrega
+ * o instante de expiração para não depender de o cliente respeitar o Max-Age.
+ */
+public class AderenciaPrimarioFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "companyx-primario";
+
+    private static final Set<String> METODOS_SEGUROS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration janela;
+
+    public AderenciaPrimarioFilter(Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean escrita = !METODOS_SEGUROS.contains(request.getMethod());
+        if (escrita) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + janela.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, janela.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        if (escrita || aderente(request)) {
+            RoteamentoDataSource.fixarNoPrimario();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoteamentoDataSource.liberar();
+        }
+    }
+
+    private static boolean aderente(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.infnet.companyX.replica;
+
+import com.infnet.companyX.versao.VersaoColecaoInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Fixa no primário as listagens com ETag de coleção. A versão da coleção muda assim que o
+ * primário confirma a escrita; lida de uma réplica atrasada, a listagem antiga sairia com
+ * o ETag novo e o cliente receberia 304 para ela até a próxima alteração.
+ */
+public class ColecoesNoPrimarioInterceptor implements HandlerInterceptor {
+
+    private final VersaoColecaoInterceptor versaoColecaoInterceptor;
+
+    public ColecoesNoPrimarioInterceptor(VersaoColecaoInterceptor versaoColecaoInterceptor) {
+        this.versaoColecaoInterceptor = versaoColecaoInterceptor;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod()) && handler instanceof HandlerMethod metodo
+                && versaoColecaoInterceptor.tipoDaColecao(metodo).isPresent()) {
+            RoteamentoDataSource.fixarNoPrimario();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package com.infnet.companyX.replica;
+
+import com.infnet.companyX.versao.VersaoColecaoInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Só entra em vigor com {@code companyx.replicas.urls}; sem réplicas o DataSource continua
+ * sendo o configurado pelo Spring Boot. As réplicas usam as credenciais e os limites de
+ * pool do primário. O que é servido com uma versão mantida em memória, e não lida no
+ * mesmo banco, não pode vir de uma réplica atrasada: as listagens com ETag de coleção
+ * ficam no primário, e as consultas que preenchem os caches de chave natural e os
+ * instantâneos em memória (índice de nomes, estoque baixo, projetos atrasados) rodam em
+ * transação de escrita.
+ */
+@Configuration
+@ConditionalOnProperty("companyx.replicas.urls")
+public class ReplicaConfig implements WebMvcConfigurer {
+
+    /**
+     * Resolvido só ao registrar os interceptors: as versões de coleção dependem do JPA, que
+     * depende do DataSource definido aqui.
+     */
+    private final ObjectProvider<VersaoColecaoInterceptor> versaoColecaoInterceptor;
+
+    public ReplicaConfig(ObjectProvider<VersaoColecaoInterceptor> versaoColecaoInterceptor) {
+        this.versaoColecaoInterceptor = versaoColecaoInterceptor;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(
+            HikariDataSource primario, DataSourceProperties propriedades,
+            @Value("${companyx.replicas.urls}") List<String> urls) {
+        Map<Object, Object> alvos = new LinkedHashMap<>();
+        alvos.put(RoteamentoDataSource.PRIMARIO, primario);
+        List<String> replicas = new ArrayList<>();
+        for (String url : urls) {
+            String nome = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = propriedades.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            replica.setPoolName(nome);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(primario.getMaximumPoolSize());
+            replica.setConnectionTimeout(primario.getConnectionTimeout());
+            alvos.put(nome, replica);
+            replicas.add(nome);
+        }
+
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(replicas);
+        roteamento.setTargetDataSources(alvos);
+        roteamento.setDefaultTargetDataSource(primario);
+        return roteamento;
+    }
+
+    /**
+     * É o DataSource que JPA, Flyway e JdbcTemplate recebem.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    @Bean
+    public AderenciaPrimarioFilter aderenciaPrimarioFilter(
+            @Value("${companyx.replicas.aderencia:5s}") Duration janela) {
+        return new AderenciaPrimarioFilter(janela);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ColecoesNoPrimarioInterceptor(versaoColecaoInterceptor.getObject())).addPathPatterns("/api/**");
+    }
+}
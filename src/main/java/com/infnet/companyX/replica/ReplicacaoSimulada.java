@@ -0,0 +1,161 @@
+package com.infnet.companyX.replica;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Substituto da replicação para rodar localmente com réplicas H2. Na inicialização recria
+ * nas réplicas o esquema já migrado do primário e, depois, copia todas as tabelas em
+ * intervalos fixos. Cada cópia lê um instantâneo do primário e é aplicada numa única
+ * transação por réplica, então ninguém lê uma réplica pela metade; entre uma cópia e a
+ * seguinte a réplica fica atrasada, como uma réplica de verdade.
+ */
+@Component
+@ConditionalOnProperty(name = "companyx.replicas.replicacao-simulada", havingValue = "true")
+@DependsOn("flywayInitializer")
+public class ReplicacaoSimulada {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final DataSource primario;
+
+    private final List<DataSource> replicas;
+
+    /**
+     * O esquema e a primeira cópia ficam prontos antes de a aplicação começar a atender.
+     */
+    public ReplicacaoSimulada(RoteamentoDataSource roteamentoDataSource) throws SQLException {
+        Map<Object, DataSource> resolvidos = roteamentoDataSource.getResolvedDataSources();
+        this.primario = resolvidos.get(RoteamentoDataSource.PRIMARIO);
+        this.replicas = roteamentoDataSource.getReplicas().stream().map(resolvidos::get).toList();
+        recriarEsquema();
+        replicar();
+    }
+
+    @Scheduled(fixedDelayString = "${companyx.replicas.intervalo-replicacao:1s}",
+            initialDelayString = "${companyx.replicas.intervalo-replicacao:1s}")
+    public synchronized void replicar() throws SQLException {
+        try (Connection origem = primario.getConnection()) {
+            origem.setAutoCommit(false);
+            origem.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            List<String> tabelas = tabelas(origem);
+            for (DataSource replica : replicas) {
+                copiar(origem, replica, tabelas);
+            }
+            origem.commit();
+        }
+    }
+
+    private void recriarEsquema() throws SQLException {
+        List<String> comandos = new ArrayList<>();
+        try (Connection origem = primario.getConnection();
+             ResultSet script = origem.createStatement().executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+            while (script.next()) {
+                comandos.add(script.getString(1));
+            }
+        }
+        for (DataSource replica : replicas) {
+            try (Connection destino = replica.getConnection(); Statement comando = destino.createStatement()) {
+                destino.setReadOnly(false);
+                comando.execute("DROP ALL OBJECTS");
+                for (String sql : comandos) {
+                    if (!sql.startsWith("CREATE USER")) {
+                        comando.execute(sql);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void copiar(Connection origem, DataSource replica, List<String> tabelas) throws SQLException {
+        try (Connection destino = replica.getConnection(); Statement comando = destino.createStatement()) {
+            destino.setReadOnly(false);
+            destino.setAutoCommit(false);
+            comando.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String tabela : tabelas) {
+                    comando.executeUpdate("DELETE FROM " + tabela);
+                    copiarLinhas(origem, destino, tabela);
+                }
+                destino.commit();
+            } catch (SQLException e) {
+                destino.rollback();
+                throw e;
+            } finally {
+                comando.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+
+    private static void copiarLinhas(Connection origem, Connection destino, String tabela) throws SQLException {
+        try (Statement leitura = origem.createStatement();
+             ResultSet linhas = leitura.executeQuery("SELECT * FROM " + tabela)) {
+            ResultSetMetaData colunas = linhas.getMetaData();
+            int quantidade = colunas.getColumnCount();
+            List<String> nomes = new ArrayList<>();
+            for (int i = 1; i <= quantidade; i++) {
+                nomes.add('"' + colunas.getColumnName(i) + '"');
+            }
+            String insert = "INSERT INTO " + tabela + " (" + String.join(", ", nomes) + ") VALUES ("
+                    + IntStream.range(0, quantidade).mapToObj(i -> "?").collect(Collectors.joining(", ")) + ")";
+
+            try (PreparedStatement escrita = destino.prepareStatement(insert)) {
+                int pendentes = 0;
+                while (linhas.next()) {
+                    for (int i = 1; i <= quantidade; i++) {
+                        escrita.setObject(i, valor(linhas.getObject(i)));
+                    }
+                    escrita.addBatch();
+                    if (++pendentes == TAMANHO_LOTE) {
+                        escrita.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    escrita.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * LOBs pertencem à conexão de origem e não podem ser gravados direto em outra.
+     */
+    private static Object valor(Object valor) throws SQLException {
+        if (valor instanceof Clob clob) {
+            return clob.getSubString(1, (int) clob.length());
+        }
+        if (valor instanceof Blob blob) {
+            return blob.getBytes(1, (int) blob.length());
+        }
+        return valor;
+    }
+
+    private static List<String> tabelas(Connection origem) throws SQLException {
+        List<String> tabelas = new ArrayList<>();
+        try (ResultSet resultado = origem.createStatement().executeQuery(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (resultado.next()) {
+                tabelas.add('"' + resultado.getString(1) + '"');
+            }
+        }
+        return tabelas;
+    }
+}
@@ -0,0 +1,88 @@
+package com.infnet.companyX.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as conexões de transações somente leitura às réplicas, em rodízio, e todo o resto
+ * ao primário. A chave é decidida quando a conexão é de fato obtida, por isso este
+ * DataSource fica atrás de um {@code LazyConnectionDataSourceProxy}: quando o primeiro
+ * comando roda, a marcação somente leitura da transação já está registrada.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARIO = "primario";
+
+    /**
+     * Não é herdável: uma thread de pool criada durante uma requisição fixada ficaria
+     * fixada pelo resto da vida.
+     */
+    private static final ThreadLocal<Boolean> FIXADO_NO_PRIMARIO = new ThreadLocal<>();
+
+    private final List<String> replicas;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(List<String> replicas) {
+        this.replicas = List.copyOf(replicas);
+    }
+
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Fixa as leituras da thread corrente no primário até {@link #liberar()}; usado nas
+     * requisições que escrevem e nas que precisam ler o que o próprio cliente acabou de
+     * escrever.
+     */
+    static void fixarNoPrimario() {
+        FIXADO_NO_PRIMARIO.set(Boolean.TRUE);
+    }
+
+    static void liberar() {
+        FIXADO_NO_PRIMARIO.remove();
+    }
+
+    /**
+     * Roda {@code leitura} com a thread fixada no primário e devolve a fixação ao estado
+     * anterior; para leituras cujo resultado fica guardado além da requisição.
+     */
+    public static <T> T noPrimario(Callable<T> leitura) throws Exception {
+        if (Boolean.TRUE.equals(FIXADO_NO_PRIMARIO.get())) {
+            return leitura.call();
+        }
+        fixarNoPrimario();
+        try {
+            return leitura.call();
+        } finally {
+            liberar();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || Boolean.TRUE.equals(FIXADO_NO_PRIMARIO.get())) {
+            return PRIMARIO;
+        }
+        return replicas.get(Math.floorMod(proxima.getAndIncrement(), replicas.size()));
+    }
+
+    /**
+     * As réplicas só existem aqui dentro; o primário é um bean e fecha com o próprio ciclo de vida.
+     */
+    @Override
+    public void close() throws Exception {
+        for (String replica : replicas) {
+            if (getResolvedDataSources().get(replica) instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.infnet.companyX.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.outbox.Outbox;
+import com.infnet.companyX.versao.VersaoColecoes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exclusão lógica e reativação de muitos registros, por id ou por filtro de igualdade,
+ * com um único UPDATE por lote de {@link AtivacaoEmLoteEvent#TAMANHO_LOTE} ids. Como a
+ * restrição {@link Entidade#SOMENTE_ATIVOS} esconderia justamente os registros a reativar,
+ * as instruções são nativas. Tudo roda numa transação e publica um único evento com os
+ * ids alcançados.
+ */
+@Repository
+public class AtivacaoEmLote {
+
+    private static final Set<String> NAO_FILTRAVEIS = Set.of("ativo");
+
+    private static final List<String> CAMPOS = List.of("ativo");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher publisher;
+
+    private final Outbox outbox;
+
+    private final VersaoColecoes versaoColecoes;
+
+    public AtivacaoEmLote(ObjectMapper objectMapper, ApplicationEventPublisher publisher, Outbox outbox,
+                          VersaoColecoes versaoColecoes) {
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.outbox = outbox;
+        this.versaoColecoes = versaoColecoes;
+    }
+
+    /**
+     * @return quantos registros mudaram de estado; ids inexistentes ou já no estado pedido
+     * são ignorados
+     */
+    @Transactional
+    public int alterarPorIds(Class<? extends Entidade> tipo, Collection<Long> ids, boolean ativo) {
+        AtivacaoEmLoteEvent evento = new AtivacaoEmLoteEvent(tipo, List.copyOf(new LinkedHashSet<>(ids)), ativo);
+        int alterados = 0;
+        for (List<Long> lote : evento.lotes()) {
+            alterados += atualizar(tipo, lote, ativo);
+        }
+        if (alterados > 0) {
+            publisher.publishEvent(evento);
+        }
+        return alterados;
+    }
+
+    /**
+     * Percorre por keyset os ids que atendem ao filtro e ainda estão no estado oposto,
+     * atualizando cada lote assim que é lido. O filtro usa os nomes dos atributos da
+     * entidade; associações são filtradas pelo id.
+     *
+     * @return quantos registros mudaram de estado
+     * @throws IllegalArgumentException se o filtro estiver vazio ou tiver atributo
+     *                                  desconhecido ou valor incompatível
+     */
+    @Transactional
+    public int alterarPorFiltro(Class<? extends Entidade> tipo, Map<String, String> filtro, boolean ativo) {
+        if (filtro.isEmpty()) {
+            throw new IllegalArgumentException("Filtro vazio");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id FROM ").append(ConsultaInativos.tabela(tipo))
+                .append(" WHERE ativo = :anterior");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        for (Map.Entry<String, String> condicao : filtro.entrySet()) {
+            SingularAttribute<?, ?> atributo = atributoFiltravel(tipo, condicao.getKey());
+            String parametro = "p" + parametros.size();
+            sql.append(" AND ").append(coluna(tipo, atributo)).append(" = :").append(parametro);
+            parametros.put(parametro, valor(atributo, condicao.getValue()));
+        }
+        sql.append(" AND id > :after ORDER BY id");
+
+        List<Long> alcancados = new ArrayList<>();
+        int alterados = 0;
+        long after = 0;
+        while (true) {
+            Query consulta = entityManager.createNativeQuery(sql.toString())
+                    .setParameter("anterior", !ativo)
+                    .setParameter("after", after)
+                    .setMaxResults(AtivacaoEmLoteEvent.TAMANHO_LOTE);
+            parametros.forEach(consulta::setParameter);
+            List<Long> lote = ((List<?>) consulta.getResultList()).stream()
+                    .map(id -> ((Number) id).longValue())
+                    .toList();
+            if (lote.isEmpty()) {
+                break;
+            }
+            alterados += atualizar(tipo, lote, ativo);
+            alcancados.addAll(lote);
+            after = lote.getLast();
+            if (lote.size() < AtivacaoEmLoteEvent.TAMANHO_LOTE) {
+                break;
+            }
+        }
+        if (alterados > 0) {
+            publisher.publishEvent(new AtivacaoEmLoteEvent(tipo, alcancados, ativo));
+        }
+        return alterados;
+    }
+
+    /**
+     * Bloqueia antes as linhas que de fato vão mudar, para que o outbox registre só essas e
+     * com a versão gravada pelo UPDATE.
+     */
+    private int atualizar(Class<? extends Entidade> tipo, List<Long> ids, boolean ativo) {
+        String tabela = ConsultaInativos.tabela(tipo);
+        List<Long> alcancados = ((List<?>) entityManager
+                .createNativeQuery("SELECT id FROM " + tabela + " WHERE ativo = :anterior AND id IN (:ids) FOR UPDATE")
+                .setParameter("anterior", !ativo)
+                .setParameter("ids", ids)
+                .getResultList()).stream()
+                .map(id -> ((Number) id).longValue())
+                .toList();
+        if (alcancados.isEmpty()) {
+            return 0;
+        }
+        int alterados = entityManager
+                .createNativeQuery("UPDATE " + tabela + " SET ativo = :ativo, versao = versao + 1 WHERE id IN (:ids)")
+                .setParameter("ativo", ativo)
+                .setParameter("ids", alcancados)
+                .executeUpdate();
+        outbox.registrarPorIds(tipo, alcancados, CAMPOS);
+        versaoColecoes.registrar(tipo);
+        return alterados;
+    }
+
+    private SingularAttribute<?, ?> atributoFiltravel(Class<? extends Entidade> tipo, String nome) {
+        SingularAttribute<?, ?> atributo;
+        try {
+            atributo = entityManager.getMetamodel().entity(tipo).getSingularAttribute(nome);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Campo desconhecido: " + nome, e);
+        }
+        if (atributo.isVersion() || NAO_FILTRAVEIS.contains(nome)) {
+            throw new IllegalArgumentException("Campo não filtrável: " + nome);
+        }
+        return atributo;
+    }
+
+    private String coluna(Class<? extends Entidade> tipo, SingularAttribute<?, ?> atributo) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(tipo);
+        return persister.getPropertyColumnNames(atributo.getName())[0];
+    }
+
+    /**
+     * Enums vão pelo nome, como estão mapeados; associações, pelo id do alvo.
+     */
+    private Object valor(SingularAttribute<?, ?> atributo, String valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Filtro sem valor: " + atributo.getName());
+        }
+        Class<?> tipoValor = atributo.isAssociation() ? Long.class : atributo.getJavaType();
+        Object convertido = objectMapper.convertValue(valor, tipoValor);
+        return convertido instanceof Enum<?> constante ? constante.name() : convertido;
+    }
+}
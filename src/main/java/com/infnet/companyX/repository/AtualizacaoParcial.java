@@ -0,0 +1,224 @@
+package com.infnet.companyX.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.outbox.Outbox;
+import com.infnet.companyX.versao.VersaoColecoes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Repository
+public class AtualizacaoParcial {
+
+    private static final Set<String> SOMENTE_LEITURA = Set.of("ativo", "dataCadastro", "dataCriacao");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher publisher;
+
+    private final Outbox outbox;
+
+    private final VersaoColecoes versaoColecoes;
+
+    public AtualizacaoParcial(ObjectMapper objectMapper, ApplicationEventPublisher publisher, Outbox outbox,
+                              VersaoColecoes versaoColecoes) {
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.outbox = outbox;
+        this.versaoColecoes = versaoColecoes;
+    }
+
+    /**
+     * Aplica um JSON Merge Patch (RFC 7396) com um único UPDATE que só grava as colunas
+     * presentes no documento e incrementa a versão, condicionado à versão lida pelo chamador.
+     * Associações são informadas como {@code {"id": n}} ou {@code null}; a referenciada
+     * precisa estar ativa e fica bloqueada até o commit. Como o UPDATE não
+     * passa pelo ciclo de vida da entidade, a linha do outbox e o evento de alteração são
+     * montados dos valores gravados e da nova versão, sem reler o registro.
+     *
+     * @return a nova versão, ou vazio se o registro mudou (ou foi excluído) desde a leitura
+     * @throws IllegalArgumentException se o documento tiver campo desconhecido, somente
+     *                                  leitura ou com valor incompatível
+     */
+    @Transactional
+    public Optional<Long> aplicar(Class<? extends Entidade> tipo, Long id, Long versao, ObjectNode patch) {
+        return atualizar(tipo, id, versao, patch).map(Aplicado::versao);
+    }
+
+    /**
+     * Como {@link #aplicar}, mas devolve também as versões das associações {@code embutidas},
+     * lidas e bloqueadas na mesma transação do UPDATE, para os registros cujo ETag inclui as
+     * entidades que o JSON embute. Associação vazia ou inativa vale {@code null}. As que o
+     * documento gravou já foram bloqueadas na validação; das outras, os ids saem de uma só
+     * consulta.
+     *
+     * @return a nova versão seguida das versões das associações, na ordem pedida, ou vazio
+     * se o registro mudou (ou foi excluído) desde a leitura
+     */
+    @Transactional
+    public Optional<Long[]> aplicarComEmbutidas(Class<? extends Entidade> tipo, Long id, Long versao, ObjectNode patch,
+                                                String... embutidas) {
+        Optional<Aplicado> aplicado = atualizar(tipo, id, versao, patch);
+        if (aplicado.isEmpty()) {
+            return Optional.empty();
+        }
+        EntityType<? extends Entidade> entidade = entityManager.getMetamodel().entity(tipo);
+        List<String> naoGravadas = Arrays.stream(embutidas)
+                .filter(embutida -> !aplicado.get().valores().containsKey(embutida))
+                .toList();
+        Map<String, Long> referencias = new HashMap<>();
+        if (!naoGravadas.isEmpty()) {
+            Tuple linha = entityManager.createQuery(naoGravadas.stream().map(embutida -> "e." + embutida + ".id")
+                            .collect(Collectors.joining(", ", "SELECT ", " FROM " + entidade.getName() + " e WHERE e.id = :id")),
+                            Tuple.class)
+                    .setParameter("id", id)
+                    .getSingleResult();
+            for (int i = 0; i < naoGravadas.size(); i++) {
+                referencias.put(naoGravadas.get(i), linha.get(i, Long.class));
+            }
+        }
+
+        Long[] versoes = new Long[embutidas.length + 1];
+        versoes[0] = aplicado.get().versao();
+        for (int i = 0; i < embutidas.length; i++) {
+            if (aplicado.get().valores().containsKey(embutidas[i])) {
+                versoes[i + 1] = aplicado.get().versoesReferencias().get(embutidas[i]);
+                continue;
+            }
+            Long referenciaId = referencias.get(embutidas[i]);
+            SingularAttribute<?, ?> atributo = entidade.getSingularAttribute(embutidas[i]);
+            versoes[i + 1] = referenciaId == null ? null
+                    : versaoAtivaBloqueada(atributo.getJavaType().asSubclass(Entidade.class), referenciaId).orElse(null);
+        }
+        return Optional.of(versoes);
+    }
+
+    private Optional<Aplicado> atualizar(Class<? extends Entidade> tipo, Long id, Long versao, ObjectNode patch) {
+        if (patch.isEmpty()) {
+            // nada a gravar, mas a versão lida pelo chamador, que vira o ETag da resposta,
+            // ainda tem de ser a do registro
+            return versaoAtivaBloqueada(tipo, id)
+                    .filter(versao::equals)
+                    .map(atual -> new Aplicado(atual, Map.of(), Map.of()));
+        }
+
+        EntityType<? extends Entidade> entidade = entityManager.getMetamodel().entity(tipo);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<? extends Entidade> update = cb.createCriteriaUpdate(tipo);
+        Root<? extends Entidade> root = update.getRoot();
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        Map<String, Long> versoesReferencias = new HashMap<>();
+        for (Map.Entry<String, JsonNode> campo : patch.properties()) {
+            SingularAttribute<?, ?> atributo = atributoEditavel(entidade, campo.getKey());
+            Object valor = valor(atributo, campo.getValue(), versoesReferencias);
+            if (valor == null) {
+                valores.put(atributo.getName(), null);
+                anular(cb, update, root.get(atributo.getName()));
+            } else if (valor instanceof Entidade referencia) {
+                valores.put(atributo.getName(), referencia.getId());
+                update.set(root.<Object>get(atributo.getName()), valor);
+            } else {
+                valores.put(atributo.getName(), valor);
+                update.set(root.<Object>get(atributo.getName()), valor);
+            }
+        }
+
+        SingularAttribute<?, ?> atributoVersao = entidade.getVersion(Long.class);
+        update.set(root.<Long>get(atributoVersao.getName()), cb.sum(root.<Long>get(atributoVersao.getName()), 1L));
+        update.where(
+                cb.equal(root.get("id"), id),
+                cb.equal(root.get(atributoVersao.getName()), versao));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            return Optional.empty();
+        }
+        outbox.registrar(tipo, id, versao + 1, valores.keySet());
+        versaoColecoes.registrar(tipo);
+        publisher.publishEvent(EntidadeAlteradaEvent.deValores(tipo, id, versao + 1, valores));
+        return Optional.of(new Aplicado(versao + 1, valores, versoesReferencias));
+    }
+
+    /**
+     * Resultado do UPDATE: a nova versão, os valores gravados (associações pelo id) e as
+     * versões das referências gravadas, lidas sob bloqueio na validação.
+     */
+    private record Aplicado(Long versao, Map<String, Object> valores, Map<String, Long> versoesReferencias) {
+    }
+
+    /**
+     * Bloqueia a linha referenciada até o fim da transação, para que ela não seja desativada
+     * nem alterada entre a verificação e o commit do UPDATE que passa a apontar para ela.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Long> versaoAtivaBloqueada(Class<? extends Entidade> tipo, Long id) {
+        List<Long> versoes = entityManager.createNativeQuery("SELECT versao FROM " + ConsultaInativos.tabela(tipo)
+                        + " WHERE id = :id AND ativo = TRUE FOR UPDATE", Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return versoes.stream().findFirst();
+    }
+
+    /**
+     * O Hibernate não aceita null como valor de SET em associações; o literal nulo tipado sim.
+     */
+    private static <Y> void anular(CriteriaBuilder cb, CriteriaUpdate<?> update, Path<Y> caminho) {
+        update.set(caminho, cb.nullLiteral(caminho.getJavaType()));
+    }
+
+    private static SingularAttribute<?, ?> atributoEditavel(EntityType<?> entidade, String nome) {
+        SingularAttribute<?, ?> atributo;
+        try {
+            atributo = entidade.getSingularAttribute(nome);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Campo desconhecido: " + nome, e);
+        }
+        if (atributo.isId() || atributo.isVersion() || SOMENTE_LEITURA.contains(nome)) {
+            throw new IllegalArgumentException("Campo somente leitura: " + nome);
+        }
+        return atributo;
+    }
+
+    private Object valor(SingularAttribute<?, ?> atributo, JsonNode valor, Map<String, Long> versoesReferencias) {
+        if (valor.isNull()) {
+            return null;
+        }
+        if (atributo.isAssociation()) {
+            JsonNode id = valor.get("id");
+            if (id == null || !id.canConvertToLong()) {
+                throw new IllegalArgumentException("Associação sem id: " + atributo.getName());
+            }
+            Class<? extends Entidade> referenciado = atributo.getJavaType().asSubclass(Entidade.class);
+            Long versao = versaoAtivaBloqueada(referenciado, id.asLong())
+                    .orElseThrow(() -> new IllegalArgumentException("Referência inexistente ou inativa: " + atributo.getName()));
+            versoesReferencias.put(atributo.getName(), versao);
+            return entityManager.getReference(referenciado, id.asLong());
+        }
+        return objectMapper.convertValue(valor, atributo.getJavaType());
+    }
+}
@@ -1,31 +1,67 @@
 package com.infnet.companyX.repository;
 
+import com.infnet.companyX.cache.CacheConfig;
 import com.infnet.companyX.entity.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     
+    @Cacheable(cacheNames = CacheConfig.CLIENTES_POR_EMAIL, sync = true)
     Optional<Cliente> findByEmail(String email);
     
+    @Cacheable(cacheNames = CacheConfig.CLIENTES_POR_CPF, sync = true)
     Optional<Cliente> findByCpf(String cpf);
     
+    @Cacheable(cacheNames = CacheConfig.CLIENTES_POR_CNPJ, sync = true)
     Optional<Cliente> findByCnpj(String cnpj);
     
-    List<Cliente> findByTipoPessoa(Cliente.TipoPessoa tipoPessoa);
+    @Query("SELECT c.estado AS estado, COUNT(c) AS quantidade FROM Cliente c "
+            + "GROUP BY c.estado ORDER BY c.estado")
+    List<ContagemPorEstado> contarAtivosPorEstado();
     
-    List<Cliente> findByCidade(String cidade);
+    @Query("SELECT c FROM Cliente c WHERE c.nome LIKE %:nome%")
+    List<Cliente> findByNomeContaining(@Param("nome") String nome);
     
-    List<Cliente> findByEstado(String estado);
+    List<Cliente> findByIdInOrderByIdAsc(Collection<Long> ids);
     
-    List<Cliente> findByAtivoTrue();
+    @Query("SELECT c.versao FROM Cliente c WHERE c.id = :id")
+    Optional<Long> findVersaoAtivaById(@Param("id") Long id);
     
-    @Query("SELECT c FROM Cliente c WHERE c.nome LIKE %:nome% AND c.ativo = true")
-    List<Cliente> findByNomeContaining(@Param("nome") String nome);
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    List<Cliente> findByTipoPessoaAndIdGreaterThanOrderByIdAsc(Cliente.TipoPessoa tipoPessoa, Long after, Limit limit);
+    
+    List<Cliente> findByCidadeAndIdGreaterThanOrderByIdAsc(String cidade, Long after, Limit limit);
+    
+    List<Cliente> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, Long after, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cliente c ORDER BY c.id ASC")
+    Stream<Cliente> streamAll();
+    
+    interface ContagemPorEstado {
+        
+        String getEstado();
+        
+        Long getQuantidade();
+    }
 }
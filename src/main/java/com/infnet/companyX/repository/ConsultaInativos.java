@@ -0,0 +1,88 @@
+package com.infnet.companyX.repository;
+
+import com.infnet.companyX.entity.Entidade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caminho de administração que enxerga os registros excluídos logicamente. A restrição
+ * {@link Entidade#SOMENTE_ATIVOS} vale para JPQL, Criteria e {@code find}, então estas
+ * consultas são nativas; associações das entidades devolvidas continuam restritas, e
+ * são carregadas ainda na transação: a sessão fecha com ela.
+ */
+@Repository
+public class ConsultaInativos {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public <T extends Entidade> Optional<T> buscarIncluindoInativos(Class<T> tipo, Long id) {
+        List<T> resultado = entityManager
+                .createNativeQuery("SELECT * FROM " + tabela(tipo) + " WHERE id = :id", tipo)
+                .setParameter("id", id)
+                .getResultList();
+        resultado.forEach(this::carregarAssociacoes);
+        return resultado.stream().findFirst();
+    }
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public <T extends Entidade> List<T> listarInativos(Class<T> tipo, Long after, Limit limite) {
+        List<T> inativos = entityManager
+                .createNativeQuery("SELECT * FROM " + tabela(tipo) + " WHERE ativo = FALSE AND id > :after ORDER BY id", tipo)
+                .setParameter("after", after)
+                .setMaxResults(limite.max())
+                .getResultList();
+        inativos.forEach(this::carregarAssociacoes);
+        return inativos;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> idsInativos(Class<? extends Entidade> tipo, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<?> resultado = entityManager
+                .createNativeQuery("SELECT id FROM " + tabela(tipo) + " WHERE ativo = FALSE AND id IN (:ids)")
+                .setParameter("ids", ids)
+                .getResultList();
+        return resultado.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+
+    /**
+     * Uma associação com um registro inativo não carrega, e sai nula.
+     */
+    private void carregarAssociacoes(Entidade entidade) {
+        BeanWrapper propriedades = PropertyAccessorFactory.forBeanPropertyAccess(entidade);
+        for (Attribute<?, ?> atributo : entityManager.getMetamodel().entity(Hibernate.getClass(entidade)).getAttributes()) {
+            if (!atributo.isAssociation() || !(propriedades.getPropertyValue(atributo.getName()) instanceof Entidade associada)) {
+                continue;
+            }
+            try {
+                Hibernate.initialize(associada);
+            } catch (EntityNotFoundException e) {
+                entityManager.detach(entidade);
+                propriedades.setPropertyValue(atributo.getName(), null);
+            }
+        }
+    }
+
+    static String tabela(Class<? extends Entidade> tipo) {
+        return tipo.getAnnotation(Table.class).name();
+    }
+}
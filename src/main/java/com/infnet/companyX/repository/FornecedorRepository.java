@@ -1,30 +1,40 @@
 package com.infnet.companyX.repository;
 
+import com.infnet.companyX.cache.CacheConfig;
 import com.infnet.companyX.entity.Fornecedor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
     
+    @Cacheable(cacheNames = CacheConfig.FORNECEDORES_POR_CNPJ, sync = true)
     Optional<Fornecedor> findByCnpj(String cnpj);
     
+    @Cacheable(cacheNames = CacheConfig.FORNECEDORES_POR_EMAIL, sync = true)
     Optional<Fornecedor> findByEmail(String email);
     
-    List<Fornecedor> findByCidade(String cidade);
+    @Query("SELECT f FROM Fornecedor f WHERE f.nome LIKE %:nome%")
+    List<Fornecedor> findByNomeContaining(@Param("nome") String nome);
     
-    List<Fornecedor> findByEstado(String estado);
+    List<Fornecedor> findByIdInOrderByIdAsc(Collection<Long> ids);
     
-    List<Fornecedor> findByAtivoTrue();
+    @Query("SELECT f.versao FROM Fornecedor f WHERE f.id = :id")
+    Optional<Long> findVersaoAtivaById(@Param("id") Long id);
     
-    @Query("SELECT f FROM Fornecedor f WHERE f.nome LIKE %:nome% AND f.ativo = true")
-    List<Fornecedor> findByNomeContaining(@Param("nome") String nome);
+    List<Fornecedor> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    List<Fornecedor> findByCidadeAndIdGreaterThanOrderByIdAsc(String cidade, Long after, Limit limit);
     
-    @Query("SELECT f FROM Fornecedor f WHERE f.razaoSocial LIKE %:razaoSocial% AND f.ativo = true")
-    List<Fornecedor> findByRazaoSocialContaining(@Param("razaoSocial") String razaoSocial);
-}
+    List<Fornecedor> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, Long after, Limit limit);
+}
\ No newline at end of file
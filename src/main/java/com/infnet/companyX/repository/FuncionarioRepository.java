@@ -1,27 +1,40 @@
 package com.infnet.companyX.repository;
 
+import com.infnet.companyX.cache.CacheConfig;
 import com.infnet.companyX.entity.Funcionario;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface FuncionarioRepository extends JpaRepository<Funcionario, Long> {
     
+    @Cacheable(cacheNames = CacheConfig.FUNCIONARIOS_POR_EMAIL, sync = true)
     Optional<Funcionario> findByEmail(String email);
     
+    @Cacheable(cacheNames = CacheConfig.FUNCIONARIOS_POR_CPF, sync = true)
     Optional<Funcionario> findByCpf(String cpf);
     
-    List<Funcionario> findByDepartamento(String departamento);
+    @Query("SELECT f FROM Funcionario f WHERE f.nome LIKE %:nome%")
+    List<Funcionario> findByNomeContaining(@Param("nome") String nome);
     
-    List<Funcionario> findByCargo(String cargo);
+    List<Funcionario> findByIdInOrderByIdAsc(Collection<Long> ids);
     
-    List<Funcionario> findByAtivoTrue();
+    @Query("SELECT f.versao FROM Funcionario f WHERE f.id = :id")
+    Optional<Long> findVersaoAtivaById(@Param("id") Long id);
     
-    @Query("SELECT f FROM Funcionario f WHERE f.nome LIKE %:nome% AND f.ativo = true")
-    List<Funcionario> findByNomeContaining(@Param("nome") String nome);
-}
+    List<Funcionario> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    List<Funcionario> findByDepartamentoAndIdGreaterThanOrderByIdAsc(String departamento, Long after, Limit limit);
+    
+    List<Funcionario> findByCargoAndIdGreaterThanOrderByIdAsc(String cargo, Long after, Limit limit);
+}
\ No newline at end of file
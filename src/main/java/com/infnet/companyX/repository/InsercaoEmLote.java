@@ -0,0 +1,37 @@
+package com.infnet.companyX.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public class InsercaoEmLote {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+
+    /**
+     * Persiste as entidades em uma única transação, descarregando a cada lote para que o
+     * Hibernate agrupe os INSERTs em batches JDBC e o contexto de persistência não cresça.
+     */
+    @Transactional
+    public <T> List<T> inserir(List<T> entidades) {
+        for (int i = 0; i < entidades.size(); i++) {
+            entityManager.persist(entidades.get(i));
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entidades;
+    }
+}
@@ -1,32 +1,83 @@
 package com.infnet.companyX.repository;
 
+import com.infnet.companyX.cache.CacheConfig;
 import com.infnet.companyX.entity.Produto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     
+    @Cacheable(cacheNames = CacheConfig.PRODUTOS_POR_CODIGO, sync = true)
     Optional<Produto> findByCodigo(String codigo);
     
-    List<Produto> findByCategoria(String categoria);
+    @Query("SELECT p FROM Produto p WHERE p.nome LIKE %:nome%")
+    List<Produto> findByNomeContaining(@Param("nome") String nome);
     
-    List<Produto> findByMarca(String marca);
+    List<Produto> findByIdInOrderByIdAsc(Collection<Long> ids);
     
-    List<Produto> findByAtivoTrue();
+    @Query("SELECT p.versao FROM Produto p WHERE p.id = :id")
+    Optional<Long> findVersaoAtivaById(@Param("id") Long id);
     
-    @Query("SELECT p FROM Produto p WHERE p.nome LIKE %:nome% AND p.ativo = true")
-    List<Produto> findByNomeContaining(@Param("nome") String nome);
+    /**
+     * Decremento condicional em um único UPDATE: a checagem de saldo e a baixa acontecem
+     * sob o mesmo bloqueio de linha, sem leitura prévia. O saldo e a versão gravados voltam
+     * do próprio UPDATE (tabela delta do H2, o {@code RETURNING} de outros bancos), sem
+     * uma releitura da linha; vazio se o produto não existe, está inativo ou não tem saldo.
+     */
+    @Transactional
+    @Query(value = "SELECT versao AS \"versao\", quantidade_estoque AS \"quantidadeEstoque\" FROM FINAL TABLE ("
+            + "UPDATE produtos SET quantidade_estoque = quantidade_estoque - :quantidade, versao = versao + 1 "
+            + "WHERE id = :id AND ativo = TRUE AND quantidade_estoque >= :quantidade)", nativeQuery = true)
+    Optional<Saldo> reservarEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+    
+    /**
+     * @return o saldo e a versão gravados, ou vazio se o produto não existe ou está inativo
+     */
+    @Transactional
+    @Query(value = "SELECT versao AS \"versao\", quantidade_estoque AS \"quantidadeEstoque\" FROM FINAL TABLE ("
+            + "UPDATE produtos SET quantidade_estoque = COALESCE(quantidade_estoque, 0) + :quantidade, versao = versao + 1 "
+            + "WHERE id = :id AND ativo = TRUE)", nativeQuery = true)
+    Optional<Saldo> reporEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+    
+    List<Produto> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    List<Produto> findByCategoriaAndIdGreaterThanOrderByIdAsc(String categoria, Long after, Limit limit);
+    
+    List<Produto> findByMarcaAndIdGreaterThanOrderByIdAsc(String marca, Long after, Limit limit);
+    
+    @Query("SELECT p FROM Produto p WHERE p.preco BETWEEN :precoMin AND :precoMax AND p.id > :after ORDER BY p.id ASC")
+    List<Produto> findByPrecoRange(@Param("precoMin") BigDecimal precoMin, @Param("precoMax") BigDecimal precoMax, @Param("after") Long after, Limit limit);
+    
+    @Query("SELECT p FROM Produto p WHERE p.quantidadeEstoque < :limite AND p.id > :after ORDER BY p.id ASC")
+    List<Produto> findEstoqueBaixo(@Param("limite") Integer limite, @Param("after") Long after, Limit limit);
     
-    @Query("SELECT p FROM Produto p WHERE p.preco BETWEEN :precoMin AND :precoMax AND p.ativo = true")
-    List<Produto> findByPrecoRange(@Param("precoMin") BigDecimal precoMin, @Param("precoMax") BigDecimal precoMax);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Produto p ORDER BY p.id ASC")
+    Stream<Produto> streamAll();
     
-    @Query("SELECT p FROM Produto p WHERE p.quantidadeEstoque < :limite AND p.ativo = true")
-    List<Produto> findEstoqueBaixo(@Param("limite") Integer limite);
+    interface Saldo {
+        
+        Long getVersao();
+        
+        Integer getQuantidadeEstoque();
+    }
 }
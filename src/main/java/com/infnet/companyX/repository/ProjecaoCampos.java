@@ -0,0 +1,198 @@
+package com.infnet.companyX.repository;
+
+import com.infnet.companyX.entity.Entidade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Consultas para o parâmetro {@code fields}: seleciona só as colunas pedidas, numa
+ * consulta de tuplas, e devolve cada linha como um mapa pronto para serializar. O id
+ * vem sempre, pois é o cursor da paginação. Associações podem ser pedidas inteiras
+ * ({@code cliente}, só o id) ou por atributo ({@code cliente.nome}, por LEFT JOIN).
+ */
+@Repository
+public class ProjecaoCampos {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public <T extends Entidade> List<Map<String, Object>> listar(Class<T> tipo, String campos,
+                                                                 Specification<T> filtro, Long after, Limit limite) {
+        return consultar(tipo, campos, (root, query, cb) -> cb.and(
+                cb.greaterThan(root.get(ID), after), filtro.toPredicate(root, query, cb)), limite);
+    }
+
+    @Transactional(readOnly = true)
+    public <T extends Entidade> List<Map<String, Object>> listarPorIds(Class<T> tipo, String campos, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return consultar(tipo, campos, (root, query, cb) -> root.get(ID).in(ids), Limit.unlimited());
+    }
+
+    @Transactional(readOnly = true)
+    public <T extends Entidade> Optional<Map<String, Object>> buscar(Class<T> tipo, String campos, Specification<T> filtro) {
+        return consultar(tipo, campos, filtro, Limit.of(1)).stream().findFirst();
+    }
+
+    /**
+     * A mesma projeção sobre entidades já carregadas, para listagens servidas da memória:
+     * os campos são validados como na consulta e cada entidade vira o mesmo mapa que a
+     * tupla correspondente viraria. As associações pedidas precisam estar carregadas.
+     *
+     * @throws IllegalArgumentException se algum campo não existir na entidade
+     */
+    public <T extends Entidade> List<Map<String, Object>> projetar(Class<T> tipo, String campos, List<T> entidades) {
+        List<String> chaves = chaves(entityManager.getMetamodel().entity(tipo), campos);
+        return entidades.stream()
+                .map(entidade -> linha(chaves.stream().map(chave -> valor(entidade, chave)).toList(), chaves))
+                .toList();
+    }
+
+    /**
+     * @throws IllegalArgumentException se algum campo não existir na entidade
+     */
+    private <T extends Entidade> List<Map<String, Object>> consultar(Class<T> tipo, String campos,
+                                                                     Specification<T> filtro, Limit limite) {
+        List<String> chaves = chaves(entityManager.getMetamodel().entity(tipo), campos);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(tipo);
+
+        Map<String, Join<?, ?>> juncoes = new HashMap<>();
+        List<Selection<?>> selecoes = new ArrayList<>();
+        for (String chave : chaves) {
+            selecoes.add(caminho(root, juncoes, chave));
+        }
+
+        query.multiselect(selecoes)
+                .where(filtro.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get(ID)));
+        TypedQuery<Tuple> consulta = entityManager.createQuery(query);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return consulta.getResultStream()
+                .map(tupla -> linha(Arrays.asList(tupla.toArray()), chaves))
+                .toList();
+    }
+
+    /**
+     * Caminhos pedidos, na ordem, começando pelo id. Um campo de associação sempre inclui
+     * também o id dela, que distingue a associação nula de uma com atributos nulos.
+     */
+    private static List<String> chaves(EntityType<?> entidade, String campos) {
+        Set<String> chaves = new LinkedHashSet<>();
+        chaves.add(ID);
+        for (String campo : campos.split(",")) {
+            selecionar(entidade, chaves, campo.trim());
+        }
+        return List.copyOf(chaves);
+    }
+
+    private static void selecionar(EntityType<?> entidade, Set<String> chaves, String campo) {
+        if (campo.isEmpty()) {
+            return;
+        }
+        int ponto = campo.indexOf('.');
+        SingularAttribute<?, ?> atributo = atributo(entidade, ponto < 0 ? campo : campo.substring(0, ponto));
+        if (!atributo.isAssociation()) {
+            if (ponto >= 0) {
+                throw new IllegalArgumentException("Campo não é associação: " + atributo.getName());
+            }
+            chaves.add(atributo.getName());
+            return;
+        }
+
+        chaves.add(atributo.getName() + "." + ID);
+        if (ponto >= 0) {
+            SingularAttribute<?, ?> subatributo = atributo((EntityType<?>) atributo.getType(), campo.substring(ponto + 1));
+            if (subatributo.isAssociation()) {
+                throw new IllegalArgumentException("Só um nível de associação é permitido: " + campo);
+            }
+            chaves.add(atributo.getName() + "." + subatributo.getName());
+        }
+    }
+
+    /**
+     * Atributos de associação vêm por LEFT JOIN, um por associação.
+     */
+    private static Selection<?> caminho(Root<?> root, Map<String, Join<?, ?>> juncoes, String chave) {
+        int ponto = chave.indexOf('.');
+        if (ponto < 0) {
+            return root.get(chave);
+        }
+        return juncoes.computeIfAbsent(chave.substring(0, ponto), nome -> root.join(nome, JoinType.LEFT))
+                .get(chave.substring(ponto + 1));
+    }
+
+    private static Object valor(Object entidade, String chave) {
+        int ponto = chave.indexOf('.');
+        if (ponto < 0) {
+            return PropertyAccessorFactory.forBeanPropertyAccess(entidade).getPropertyValue(chave);
+        }
+        Object associacao = valor(entidade, chave.substring(0, ponto));
+        return associacao != null ? valor(associacao, chave.substring(ponto + 1)) : null;
+    }
+
+    private static SingularAttribute<?, ?> atributo(EntityType<?> entidade, String nome) {
+        try {
+            return entidade.getSingularAttribute(nome);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Campo desconhecido: " + nome, e);
+        }
+    }
+
+    /**
+     * Campos com ponto viram objetos aninhados; uma associação nula vira {@code null}.
+     */
+    private static Map<String, Object> linha(List<?> valores, List<String> chaves) {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        for (int i = 0; i < chaves.size(); i++) {
+            String chave = chaves.get(i);
+            int ponto = chave.indexOf('.');
+            if (ponto < 0) {
+                linha.put(chave, valores.get(i));
+                continue;
+            }
+            String associacao = chave.substring(0, ponto);
+            if (chave.endsWith("." + ID) && valores.get(i) == null) {
+                linha.put(associacao, null);
+            } else if (!linha.containsKey(associacao) || linha.get(associacao) != null) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> aninhado = (Map<String, Object>) linha.computeIfAbsent(associacao, a -> new LinkedHashMap<>());
+                aninhado.put(chave.substring(ponto + 1), valores.get(i));
+            }
+        }
+        return linha;
+    }
+}
@@ -1,34 +1,144 @@
 package com.infnet.companyX.repository;
 
 import com.infnet.companyX.entity.Projeto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface ProjetoRepository extends JpaRepository<Projeto, Long> {
     
-    List<Projeto> findByStatus(Projeto.StatusProjeto status);
+    String AGREGADOS_FINANCEIROS = "COUNT(p) AS quantidade, SUM(p.orcamento) AS orcamentoTotal, "
+            + "SUM(p.custoAtual) AS custoTotal, COUNT(p.orcamento) AS comOrcamento, COUNT(p.custoAtual) AS comCusto, "
+            + "SUM(CASE WHEN p.custoAtual > p.orcamento THEN 1 ELSE 0 END) AS estourados";
     
-    List<Projeto> findByClienteId(Long clienteId);
+    @Override
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    Optional<Projeto> findById(Long id);
     
-    List<Projeto> findByGerenteId(Long gerenteId);
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    @Query("SELECT p FROM Projeto p WHERE p.nome LIKE %:nome%")
+    List<Projeto> findByNomeContaining(@Param("nome") String nome);
     
-    List<Projeto> findByAtivoTrue();
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    @Query("SELECT p FROM Projeto p WHERE p.status = 'EM_ANDAMENTO' AND p.dataFimPrevista < :hoje")
+    List<Projeto> findProjetosAtrasados(@Param("hoje") LocalDate hoje);
     
-    @Query("SELECT p FROM Projeto p WHERE p.nome LIKE %:nome% AND p.ativo = true")
-    List<Projeto> findByNomeContaining(@Param("nome") String nome);
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    List<Projeto> findByIdInOrderByIdAsc(Collection<Long> ids);
     
-    @Query("SELECT p FROM Projeto p WHERE p.dataFimPrevista BETWEEN :dataInicio AND :dataFim AND p.ativo = true")
-    List<Projeto> findByPrazoEntrega(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+    /**
+     * O JSON do projeto embute cliente e gerente, então o ETag depende das três versões.
+     */
+    @Query("SELECT p.versao AS projeto, c.versao AS cliente, g.versao AS gerente FROM Projeto p "
+            + "LEFT JOIN p.cliente c LEFT JOIN p.gerente g WHERE p.id = :id")
+    Optional<Versoes> findVersoesAtivasById(@Param("id") Long id);
     
-    @Query("SELECT p FROM Projeto p WHERE p.prioridade = :prioridade AND p.ativo = true ORDER BY p.dataFimPrevista ASC")
-    List<Projeto> findByPrioridade(@Param("prioridade") Integer prioridade);
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    List<Projeto> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
     
-    @Query("SELECT p FROM Projeto p WHERE p.status = 'EM_ANDAMENTO' AND p.dataFimPrevista < :hoje AND p.ativo = true")
-    List<Projeto> findProjetosAtrasados(@Param("hoje") LocalDate hoje);
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    List<Projeto> findByStatusAndIdGreaterThanOrderByIdAsc(Projeto.StatusProjeto status, Long after, Limit limit);
+    
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    List<Projeto> findByClienteIdAndIdGreaterThanOrderByIdAsc(Long clienteId, Long after, Limit limit);
+    
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    List<Projeto> findByGerenteIdAndIdGreaterThanOrderByIdAsc(Long gerenteId, Long after, Limit limit);
+    
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    @Query("SELECT p FROM Projeto p WHERE p.dataFimPrevista BETWEEN :dataInicio AND :dataFim AND p.id > :after ORDER BY p.id ASC")
+    List<Projeto> findByPrazoEntrega(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim, @Param("after") Long after, Limit limit);
+    
+    @EntityGraph(attributePaths = {"cliente", "gerente"})
+    @Query("SELECT p FROM Projeto p WHERE p.prioridade = :prioridade AND p.id > :after ORDER BY p.id ASC")
+    List<Projeto> findByPrioridade(@Param("prioridade") Integer prioridade, @Param("after") Long after, Limit limit);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Projeto p LEFT JOIN FETCH p.cliente LEFT JOIN FETCH p.gerente ORDER BY p.id ASC")
+    Stream<Projeto> streamAll();
+    
+    @Query("SELECT c.id AS id, c.nome AS nome, " + AGREGADOS_FINANCEIROS + " FROM Projeto p LEFT JOIN p.cliente c "
+            + "GROUP BY c.id, c.nome ORDER BY c.id")
+    List<AgregadoPorEntidade> agregarPorCliente();
+    
+    @Query("SELECT g.id AS id, g.nome AS nome, " + AGREGADOS_FINANCEIROS + " FROM Projeto p LEFT JOIN p.gerente g "
+            + "GROUP BY g.id, g.nome ORDER BY g.id")
+    List<AgregadoPorEntidade> agregarPorGerente();
+    
+    @Query("SELECT p.status AS status, " + AGREGADOS_FINANCEIROS + " FROM Projeto p "
+            + "GROUP BY p.status ORDER BY p.status")
+    List<AgregadoPorStatus> agregarPorStatus();
+    
+    @Query("SELECT YEAR(p.dataInicio) AS ano, MONTH(p.dataInicio) AS mes, " + AGREGADOS_FINANCEIROS + " FROM Projeto p "
+            + "GROUP BY YEAR(p.dataInicio), MONTH(p.dataInicio) "
+            + "ORDER BY YEAR(p.dataInicio), MONTH(p.dataInicio)")
+    List<AgregadoPorMes> agregarPorMesDeInicio();
+    
+    interface Versoes {
+        
+        Long getProjeto();
+        
+        Long getCliente();
+        
+        Long getGerente();
+    }
+    
+    interface AgregadoFinanceiro {
+        
+        Long getQuantidade();
+        
+        BigDecimal getOrcamentoTotal();
+        
+        BigDecimal getCustoTotal();
+        
+        /**
+         * Projetos com orçamento informado, o divisor da média de orçamento.
+         */
+        Long getComOrcamento();
+        
+        /**
+         * Projetos com custo informado, o divisor da média de custo.
+         */
+        Long getComCusto();
+        
+        Long getEstourados();
+    }
+    
+    interface AgregadoPorEntidade extends AgregadoFinanceiro {
+        
+        Long getId();
+        
+        String getNome();
+    }
+    
+    interface AgregadoPorStatus extends AgregadoFinanceiro {
+        
+        Projeto.StatusProjeto getStatus();
+    }
+    
+    interface AgregadoPorMes extends AgregadoFinanceiro {
+        
+        Integer getAno();
+        
+        Integer getMes();
+    }
 }
@@ -0,0 +1,92 @@
+package com.infnet.companyX.repository;
+
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.outbox.Outbox;
+import com.infnet.companyX.versao.VersaoColecoes;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Repository
+public class ReservaEstoque {
+
+    private static final String CAMPO = "quantidadeEstoque";
+
+    private static final List<String> CAMPOS = List.of(CAMPO);
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ApplicationEventPublisher publisher;
+
+    private final Outbox outbox;
+
+    private final VersaoColecoes versaoColecoes;
+
+    public ReservaEstoque(ProdutoRepository produtoRepository, ApplicationEventPublisher publisher, Outbox outbox,
+                          VersaoColecoes versaoColecoes) {
+        this.produtoRepository = produtoRepository;
+        this.publisher = publisher;
+        this.outbox = outbox;
+        this.versaoColecoes = versaoColecoes;
+    }
+
+    /**
+     * @return false se o produto não existe, está inativo ou não tem saldo suficiente
+     */
+    @Transactional
+    public boolean reservar(Long produtoId, int quantidade) {
+        Optional<ProdutoRepository.Saldo> saldo = produtoRepository.reservarEstoque(produtoId, quantidade);
+        saldo.ifPresent(gravado -> publicar(produtoId, gravado));
+        return saldo.isPresent();
+    }
+
+    /**
+     * @return false se o produto não existe ou está inativo
+     */
+    @Transactional
+    public boolean repor(Long produtoId, int quantidade) {
+        Optional<ProdutoRepository.Saldo> saldo = produtoRepository.reporEstoque(produtoId, quantidade);
+        saldo.ifPresent(gravado -> publicar(produtoId, gravado));
+        return saldo.isPresent();
+    }
+
+    /**
+     * Reserva todos os itens ou nenhum. Os UPDATEs seguem a ordem dos ids para que lotes
+     * concorrentes bloqueiem as linhas na mesma sequência e não entrem em deadlock; no
+     * primeiro item sem saldo a transação é marcada para rollback, desfazendo os anteriores.
+     *
+     * @return o produto que impediu a reserva, ou vazio se todos foram reservados
+     */
+    @Transactional
+    public Optional<Long> reservarLote(Map<Long, Integer> itens) {
+        Map<Long, ProdutoRepository.Saldo> gravados = new TreeMap<>();
+        for (Map.Entry<Long, Integer> item : new TreeMap<>(itens).entrySet()) {
+            Optional<ProdutoRepository.Saldo> saldo = produtoRepository.reservarEstoque(item.getKey(), item.getValue());
+            if (saldo.isEmpty()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return Optional.of(item.getKey());
+            }
+            gravados.put(item.getKey(), saldo.get());
+        }
+        gravados.forEach(this::publicar);
+        return Optional.empty();
+    }
+
+    /**
+     * O outbox e o evento saem do saldo e da versão devolvidos pelo UPDATE, sem reler o
+     * produto enquanto a linha continua bloqueada.
+     */
+    private void publicar(Long produtoId, ProdutoRepository.Saldo saldo) {
+        outbox.registrar(Produto.class, produtoId, saldo.getVersao(), CAMPOS);
+        versaoColecoes.registrar(Produto.class);
+        publisher.publishEvent(EntidadeAlteradaEvent.deValores(Produto.class, produtoId, saldo.getVersao(),
+                Map.of(CAMPO, saldo.getQuantidadeEstoque())));
+    }
+}
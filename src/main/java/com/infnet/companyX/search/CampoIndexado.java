@@ -0,0 +1,44 @@
+package com.infnet.companyX.search;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.entity.Fornecedor;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.entity.Projeto;
+
+import java.util.function.Function;
+
+public enum CampoIndexado {
+
+    CLIENTE_NOME(Cliente.class, "nome", e -> ((Cliente) e).getNome()),
+    FORNECEDOR_NOME(Fornecedor.class, "nome", e -> ((Fornecedor) e).getNome()),
+    FORNECEDOR_RAZAO_SOCIAL(Fornecedor.class, "razaoSocial", e -> ((Fornecedor) e).getRazaoSocial()),
+    FUNCIONARIO_NOME(Funcionario.class, "nome", e -> ((Funcionario) e).getNome()),
+    PRODUTO_NOME(Produto.class, "nome", e -> ((Produto) e).getNome()),
+    PROJETO_NOME(Projeto.class, "nome", e -> ((Projeto) e).getNome());
+
+    private final Class<? extends Entidade> tipo;
+
+    private final String atributo;
+
+    private final Function<Entidade, String> extrator;
+
+    CampoIndexado(Class<? extends Entidade> tipo, String atributo, Function<Entidade, String> extrator) {
+        this.tipo = tipo;
+        this.atributo = atributo;
+        this.extrator = extrator;
+    }
+
+    public Class<? extends Entidade> getTipo() {
+        return tipo;
+    }
+
+    public String getAtributo() {
+        return atributo;
+    }
+
+    public String valor(Entidade entidade) {
+        return extrator.apply(entidade);
+    }
+}
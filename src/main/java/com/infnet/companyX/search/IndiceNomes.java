@@ -0,0 +1,132 @@
+package com.infnet.companyX.search;
+
+import com.infnet.companyX.event.AtivacaoEmLoteEvent;
+import com.infnet.companyX.event.EntidadeAlteradaEvent;
+import com.infnet.companyX.event.PosCommit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class IndiceNomes implements SmartInitializingSingleton {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<CampoIndexado, IndiceTrigrama> indices = new EnumMap<>(CampoIndexado.class);
+
+    /**
+     * A transação da carga não é somente leitura para que, com réplicas, o índice seja
+     * sempre carregado do primário.
+     */
+    public IndiceNomes(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (CampoIndexado campo : CampoIndexado.values()) {
+            indices.put(campo, new IndiceTrigrama());
+        }
+    }
+
+    /**
+     * Carrega apenas id e texto das linhas ativas antes de o servidor web começar a atender.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (CampoIndexado campo : CampoIndexado.values()) {
+            carregar(campo);
+        }
+    }
+
+    public List<Long> buscar(CampoIndexado campo, String termo, int limite) {
+        return indices.get(campo).buscar(termo, limite);
+    }
+
+    /**
+     * Chamado depois do commit, na thread que o fez, que já tem o valor em memória. Um
+     * UPDATE direto que não grava o atributo indexado não altera o índice, e o que grava
+     * traz o valor novo no evento; os eventos do ciclo de vida, sem campos, sempre podem
+     * alterar.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(EntidadeAlteradaEvent evento) {
+        for (CampoIndexado campo : CampoIndexado.values()) {
+            if (campo.getTipo() != evento.tipo()
+                    || !evento.campos().isEmpty() && !evento.campos().contains(campo.getAtributo())) {
+                continue;
+            }
+            Long id = evento.id();
+            String valor;
+            if (evento.operacao() == EntidadeAlteradaEvent.Operacao.EXCLUSAO) {
+                valor = null;
+            } else if (evento.entidade() == null) {
+                valor = (String) evento.valores().get(campo.getAtributo());
+            } else {
+                valor = Boolean.TRUE.equals(evento.entidade().getAtivo()) ? campo.valor(evento.entidade()) : null;
+            }
+            atualizar(campo, id, valor);
+        }
+    }
+
+    /**
+     * Desativados saem do índice sem consulta; dos reativados só o id e o texto são lidos,
+     * antes do commit e na transação de quem reativou, com um {@code IN} por lote, e
+     * indexados depois dele.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void atualizar(AtivacaoEmLoteEvent evento) {
+        for (CampoIndexado campo : CampoIndexado.values()) {
+            if (campo.getTipo() != evento.tipo()) {
+                continue;
+            }
+            IndiceTrigrama indice = indices.get(campo);
+            if (!evento.ativo()) {
+                List<Long> ids = List.copyOf(evento.ids());
+                PosCommit.executar(() -> ids.forEach(indice::remover));
+                continue;
+            }
+            String jpql = "SELECT e.id, e." + campo.getAtributo() + " FROM " + campo.getTipo().getSimpleName()
+                    + " e WHERE e.id IN :ids";
+            for (List<Long> lote : evento.lotes()) {
+                List<Object[]> linhas = entityManager.createQuery(jpql, Object[].class)
+                        .setParameter("ids", lote)
+                        .getResultList();
+                PosCommit.executar(() -> linhas.forEach(linha -> indice.indexar((Long) linha[0], (String) linha[1])));
+            }
+        }
+    }
+
+    private void atualizar(CampoIndexado campo, Long id, String valor) {
+        IndiceTrigrama indice = indices.get(campo);
+        if (valor == null) {
+            indice.remover(id);
+        } else {
+            indice.indexar(id, valor);
+        }
+    }
+
+    private void carregar(CampoIndexado campo) {
+        IndiceTrigrama indice = indices.get(campo);
+        String jpql = "SELECT e.id, e." + campo.getAtributo() + " FROM " + campo.getTipo().getSimpleName()
+                + " e";
+        transactionTemplate.executeWithoutResult(status -> {
+            indice.limpar();
+            try (Stream<Object[]> linhas = entityManager.createQuery(jpql, Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                    .getResultStream()) {
+                linhas.forEach(linha -> indice.indexar((Long) linha[0], (String) linha[1]));
+            }
+        });
+    }
+}
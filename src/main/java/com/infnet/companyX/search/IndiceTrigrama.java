@@ -0,0 +1,154 @@
+package com.infnet.companyX.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para busca por substring. Os textos são normalizados (minúsculas,
+ * sem acentos); cada trigrama aponta para os ids que o contêm, em ordem, e a busca percorre a
+ * menor lista do termo, confirmando cada id nas demais e com {@link String#contains}, até
+ * juntar o limite. Termos mais curtos que um trigrama não são aceitos.
+ */
+public class IndiceTrigrama {
+
+    public static final int TAMANHO_MINIMO = 3;
+
+    private final Map<Long, String> textos = new HashMap<>();
+
+    private final Map<String, NavigableSet<Long>> ocorrencias = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void indexar(Long id, String texto) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+            if (texto == null) {
+                return;
+            }
+            String normalizado = normalizar(texto);
+            textos.put(id, normalizado);
+            for (String trigrama : trigramas(normalizado)) {
+                ocorrencias.computeIfAbsent(trigrama, t -> new TreeSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            desindexar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            textos.clear();
+            ocorrencias.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Se o termo, normalizado, tem ao menos um trigrama; um mais curto exigiria percorrer
+     * todos os textos.
+     */
+    public static boolean aceita(String termo) {
+        return normalizar(termo).length() >= TAMANHO_MINIMO;
+    }
+
+    /**
+     * Retorna os ids cujo texto contém o termo, em ordem crescente. Como a lista percorrida
+     * já está em ordem, para no {@code limite}-ésimo encontrado.
+     *
+     * @throws IllegalArgumentException se o termo não é {@linkplain #aceita aceito}
+     */
+    public List<Long> buscar(String termo, int limite) {
+        String normalizado = normalizar(termo);
+        if (normalizado.length() < TAMANHO_MINIMO) {
+            throw new IllegalArgumentException("Termo com menos de " + TAMANHO_MINIMO + " caracteres: " + termo);
+        }
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> listas = new ArrayList<>();
+            for (String trigrama : trigramas(normalizado)) {
+                NavigableSet<Long> ids = ocorrencias.get(trigrama);
+                if (ids == null) {
+                    return List.of();
+                }
+                listas.add(ids);
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+
+            List<NavigableSet<Long>> restantes = listas.subList(1, listas.size());
+            List<Long> encontrados = new ArrayList<>(Math.min(limite, listas.get(0).size()));
+            for (Long id : listas.get(0)) {
+                if (restantes.stream().allMatch(ids -> ids.contains(id)) && textos.get(id).contains(normalizado)) {
+                    encontrados.add(id);
+                    if (encontrados.size() == limite) {
+                        break;
+                    }
+                }
+            }
+            return encontrados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void desindexar(Long id) {
+        String anterior = textos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String trigrama : trigramas(anterior)) {
+            NavigableSet<Long> ids = ocorrencias.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    ocorrencias.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    static String normalizar(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+}
@@ -0,0 +1,20 @@
+package com.infnet.companyX.versao;
+
+import com.infnet.companyX.entity.Entidade;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tipo cuja versão de coleção vale para as listagens do controller cujo corpo não é
+ * declarado como lista da entidade (por exemplo, as que também respondem ao parâmetro
+ * {@code fields}).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Colecao {
+
+    Class<? extends Entidade> value();
+}
@@ -0,0 +1,34 @@
+package com.infnet.companyX.versao;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * ETag forte a partir das versões que compõem a representação; um relacionamento
+     * ausente ({@code null}) entra como "-" para não colidir com a versão 0.
+     */
+    public static String deVersoes(Long... versoes) {
+        return Arrays.stream(versoes)
+                .map(versao -> versao == null ? "-" : versao.toString())
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    /**
+     * Comparação forte do If-Match: ETags fracos (W/) nunca conferem e "*" confere com
+     * qualquer versão existente.
+     */
+    public static boolean confere(String ifMatch, String etag) {
+        for (String candidato : ifMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.infnet.companyX.versao;
+
+/**
+ * Implementada por quem serve uma listagem que muda sem evento de entidade, como a virada
+ * do dia nos projetos atrasados. É chamada antes de o ETag da coleção ser calculado e
+ * deve invalidar a versão se a listagem já mudou, para que um If-None-Match antigo não
+ * receba 304.
+ */
+public interface VerificacaoColecao {
+
+    void verificar(Class<?> tipo);
+}
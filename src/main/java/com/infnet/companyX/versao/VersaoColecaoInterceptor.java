@@ -0,0 +1,75 @@
+package com.infnet.companyX.versao;
+
+import com.infnet.companyX.entity.Entidade;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responde GETs de listagem ({@code ResponseEntity<List<Entidade>>}, ou de lista de outro
+ * tipo num controller anotado com {@link Colecao}) com o ETag da coleção e, se o
+ * If-None-Match bater, devolve 304 antes de o controller rodar a consulta da listagem. As
+ * {@link VerificacaoColecao} rodam antes, para que a versão já reflita mudanças que não
+ * vêm de eventos.
+ */
+@Component
+public class VersaoColecaoInterceptor implements HandlerInterceptor {
+
+    private final VersaoColecoes versaoColecoes;
+
+    private final List<VerificacaoColecao> verificacoes;
+
+    private final Map<Method, Optional<Class<?>>> tiposPorMetodo = new ConcurrentHashMap<>();
+
+    public VersaoColecaoInterceptor(VersaoColecoes versaoColecoes, List<VerificacaoColecao> verificacoes) {
+        this.versaoColecoes = versaoColecoes;
+        this.verificacoes = verificacoes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || !(handler instanceof HandlerMethod metodo)) {
+            return true;
+        }
+        Optional<Class<?>> tipo = tipoDaColecao(metodo);
+        if (tipo.isEmpty()) {
+            return true;
+        }
+        verificacoes.forEach(verificacao -> verificacao.verificar(tipo.get()));
+        return !new ServletWebRequest(request, response).checkNotModified(versaoColecoes.etag(tipo.get()));
+    }
+
+    /**
+     * Tipo cuja versão de coleção responde pelo ETag do handler, ou vazio se ele não é uma
+     * listagem.
+     */
+    public Optional<Class<?>> tipoDaColecao(HandlerMethod metodo) {
+        return tiposPorMetodo.computeIfAbsent(metodo.getMethod(), chave -> tipoDaLista(metodo));
+    }
+
+    private static Optional<Class<?>> tipoDaLista(HandlerMethod metodo) {
+        ResolvableType retorno = ResolvableType.forMethodReturnType(metodo.getMethod());
+        if (!ResponseEntity.class.equals(retorno.resolve()) || !List.class.equals(retorno.getGeneric(0).resolve())) {
+            return Optional.empty();
+        }
+        Class<?> elemento = retorno.getGeneric(0).getGeneric(0).resolve();
+        if (elemento != null && Entidade.class.isAssignableFrom(elemento)) {
+            return Optional.of(elemento);
+        }
+        Colecao colecao = AnnotatedElementUtils.findMergedAnnotation(metodo.getBeanType(), Colecao.class);
+        return colecao != null ? Optional.of(colecao.value()) : Optional.empty();
+    }
+}
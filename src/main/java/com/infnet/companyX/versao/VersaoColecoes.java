@@ -0,0 +1,223 @@
+package com.infnet.companyX.versao;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Entidade;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Projeto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Versão de coleção por tipo de entidade, derivada da tabela {@code alteracoes_colecoes}:
+ * a transação de qualquer inclusão, alteração ou exclusão insere, antes do commit, uma
+ * linha de peso 1 para cada tipo alcançado, e a versão é a soma dos pesos do tipo. As
+ * escritas pelo ciclo de vida do Hibernate são vistas pelos listeners de pós-inclusão,
+ * pós-alteração e pós-exclusão; os UPDATEs diretos chamam {@link #registrar(Class)}.
+ * Nenhuma escrita atualiza uma linha compartilhada, então escritas concorrentes do mesmo
+ * tipo não esperam umas pelas outras; e a soma muda a cada commit, em qualquer ordem, ao
+ * contrário de um máximo de sequência, que não mudaria com o commit tardio de um valor
+ * menor. Como a versão vive no banco, e não em cada processo, duas instâncias atrás de um
+ * balanceador dão o mesmo ETag para o mesmo estado. Escritas feitas por fora da aplicação
+ * precisam inserir a sua linha também.
+ */
+@Component
+public class VersaoColecoes implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String REGISTRAR = "INSERT INTO alteracoes_colecoes (entidade, peso) VALUES (?, 1)";
+
+    /**
+     * O JSON de projeto embute cliente e gerente, então as listagens de projetos também
+     * mudam quando eles mudam.
+     */
+    private static final Map<Class<?>, List<Class<?>>> DEPENDENCIAS = Map.of(
+            Projeto.class, List.of(Cliente.class, Funcionario.class));
+
+    private static final int LOTE_COMPACTACAO = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<EventSource, Pendentes> pendentesPorSessao = new ConcurrentHashMap<>();
+
+    /**
+     * O ETag é lido antes do handler, fora de qualquer transação: pelo JdbcTemplate, a
+     * leitura usa uma conexão só pelo tempo da consulta, sem abrir transação nem sessão
+     * JPA, e fora de transação somente leitura vai ao primário mesmo com réplicas.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public VersaoColecoes(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, this);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+        registro.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Registra uma alteração de {@code tipo} feita por UPDATE direto, que não passa pelo
+     * ciclo de vida; deve rodar na transação do UPDATE.
+     */
+    public void registrar(Class<? extends Entidade> tipo) {
+        pendentes(entityManager.unwrap(EventSource.class)).entidades.add(tipo.getSimpleName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent evento) {
+        registrar(evento.getSession(), evento.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent evento) {
+        registrar(evento.getSession(), evento.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent evento) {
+        registrar(evento.getSession(), evento.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void registrar(EventSource sessao, EntityPersister persister) {
+        if (Entidade.class.isAssignableFrom(persister.getMappedClass())) {
+            pendentes(sessao).entidades.add(persister.getMappedClass().getSimpleName());
+        }
+    }
+
+    private Pendentes pendentes(EventSource sessao) {
+        return pendentesPorSessao.computeIfAbsent(sessao, s -> {
+            Pendentes pendentes = new Pendentes();
+            s.getActionQueue().registerProcess(pendentes);
+            s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (sucesso, sessaoFechada) -> pendentesPorSessao.remove(s));
+            return pendentes;
+        });
+    }
+
+    /**
+     * Para mudanças na listagem que não passam por uma entidade, como a virada do dia nos
+     * projetos atrasados.
+     */
+    public void invalidar(Class<?> tipo) {
+        jdbcTemplate.update(REGISTRAR, tipo.getSimpleName());
+    }
+
+    /**
+     * Uma consulta que soma só o índice por entidade, que substitui a da listagem quando o
+     * cliente já tem a versão atual.
+     */
+    public String etag(Class<?> tipo) {
+        List<Class<?>> tipos = new ArrayList<>();
+        tipos.add(tipo);
+        tipos.addAll(DEPENDENCIAS.getOrDefault(tipo, List.of()));
+        Map<String, Long> versoes = new HashMap<>();
+        jdbcTemplate.query("SELECT entidade, SUM(peso) FROM alteracoes_colecoes WHERE entidade IN ("
+                        + String.join(", ", Collections.nCopies(tipos.size(), "?")) + ") GROUP BY entidade",
+                linha -> {
+                    versoes.put(linha.getString(1), linha.getLong(2));
+                },
+                tipos.stream().map(Class::getSimpleName).toArray());
+        return Etags.deVersoes(tipos.stream().map(t -> versoes.get(t.getSimpleName())).toArray(Long[]::new));
+    }
+
+    /**
+     * Troca as linhas de cada tipo por uma só, com a soma delas, para que a soma do ETag
+     * percorra poucas linhas. As linhas lidas ficam bloqueadas e são apagadas por id: uma
+     * transação que ainda não confirmou a sua fica de fora e entra na próxima rodada. Se
+     * outra instância compactou as mesmas linhas antes, nem todas são apagadas e a rodada
+     * é desfeita, para não somar duas vezes.
+     */
+    @Scheduled(fixedDelayString = "${companyx.colecoes.compactacao:1m}")
+    public void compactar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            @SuppressWarnings("unchecked")
+            List<Object[]> linhas = entityManager.createNativeQuery(
+                            "SELECT id, entidade, peso FROM alteracoes_colecoes ORDER BY id "
+                                    + "FETCH FIRST " + LOTE_COMPACTACAO + " ROWS ONLY FOR UPDATE")
+                    .getResultList();
+            Map<String, List<Object[]>> porEntidade = linhas.stream()
+                    .collect(Collectors.groupingBy(linha -> (String) linha[1]));
+            porEntidade.forEach((entidade, doTipo) -> {
+                if (doTipo.size() < 2) {
+                    return;
+                }
+                int apagadas = entityManager.createNativeQuery("DELETE FROM alteracoes_colecoes WHERE id IN (:ids)")
+                        .setParameter("ids", doTipo.stream().map(linha -> ((Number) linha[0]).longValue()).toList())
+                        .executeUpdate();
+                if (apagadas != doTipo.size()) {
+                    status.setRollbackOnly();
+                    return;
+                }
+                entityManager.createNativeQuery("INSERT INTO alteracoes_colecoes (entidade, peso) VALUES (:entidade, :peso)")
+                        .setParameter("entidade", entidade)
+                        .setParameter("peso", doTipo.stream().mapToLong(linha -> ((Number) linha[2]).longValue()).sum())
+                        .executeUpdate();
+            });
+        });
+    }
+
+    /**
+     * Roda depois do flush final da transação, então já viu todas as alterações dela.
+     */
+    private final class Pendentes implements BeforeTransactionCompletionProcess {
+
+        private final Set<String> entidades = new TreeSet<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor sessao) {
+            pendentesPorSessao.remove(sessao);
+            if (entidades.isEmpty()) {
+                return;
+            }
+            sessao.doWork(conexao -> {
+                try (PreparedStatement insert = conexao.prepareStatement(REGISTRAR)) {
+                    for (String entidade : entidades) {
+                        insert.setString(1, entidade);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.infnet.companyX.versao;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class VersaoConfig implements WebMvcConfigurer {
+
+    private final VersaoColecaoInterceptor versaoColecaoInterceptor;
+
+    public VersaoConfig(VersaoColecaoInterceptor versaoColecaoInterceptor) {
+        this.versaoColecaoInterceptor = versaoColecaoInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(versaoColecaoInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,63 @@
+package com.infnet.companyX.virtual;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições da API em andamento ao tamanho do pool de conexões. Com threads
+ * virtuais não há teto de threads no Tomcat, e a espera por conexão ficaria no Hikari, cuja
+ * devolução tenta entregar a conexão a quem espera girando em {@code Thread.yield()}: com
+ * poucos núcleos, as threads que devolvem ocupam os carriers e a que espera não roda, nem
+ * para estourar o {@code connection-timeout}. No semáforo a espera é um park comum.
+ * <p>
+ * A licença só é devolvida depois do filtro, quando a requisição já devolveu a conexão;
+ * por isso a próxima requisição do mesmo cliente não chega ao pool antes de a anterior
+ * sair dele. Uma requisição usa no máximo uma conexão por vez (o trabalho pós-commit que
+ * lê o banco roda antes do commit, na mesma transação, ou nas filas próprias), então uma
+ * licença por conexão basta. Quem não consegue licença no prazo recebe 503.
+ */
+public class LimiteConexoesFilter extends OncePerRequestFilter {
+
+    private final Semaphore licencas;
+
+    private final Duration espera;
+
+    public LimiteConexoesFilter(int licencas, Duration espera) {
+        this.licencas = new Semaphore(licencas, true);
+        this.espera = espera;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            if (!licencas.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            licencas.release();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.infnet.companyX.virtual;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Só entra em vigor com {@code spring.threads.virtual.enabled=true} (perfil {@code virtual}).
+ * Com threads de plataforma o limite de threads do Tomcat já cumpre o papel do filtro.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadsVirtuaisConfig {
+
+    /**
+     * O padrão é o tamanho do pool do Hikari, esperando no máximo o
+     * {@code connection-timeout} dele.
+     */
+    @Bean
+    public LimiteConexoesFilter limiteConexoesFilter(
+            @Value("${companyx.virtual.requisicoes-simultaneas:${spring.datasource.hikari.maximum-pool-size:10}}") int licencas,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long esperaMillis) {
+        return new LimiteConexoesFilter(licencas, Duration.ofMillis(esperaMillis));
+    }
+}
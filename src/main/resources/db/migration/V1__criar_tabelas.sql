@@ -0,0 +1,97 @@
+CREATE SEQUENCE clientes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE fornecedores_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE funcionarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE produtos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE projetos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE clientes (
+    id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    telefone VARCHAR(255),
+    cpf VARCHAR(255),
+    cnpj VARCHAR(255),
+    tipo_pessoa ENUM ('FISICA', 'JURIDICA') NOT NULL,
+    endereco VARCHAR(255),
+    cidade VARCHAR(255),
+    estado VARCHAR(255),
+    cep VARCHAR(255),
+    data_nascimento DATE,
+    data_cadastro TIMESTAMP(6),
+    ativo BOOLEAN DEFAULT TRUE NOT NULL,
+    CONSTRAINT pk_clientes PRIMARY KEY (id),
+    CONSTRAINT uk_clientes_email UNIQUE (email),
+    CONSTRAINT uk_clientes_cpf UNIQUE (cpf),
+    CONSTRAINT uk_clientes_cnpj UNIQUE (cnpj)
+);
+
+CREATE TABLE fornecedores (
+    id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    razao_social VARCHAR(255),
+    cnpj VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    telefone VARCHAR(255),
+    endereco VARCHAR(255),
+    cidade VARCHAR(255),
+    estado VARCHAR(255),
+    cep VARCHAR(255),
+    pessoa_contato VARCHAR(255),
+    telefone_contato VARCHAR(255),
+    data_cadastro TIMESTAMP(6),
+    ativo BOOLEAN DEFAULT TRUE NOT NULL,
+    CONSTRAINT pk_fornecedores PRIMARY KEY (id),
+    CONSTRAINT uk_fornecedores_cnpj UNIQUE (cnpj)
+);
+
+CREATE TABLE funcionarios (
+    id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    cargo VARCHAR(255) NOT NULL,
+    departamento VARCHAR(255) NOT NULL,
+    salario NUMERIC(10, 2),
+    data_admissao DATE,
+    telefone VARCHAR(255),
+    cpf VARCHAR(255),
+    ativo BOOLEAN DEFAULT TRUE NOT NULL,
+    CONSTRAINT pk_funcionarios PRIMARY KEY (id),
+    CONSTRAINT uk_funcionarios_email UNIQUE (email),
+    CONSTRAINT uk_funcionarios_cpf UNIQUE (cpf)
+);
+
+CREATE TABLE produtos (
+    id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    descricao TEXT,
+    codigo VARCHAR(255) NOT NULL,
+    preco NUMERIC(10, 2) NOT NULL,
+    quantidade_estoque INTEGER,
+    categoria VARCHAR(255),
+    marca VARCHAR(255),
+    peso_kg NUMERIC(8, 3),
+    data_criacao TIMESTAMP(6),
+    ativo BOOLEAN DEFAULT TRUE NOT NULL,
+    CONSTRAINT pk_produtos PRIMARY KEY (id),
+    CONSTRAINT uk_produtos_codigo UNIQUE (codigo)
+);
+
+CREATE TABLE projetos (
+    id BIGINT NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    descricao TEXT,
+    cliente_id BIGINT,
+    gerente_id BIGINT,
+    status ENUM ('PLANEJAMENTO', 'EM_ANDAMENTO', 'PAUSADO', 'CONCLUIDO', 'CANCELADO'),
+    data_inicio DATE,
+    data_fim_prevista DATE,
+    data_fim_real DATE,
+    orcamento NUMERIC(12, 2),
+    custo_atual NUMERIC(12, 2),
+    prioridade INTEGER,
+    data_criacao TIMESTAMP(6),
+    ativo BOOLEAN DEFAULT TRUE NOT NULL,
+    CONSTRAINT pk_projetos PRIMARY KEY (id),
+    CONSTRAINT fk_projetos_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id),
+    CONSTRAINT fk_projetos_gerente FOREIGN KEY (gerente_id) REFERENCES funcionarios (id)
+);
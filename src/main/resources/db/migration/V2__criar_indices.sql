@@ -0,0 +1,31 @@
+-- Listagens paginadas: WHERE ativo = TRUE AND id > :after ORDER BY id
+CREATE INDEX idx_clientes_ativo_id ON clientes (ativo, id);
+CREATE INDEX idx_fornecedores_ativo_id ON fornecedores (ativo, id);
+CREATE INDEX idx_funcionarios_ativo_id ON funcionarios (ativo, id);
+CREATE INDEX idx_produtos_ativo_id ON produtos (ativo, id);
+CREATE INDEX idx_projetos_ativo_id ON projetos (ativo, id);
+
+-- Filtros por igualdade, paginados por id
+CREATE INDEX idx_clientes_tipo_pessoa_id ON clientes (tipo_pessoa, id);
+CREATE INDEX idx_clientes_cidade_id ON clientes (cidade, id);
+CREATE INDEX idx_clientes_estado_id ON clientes (estado, id);
+
+CREATE INDEX idx_fornecedores_cidade_id ON fornecedores (cidade, id);
+CREATE INDEX idx_fornecedores_estado_id ON fornecedores (estado, id);
+
+CREATE INDEX idx_funcionarios_departamento_id ON funcionarios (departamento, id);
+CREATE INDEX idx_funcionarios_cargo_id ON funcionarios (cargo, id);
+
+CREATE INDEX idx_produtos_categoria_id ON produtos (categoria, id);
+CREATE INDEX idx_produtos_marca_id ON produtos (marca, id);
+
+CREATE INDEX idx_projetos_status_id ON projetos (status, id);
+CREATE INDEX idx_projetos_cliente_id_id ON projetos (cliente_id, id);
+CREATE INDEX idx_projetos_gerente_id_id ON projetos (gerente_id, id);
+CREATE INDEX idx_projetos_prioridade_ativo_id ON projetos (prioridade, ativo, id);
+
+-- Faixas: findByPrecoRange, findEstoqueBaixo, findByPrazoEntrega, findProjetosAtrasados
+CREATE INDEX idx_produtos_ativo_preco ON produtos (ativo, preco);
+CREATE INDEX idx_produtos_ativo_quantidade_estoque ON produtos (ativo, quantidade_estoque);
+CREATE INDEX idx_projetos_ativo_data_fim_prevista ON projetos (ativo, data_fim_prevista);
+CREATE INDEX idx_projetos_ativo_status_data_fim_prevista ON projetos (ativo, status, data_fim_prevista);
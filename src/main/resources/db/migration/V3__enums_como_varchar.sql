@@ -0,0 +1,8 @@
+-- ENUM é específico do H2/MySQL e o driver R2DBC do H2 não consegue gravar nele;
+-- VARCHAR com CHECK mantém a mesma restrição de valores de forma portável.
+ALTER TABLE clientes ALTER COLUMN tipo_pessoa SET DATA TYPE VARCHAR(20);
+ALTER TABLE clientes ADD CONSTRAINT ck_clientes_tipo_pessoa CHECK (tipo_pessoa IN ('FISICA', 'JURIDICA'));
+
+ALTER TABLE projetos ALTER COLUMN status SET DATA TYPE VARCHAR(20);
+ALTER TABLE projetos ADD CONSTRAINT ck_projetos_status
+    CHECK (status IN ('PLANEJAMENTO', 'EM_ANDAMENTO', 'PAUSADO', 'CONCLUIDO', 'CANCELADO'));
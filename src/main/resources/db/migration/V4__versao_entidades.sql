@@ -0,0 +1,6 @@
+-- Versão para o bloqueio otimista do JPA e para os ETags das respostas.
+ALTER TABLE clientes ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE fornecedores ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE funcionarios ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE produtos ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE projetos ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
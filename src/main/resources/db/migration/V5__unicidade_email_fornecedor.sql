@@ -0,0 +1,3 @@
+-- A unicidade do e-mail do fornecedor era garantida só por consulta antes do INSERT;
+-- com a restrição no banco a checagem deixa de ser sujeita a corrida.
+ALTER TABLE fornecedores ADD CONSTRAINT uk_fornecedores_email UNIQUE (email);
@@ -0,0 +1,31 @@
+-- As entidades têm @SQLRestriction("ativo = true"), então todo filtro por igualdade
+-- chega ao banco como WHERE <coluna> = ? AND ativo = TRUE AND id > ? ORDER BY id.
+-- O H2 não tem índice parcial; em PostgreSQL estes seriam (<coluna>, id) WHERE ativo.
+DROP INDEX idx_clientes_tipo_pessoa_id;
+DROP INDEX idx_clientes_cidade_id;
+DROP INDEX idx_clientes_estado_id;
+CREATE INDEX idx_clientes_tipo_pessoa_ativo_id ON clientes (tipo_pessoa, ativo, id);
+CREATE INDEX idx_clientes_cidade_ativo_id ON clientes (cidade, ativo, id);
+CREATE INDEX idx_clientes_estado_ativo_id ON clientes (estado, ativo, id);
+
+DROP INDEX idx_fornecedores_cidade_id;
+DROP INDEX idx_fornecedores_estado_id;
+CREATE INDEX idx_fornecedores_cidade_ativo_id ON fornecedores (cidade, ativo, id);
+CREATE INDEX idx_fornecedores_estado_ativo_id ON fornecedores (estado, ativo, id);
+
+DROP INDEX idx_funcionarios_departamento_id;
+DROP INDEX idx_funcionarios_cargo_id;
+CREATE INDEX idx_funcionarios_departamento_ativo_id ON funcionarios (departamento, ativo, id);
+CREATE INDEX idx_funcionarios_cargo_ativo_id ON funcionarios (cargo, ativo, id);
+
+DROP INDEX idx_produtos_categoria_id;
+DROP INDEX idx_produtos_marca_id;
+CREATE INDEX idx_produtos_categoria_ativo_id ON produtos (categoria, ativo, id);
+CREATE INDEX idx_produtos_marca_ativo_id ON produtos (marca, ativo, id);
+
+DROP INDEX idx_projetos_status_id;
+DROP INDEX idx_projetos_cliente_id_id;
+DROP INDEX idx_projetos_gerente_id_id;
+CREATE INDEX idx_projetos_status_ativo_id ON projetos (status, ativo, id);
+CREATE INDEX idx_projetos_cliente_id_ativo_id ON projetos (cliente_id, ativo, id);
+CREATE INDEX idx_projetos_gerente_id_ativo_id ON projetos (gerente_id, ativo, id);
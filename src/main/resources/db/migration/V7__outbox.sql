@@ -0,0 +1,12 @@
+-- Alterações gravadas na mesma transação que as causou; o relay as publica em lotes,
+-- em ordem de id, e apaga as publicadas.
+CREATE TABLE outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    entidade VARCHAR(64) NOT NULL,
+    entidade_id BIGINT NOT NULL,
+    versao BIGINT,
+    operacao VARCHAR(16) NOT NULL,
+    campos VARCHAR(4000),
+    ocorrido_em TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_outbox PRIMARY KEY (id)
+);
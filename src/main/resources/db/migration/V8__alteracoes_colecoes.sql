@@ -0,0 +1,19 @@
+-- Versão de coleção por entidade, para que todas as instâncias da aplicação derivem do
+-- banco o mesmo ETag de listagem. Cada transação que escreve insere a sua linha, com
+-- peso 1, e a versão é a soma dos pesos do tipo: nenhuma escrita atualiza uma linha
+-- compartilhada, e a soma só cresce, em qualquer ordem de commit. A compactação troca as
+-- linhas antigas de um tipo por uma com a soma delas.
+CREATE TABLE alteracoes_colecoes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    entidade VARCHAR(64) NOT NULL,
+    peso BIGINT NOT NULL,
+    CONSTRAINT pk_alteracoes_colecoes PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_alteracoes_colecoes_entidade_peso ON alteracoes_colecoes (entidade, peso);
+
+-- O peso inicial é o instante da migração, em milissegundos: um banco recriado não volta
+-- a produzir as versões, e os ETags, de um banco anterior.
+INSERT INTO alteracoes_colecoes (entidade, peso)
+SELECT entidade, CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT)
+FROM (VALUES ('Cliente'), ('Fornecedor'), ('Funcionario'), ('Produto'), ('Projeto')) AS tipos (entidade);
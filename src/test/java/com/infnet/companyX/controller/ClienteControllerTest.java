@@ -2,7 +2,9 @@ package com.infnet.companyX.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.repository.AtualizacaoParcial;
 import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.versao.VersaoColecoes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,14 +12,26 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +51,18 @@ class ClienteControllerTest {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private AtualizacaoParcial atualizacaoParcial;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VersaoColecoes versaoColecoes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Cliente clientePessoaFisica;
     private Cliente clientePessoaJuridica;
 
@@ -81,6 +107,46 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    void deveListarClientesPaginadosPorCursor() throws Exception {
+        Cliente primeiro = clienteRepository.save(clientePessoaFisica);
+        Cliente segundo = clienteRepository.save(clientePessoaJuridica);
+
+        mockMvc.perform(get("/api/clientes").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(primeiro.getId())))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Ana Maria Costa")));
+
+        mockMvc.perform(get("/api/clientes")
+                        .param("after", String.valueOf(primeiro.getId()))
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(segundo.getId().intValue())));
+    }
+
+    @Test
+    void deveExportarClientesAtivosEmNdjson() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+        clientePessoaJuridica.setAtivo(false);
+        clienteRepository.save(clientePessoaJuridica);
+
+        MvcResult resultado = mockMvc.perform(get("/api/clientes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] linhas = corpo.split("\n");
+        assert linhas.length == 1;
+        assert objectMapper.readValue(linhas[0], Cliente.class).getEmail().equals("ana@email.com");
+    }
+
     @Test
     void deveBuscarClientePorId() throws Exception {
         Cliente salvo = clienteRepository.save(clientePessoaFisica);
@@ -102,6 +168,126 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$.nome", is("Ana Maria Costa")));
     }
 
+    @Test
+    void deveRegistrarLatenciaPorHandlerEPorRepositorio() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+
+        mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes/{id}", 999999L))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")
+                        .param("tag", "handler:ClienteController.listarTodos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value", contains(1.0)));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")
+                        .param("tag", "handler:ClienteController.buscarPorId")
+                        .param("tag", "outcome:CLIENT_ERROR"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests.percentile")
+                        .param("tag", "handler:ClienteController.listarTodos")
+                        .param("tag", "phi:0.999"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/spring.data.repository.invocations")
+                        .param("tag", "repository:ClienteRepository")
+                        .param("tag", "method:findByIdGreaterThanOrderByIdAsc"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/spring.data.repository.invocations.percentile")
+                        .param("tag", "repository:ClienteRepository")
+                        .param("tag", "phi:0.99"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveServirBuscaPorEmailDoCacheEInvalidarAoAtualizar() throws Exception {
+        Cliente salvo = clienteRepository.save(clientePessoaFisica);
+
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana@email.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana@email.com"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "name:clientesPorEmail")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value", greaterThanOrEqualTo(1.0)));
+
+        salvo.setEmail("ana.costa@email.com");
+        mockMvc.perform(put("/api/clientes/{id}", salvo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(salvo)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana@email.com"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana.costa@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(salvo.getId().intValue())));
+    }
+
+    /**
+     * O PATCH não traz a entidade: a chave antiga sai pelo índice reverso do cache e a
+     * entrada negativa da nova é removida depois de relida por id.
+     */
+    @Test
+    void deveInvalidarCacheDeEmailAoAtualizarParcialmente() throws Exception {
+        Cliente salvo = clienteRepository.save(clientePessoaFisica);
+
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana@email.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana.costa@email.com"))
+                .andExpect(status().isNotFound());
+
+        String etag = mockMvc.perform(get("/api/clientes/{id}", salvo.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(patch("/api/clientes/{id}", salvo.getId())
+                        .header("If-Match", etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"email\": \"ana.costa@email.com\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana@email.com"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/clientes/email/{email}", "ana.costa@email.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(salvo.getId().intValue())));
+    }
+
+    @Test
+    void deveEntregarCopiasDoCacheParaQueAlteracoesNaoVazem() {
+        clienteRepository.save(clientePessoaFisica);
+
+        Cliente primeiro = clienteRepository.findByEmail("ana@email.com").orElseThrow();
+        primeiro.setNome("Alterado fora do banco");
+        Cliente segundo = clienteRepository.findByEmail("ana@email.com").orElseThrow();
+
+        assertNotSame(primeiro, segundo);
+        assertEquals(clientePessoaFisica.getNome(), segundo.getNome());
+    }
+
+    @Test
+    void deveInvalidarCacheDeEmailAoExcluirECriar() throws Exception {
+        Cliente salvo = clienteRepository.save(clientePessoaFisica);
+
+        mockMvc.perform(get("/api/clientes/cpf/{cpf}", "987.654.321-00"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/clientes/{id}", salvo.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/clientes/cpf/{cpf}", "987.654.321-00"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/clientes/email/{email}", "contato@xyz.com"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(clientePessoaJuridica)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/clientes/email/{email}", "contato@xyz.com"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void deveBuscarClientePorCpf() throws Exception {
         clienteRepository.save(clientePessoaFisica);
@@ -141,6 +327,19 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    void deveBuscarClientesPorCidadePaginados() throws Exception {
+        Cliente primeiro = clienteRepository.save(clientePessoaFisica);
+        clienteRepository.save(clientePessoaJuridica);
+
+        mockMvc.perform(get("/api/clientes/cidade/{cidade}", "São Paulo")
+                        .param("after", String.valueOf(primeiro.getId())))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Empresa XYZ")));
+    }
+
     @Test
     void deveBuscarClientesPorEstado() throws Exception {
         clienteRepository.save(clientePessoaFisica);
@@ -195,7 +394,8 @@ class ClienteControllerTest {
         mockMvc.perform(post("/api/clientes")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(clienteJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("email")));
     }
 
     @Test
@@ -214,7 +414,8 @@ class ClienteControllerTest {
         mockMvc.perform(post("/api/clientes")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(clienteJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("cpf")));
     }
 
     @Test
@@ -298,4 +499,148 @@ class ClienteControllerTest {
         mockMvc.perform(get("/api/clientes/tipo/INVALIDO"))
                 .andExpect(status().isBadRequest());
     }
+
+    /**
+     * Um patch vazio não grava nada, mas só confirma a versão lida pelo chamador se ela
+     * ainda for a do registro; senão o 204 sairia com um ETag antigo.
+     */
+    @Test
+    void deveConferirVersaoAoAplicarPatchVazio() {
+        Cliente salvo = clienteRepository.save(clientePessoaFisica);
+        salvo.setTelefone("(11) 97777-6666");
+        salvo = clienteRepository.save(salvo);
+
+        assertEquals(Optional.empty(),
+                atualizacaoParcial.aplicar(Cliente.class, salvo.getId(), 0L, objectMapper.createObjectNode()));
+        assertEquals(Optional.of(1L),
+                atualizacaoParcial.aplicar(Cliente.class, salvo.getId(), 1L, objectMapper.createObjectNode()));
+    }
+
+    @Test
+    void deveResponder304EnquantoVersaoDoClienteNaoMudar() throws Exception {
+        Cliente salvo = clienteRepository.save(clientePessoaFisica);
+
+        String etag = mockMvc.perform(get("/api/clientes/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/clientes/{id}", salvo.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        salvo.setTelefone("(11) 97777-6666");
+        mockMvc.perform(put("/api/clientes/{id}", salvo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(salvo)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/clientes/{id}", salvo.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.telefone").value("(11) 97777-6666"));
+    }
+
+    @Test
+    void deveResponder304NaListagemAteAColecaoMudar() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+
+        String etag = mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/clientes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        clienteRepository.save(clientePessoaJuridica);
+
+        mockMvc.perform(get("/api/clientes").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    /**
+     * A versão da coleção vem do banco: uma escrita de outra instância, que este processo
+     * nunca viu, também invalida o ETag.
+     */
+    @Test
+    void deveDerivarETagDaListagemDaVersaoNoBanco() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+
+        String etag = mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        jdbcTemplate.update("INSERT INTO alteracoes_colecoes (entidade, peso) VALUES ('Cliente', 1)");
+
+        mockMvc.perform(get("/api/clientes").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void deveManterETagDaListagemAoCompactarVersoes() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+        clienteRepository.save(clientePessoaJuridica);
+
+        String etag = mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        versaoColecoes.compactar();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM alteracoes_colecoes WHERE entidade = 'Cliente'", Integer.class));
+        mockMvc.perform(get("/api/clientes").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * A versão da coleção não é uma linha compartilhada: uma escrita não espera o commit de
+     * outra transação que já registrou a sua alteração do mesmo tipo.
+     */
+    @Test
+    void naoDeveSerializarEscritasDoMesmoTipoNaVersaoDaColecao() throws Exception {
+        CountDownLatch registrada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> aberta = CompletableFuture.runAsync(() -> transacao.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO alteracoes_colecoes (entidade, peso) VALUES ('Cliente', 1)");
+            registrada.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertTrue(registrada.await(5, TimeUnit.SECONDS));
+            CompletableFuture.runAsync(() -> clienteRepository.save(clientePessoaFisica)).get(2, TimeUnit.SECONDS);
+        } finally {
+            liberar.countDown();
+            aberta.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void deveRetornar409AoAtualizarClienteComEmailDeOutro() throws Exception {
+        clienteRepository.save(clientePessoaFisica);
+        Cliente outro = clienteRepository.save(clientePessoaJuridica);
+
+        outro.setEmail("ana@email.com");
+        mockMvc.perform(put("/api/clientes/{id}", outro.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(outro)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.campo", is("email")));
+
+        mockMvc.perform(post("/api/clientes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nome\": \"Novo\", \"email\": \"novo@email.com\", \"tipoPessoa\": \"JURIDICA\", "
+                                + "\"cnpj\": \"98765432000110\"}]"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("cnpj")));
+    }
 }
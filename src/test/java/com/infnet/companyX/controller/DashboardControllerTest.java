@@ -0,0 +1,149 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.estoque.EstoqueBaixo;
+import com.infnet.companyX.financeiro.PortfolioFinanceiro;
+import com.infnet.companyX.painel.Painel;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
+import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.repository.FornecedorRepository;
+import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.repository.ProdutoRepository;
+import com.infnet.companyX.repository.ProjetoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static final Duration PRAZO = Duration.ofSeconds(1);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    @Autowired
+    private EstoqueBaixo estoqueBaixo;
+
+    @Autowired
+    private PortfolioFinanceiro portfolioFinanceiro;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository.deleteAll();
+        produtoRepository.deleteAll();
+
+        clienteRepository.save(novoCliente("Empresa SP", "sp@empresa.com", "SP"));
+        clienteRepository.save(novoCliente("Empresa RJ", "rj@empresa.com", "RJ"));
+        clienteRepository.save(novoCliente("Outra SP", "outra@empresa.com", "SP"));
+
+        Produto produto = new Produto();
+        produto.setNome("Cabo HDMI");
+        produto.setCodigo("CABO-HDMI");
+        produto.setPreco(new BigDecimal("29.90"));
+        produto.setQuantidadeEstoque(2);
+        produto.setAtivo(true);
+        produtoRepository.save(produto);
+    }
+
+    @Test
+    void deveResumirTodasAsFontesEmUmaChamada() throws Exception {
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.degradado", is(false)))
+                .andExpect(jsonPath("$.indisponiveis", empty()))
+                .andExpect(jsonPath("$.dados.clientes", is(3)))
+                .andExpect(jsonPath("$.dados.produtos", is(1)))
+                .andExpect(jsonPath("$.dados.projetos", is(0)))
+                .andExpect(jsonPath("$.dados.estoqueBaixo", is(1)))
+                .andExpect(jsonPath("$.dados.projetosAtrasados.total", is(0)))
+                .andExpect(jsonPath("$.dados.clientesPorEstado[*].estado", contains("RJ", "SP")))
+                .andExpect(jsonPath("$.dados.clientesPorEstado[1].quantidade", is(2)));
+    }
+
+    /**
+     * Só a fonte que não responde fica de fora, e a chamada volta no prazo sem esperar por
+     * ela; as demais, inclusive as consultas ao banco, rodam em paralelo a ela.
+     */
+    @Test
+    void deveDevolverResumoParcialQuandoUmaFonteEstouraOPrazo() {
+        ProjetosAtrasados lento = mock(ProjetosAtrasados.class);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(lento.resumo()).thenAnswer(invocacao -> {
+            liberar.await();
+            return null;
+        });
+        Painel painel = new Painel(clienteRepository, fornecedorRepository, funcionarioRepository, produtoRepository,
+                projetoRepository, estoqueBaixo, lento, portfolioFinanceiro, transactionManager, PRAZO, 4);
+
+        try {
+            long inicio = System.nanoTime();
+            Painel.Resumo resumo = painel.montar(PRAZO);
+
+            assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(PRAZO.plusMillis(500));
+            assertThat(resumo.degradado()).isTrue();
+            assertThat(resumo.indisponiveis()).containsExactly("projetosAtrasados");
+            assertThat(resumo.dados())
+                    .containsEntry("projetosAtrasados", null)
+                    .containsEntry("clientes", 3L)
+                    .containsEntry("produtos", 1L)
+                    .containsEntry("estoqueBaixo", 1);
+            assertThat((List<?>) resumo.dados().get("clientesPorEstado")).hasSize(2);
+            assertThat(resumo.dados().get("projetosPorStatus")).isNotNull();
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    private static Cliente novoCliente(String nome, String email, String estado) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setEmail(email);
+        cliente.setTipoPessoa(Cliente.TipoPessoa.FISICA);
+        cliente.setEstado(estado);
+        cliente.setAtivo(true);
+        return cliente;
+    }
+}
@@ -0,0 +1,108 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mais requisições simultâneas do que conexões no pool: nada que rode em torno do commit
+ * pode depender de uma segunda conexão para terminar. Com o limiar alto, toda reserva
+ * altera o conjunto de estoque baixo, que no fim tem de bater com o banco.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:poolpequeno",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=3000",
+        "companyx.estoque.limite-baixo=1000",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+// o DataSource embutido que substitui o da aplicação não tem pool
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+class EstoqueBaixoPoolPequenoTest {
+
+    private static final int THREADS = 16;
+
+    private static final int PRODUTOS = 16;
+
+    private static final int RESERVAS = 160;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Test
+    void deveReservarSemEsgotarOPoolEManterEstoqueBaixoEmDia() throws Exception {
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            produtos.add(produtoRepository.save(produto("SKU" + i)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Integer> respostas = new ArrayList<>();
+        try {
+            List<Future<Integer>> futuros = new ArrayList<>();
+            for (int i = 0; i < RESERVAS; i++) {
+                Long id = produtos.get(i % PRODUTOS).getId();
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return mockMvc.perform(post("/api/produtos/{id}/estoque/reservar", id).param("quantidade", "1"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            largada.countDown();
+            for (Future<Integer> futuro : futuros) {
+                respostas.add(futuro.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(respostas).containsOnly(204);
+        assertThat(produtoRepository.findAll()).extracting(Produto::getQuantidadeEstoque)
+                .containsOnly(100 - RESERVAS / PRODUTOS);
+        mockMvc.perform(get("/api/produtos/estoque-baixo").param("limite", "1000").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PRODUTOS)))
+                .andExpect(jsonPath("$[*].quantidadeEstoque", everyItem(is(100 - RESERVAS / PRODUTOS))));
+    }
+
+    private static Produto produto(String codigo) {
+        Produto produto = new Produto();
+        produto.setNome("Produto " + codigo);
+        produto.setCodigo(codigo);
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(100);
+        produto.setAtivo(true);
+        return produto;
+    }
+}
@@ -69,6 +69,26 @@ class FornecedorControllerTest {
                 .andExpect(jsonPath("$[0].cidade", is("São Paulo")));
     }
 
+    @Test
+    void deveBuscarFornecedoresPorTrechoDaRazaoSocial() throws Exception {
+        fornecedorRepository.save(fornecedorTeste);
+
+        mockMvc.perform(get("/api/fornecedores/busca").param("razaoSocial", "solucoes em"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("TechSupply Ltda")));
+
+        mockMvc.perform(get("/api/fornecedores/busca").param("nome", "solucoes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void deveRetornar400AoBuscarFornecedorSemTermo() throws Exception {
+        mockMvc.perform(get("/api/fornecedores/busca"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deveBuscarFornecedorPorId() throws Exception {
         Fornecedor salvo = fornecedorRepository.save(fornecedorTeste);
@@ -153,7 +173,8 @@ class FornecedorControllerTest {
         mockMvc.perform(post("/api/fornecedores")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(fornecedorJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("cnpj")));
     }
 
     @Test
@@ -171,7 +192,8 @@ class FornecedorControllerTest {
         mockMvc.perform(post("/api/fornecedores")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(fornecedorJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("email")));
     }
 
     @Test
@@ -216,6 +238,71 @@ class FornecedorControllerTest {
         assert !fornecedorExcluido.getAtivo();
     }
 
+    @Test
+    void deveDesativarPorFiltroEReativarPorIdsEmLote() throws Exception {
+        Fornecedor paulista = fornecedorRepository.save(fornecedorTeste);
+        Fornecedor carioca = new Fornecedor();
+        carioca.setNome("Rio Distribuidora");
+        carioca.setCnpj("98765432000188");
+        carioca.setEmail("contato@riodistribuidora.com");
+        carioca.setEstado("RJ");
+        carioca.setAtivo(true);
+        fornecedorRepository.save(carioca);
+
+        mockMvc.perform(post("/api/fornecedores/desativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filtro\": {\"estado\": \"SP\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados", is(1)));
+
+        mockMvc.perform(get("/api/fornecedores"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Rio Distribuidora")));
+        mockMvc.perform(get("/api/fornecedores/busca").param("nome", "techsupply"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(post("/api/fornecedores/reativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + paulista.getId() + ", " + carioca.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados", is(1)));
+
+        mockMvc.perform(get("/api/fornecedores"))
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/api/fornecedores/busca").param("nome", "techsupply"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(paulista.getId().intValue())));
+
+        mockMvc.perform(post("/api/fornecedores/desativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filtro\": {\"inexistente\": \"x\"}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * A remoção da chave negativa do reativado roda na fila pós-commit; a busca por CNPJ
+     * espera por ela em vez de responder 404 do cache.
+     */
+    @Test
+    void deveEncontrarPorCnpjLogoAposReativar() throws Exception {
+        Fornecedor fornecedor = fornecedorRepository.save(fornecedorTeste);
+
+        mockMvc.perform(post("/api/fornecedores/desativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + fornecedor.getId() + "]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/fornecedores/cnpj/{cnpj}", fornecedor.getCnpj()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/fornecedores/reativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + fornecedor.getId() + "]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/fornecedores/cnpj/{cnpj}", fornecedor.getCnpj()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(fornecedor.getId().intValue())));
+    }
+
     @Test
     void deveRetornar404AoExcluirFornecedorInexistente() throws Exception {
         mockMvc.perform(delete("/api/fornecedores/999"))
@@ -144,7 +144,8 @@ class FuncionarioControllerTest {
         mockMvc.perform(post("/api/funcionarios")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(funcionarioJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("email")));
     }
 
     @Test
@@ -164,7 +165,8 @@ class FuncionarioControllerTest {
         mockMvc.perform(post("/api/funcionarios")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(funcionarioJson))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("cpf")));
     }
 
     @Test
@@ -13,9 +13,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -68,6 +71,34 @@ class ProdutoControllerTest {
                 .andExpect(jsonPath("$[0].categoria", is("Informática")));
     }
 
+    @Test
+    void deveBuscarVariosProdutosPorIdNaOrdemPedida() throws Exception {
+        Produto primeiro = produtoRepository.save(produtoTeste);
+        Produto inativo = produtoRepository.save(novoProduto("INATIVO", false));
+        Produto terceiro = produtoRepository.save(novoProduto("TERCEIRO", true));
+        long inexistente = terceiro.getId() + 1000;
+        String ids = terceiro.getId() + "," + inexistente + "," + primeiro.getId() + "," + inativo.getId() + "," + terceiro.getId();
+
+        mockMvc.perform(get("/api/produtos").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].codigo", contains("TERCEIRO", "DELL001")))
+                .andExpect(jsonPath("$.ausentes", contains((int) inexistente)))
+                .andExpect(jsonPath("$.inativos", contains(inativo.getId().intValue())));
+
+        mockMvc.perform(post("/api/produtos/por-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + ids + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].codigo", contains("TERCEIRO", "DELL001")))
+                .andExpect(jsonPath("$.ausentes", contains((int) inexistente)))
+                .andExpect(jsonPath("$.inativos", contains(inativo.getId().intValue())));
+
+        mockMvc.perform(post("/api/produtos/por-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, null]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deveBuscarProdutoPorId() throws Exception {
         Produto salvo = produtoRepository.save(produtoTeste);
@@ -88,6 +119,63 @@ class ProdutoControllerTest {
                 .andExpect(jsonPath("$.nome", is("Notebook Dell")));
     }
 
+    @Test
+    void deveBuscarProdutosPorTrechoDoNome() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        Produto produto2 = new Produto();
+        produto2.setNome("Mouse Logitech");
+        produto2.setCodigo("LOG001");
+        produto2.setPreco(new BigDecimal("150.00"));
+        produto2.setAtivo(true);
+        produtoRepository.save(produto2);
+
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "book de"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].codigo", is("DELL001")));
+
+        salvo.setNome("Notebook Lenovo");
+        mockMvc.perform(put("/api/produtos/{id}", salvo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(salvo)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "dell"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"nome\": \"Notebook Acer\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"quantidadeEstoque\": 4}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "acer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].codigo", is("DELL001")));
+
+        mockMvc.perform(delete("/api/produtos/{id}", salvo.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "acer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "mouse"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].codigo", is("LOG001")));
+
+        mockMvc.perform(get("/api/produtos/busca").param("nome", "o"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deveBuscarProdutosPorCategoria() throws Exception {
         produtoRepository.save(produtoTeste);
@@ -137,6 +225,18 @@ class ProdutoControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void deveGuardarCopiaNoEstoqueBaixoParaQueAlteracoesNaoVazem() throws Exception {
+        produtoTeste.setQuantidadeEstoque(5);
+        Produto salvo = produtoRepository.save(produtoTeste);
+        salvo.setNome("Alterado fora do banco");
+
+        mockMvc.perform(get("/api/produtos/estoque-baixo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Notebook Dell")));
+    }
+
     @Test
     void deveCriarNovoProduto() throws Exception {
         String produtoJson = objectMapper.writeValueAsString(produtoTeste);
@@ -165,6 +265,68 @@ class ProdutoControllerTest {
         mockMvc.perform(post("/api/produtos")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(produtoJson))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("codigo")));
+    }
+
+    @Test
+    void deveCriarProdutosEmLote() throws Exception {
+        Produto produto2 = new Produto();
+        produto2.setNome("Mouse Dell");
+        produto2.setCodigo("DELL002");
+        produto2.setPreco(new BigDecimal("50.00"));
+
+        String produtosJson = objectMapper.writeValueAsString(List.of(produtoTeste, produto2));
+
+        mockMvc.perform(post("/api/produtos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(produtosJson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", notNullValue()))
+                .andExpect(jsonPath("$[1].codigo", is("DELL002")))
+                .andExpect(jsonPath("$[1].ativo", is(true)));
+
+        assert produtoRepository.count() == 2;
+    }
+
+    @Test
+    void naoDeveCriarProdutosEmLoteComCodigoJaCadastrado() throws Exception {
+        produtoRepository.save(produtoTeste);
+
+        Produto produto2 = new Produto();
+        produto2.setNome("Mouse Dell");
+        produto2.setCodigo("DELL002");
+        produto2.setPreco(new BigDecimal("50.00"));
+
+        Produto duplicado = new Produto();
+        duplicado.setNome("Outro Notebook");
+        duplicado.setCodigo("DELL001");
+        duplicado.setPreco(new BigDecimal("1000.00"));
+
+        String produtosJson = objectMapper.writeValueAsString(List.of(produto2, duplicado));
+
+        mockMvc.perform(post("/api/produtos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(produtosJson))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo", is("codigo")));
+
+        assert produtoRepository.count() == 1;
+    }
+
+    @Test
+    void naoDeveCriarProdutosEmLoteComCodigoRepetidoNoLote() throws Exception {
+        Produto repetido = new Produto();
+        repetido.setNome("Notebook Repetido");
+        repetido.setCodigo("DELL001");
+        repetido.setPreco(new BigDecimal("1000.00"));
+
+        String produtosJson = objectMapper.writeValueAsString(List.of(produtoTeste, repetido));
+
+        mockMvc.perform(post("/api/produtos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(produtosJson))
                 .andExpect(status().isBadRequest());
     }
 
@@ -221,4 +383,164 @@ class ProdutoControllerTest {
         mockMvc.perform(get("/api/produtos/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveAtualizarParcialmenteSoOEstoque() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"0\"")
+                        .content("{\"quantidadeEstoque\": 3}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        Produto atualizado = produtoRepository.findById(salvo.getId()).orElseThrow();
+        assert atualizado.getQuantidadeEstoque() == 3;
+        assert atualizado.getVersao() == 1;
+        assert "Notebook Dell".equals(atualizado.getNome());
+        assert new BigDecimal("3500.00").compareTo(atualizado.getPreco()) == 0;
+    }
+
+    @Test
+    void deveExigirIfMatchNoPatch() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .content("{\"quantidadeEstoque\": 3}"))
+                .andExpect(status().isPreconditionRequired());
+    }
+
+    @Test
+    void deveRecusarPatchComVersaoDesatualizada() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"0\"")
+                        .content("{\"quantidadeEstoque\": 3}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "\"0\"")
+                        .content("{\"quantidadeEstoque\": 7}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assert produtoRepository.findById(salvo.getId()).orElseThrow().getQuantidadeEstoque() == 3;
+    }
+
+    @Test
+    void deveRecusarPatchDeCampoSomenteLeituraOuDesconhecido() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"ativo\": false}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/produtos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"inexistente\": 1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveAtualizarCacheDeCodigoAposReserva() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(get("/api/produtos/codigo/{codigo}", "DELL001"))
+                .andExpect(jsonPath("$.quantidadeEstoque", is(10)));
+        mockMvc.perform(post("/api/produtos/{id}/estoque/reservar", salvo.getId()).param("quantidade", "3"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/produtos/codigo/{codigo}", "DELL001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidadeEstoque", is(7)));
+    }
+
+    @Test
+    void deveDesfazerReservaEmLoteQuandoUmItemNaoTemSaldo() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+        Produto outro = new Produto();
+        outro.setNome("Mouse");
+        outro.setCodigo("MOUSE01");
+        outro.setPreco(new BigDecimal("50.00"));
+        outro.setQuantidadeEstoque(1);
+        outro.setAtivo(true);
+        outro = produtoRepository.save(outro);
+
+        mockMvc.perform(post("/api/produtos/estoque/reservar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"" + salvo.getId() + "\": 4, \"" + outro.getId() + "\": 2}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.produtoId", is(outro.getId().intValue())));
+
+        assert produtoRepository.findById(salvo.getId()).orElseThrow().getQuantidadeEstoque() == 10;
+        assert produtoRepository.findById(outro.getId()).orElseThrow().getQuantidadeEstoque() == 1;
+    }
+
+    @Test
+    void deveValidarReservaDeEstoque() throws Exception {
+        Produto salvo = produtoRepository.save(produtoTeste);
+
+        mockMvc.perform(post("/api/produtos/{id}/estoque/reservar", salvo.getId()).param("quantidade", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/produtos/999999/estoque/reservar").param("quantidade", "1"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/produtos/{id}/estoque/reservar", salvo.getId()).param("quantidade", "11"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void deveManterEstoqueBaixoEAvisarTransicoesPorSse() throws Exception {
+        MvcResult assinatura = mockMvc.perform(get("/api/produtos/estoque-baixo/eventos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Produto salvo = produtoRepository.save(produtoTeste);
+        mockMvc.perform(post("/api/produtos/{id}/estoque/reservar", salvo.getId()).param("quantidade", "6"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/produtos/estoque-baixo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].quantidadeEstoque", is(4)));
+        mockMvc.perform(get("/api/produtos/estoque-baixo").param("limite", "4"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(post("/api/produtos/{id}/estoque/repor", salvo.getId()).param("quantidade", "20"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/produtos/estoque-baixo"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        String eventos = aguardarConteudo(assinatura, "event:saida");
+        assert eventos.indexOf("event:entrada") < eventos.indexOf("event:saida");
+        assert eventos.contains("\"quantidadeEstoque\":24");
+    }
+
+    private static String aguardarConteudo(MvcResult resultado, String esperado) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        String conteudo = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        while (!conteudo.contains(esperado) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            conteudo = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        return conteudo;
+    }
+
+    private static Produto novoProduto(String codigo, boolean ativo) {
+        Produto produto = new Produto();
+        produto.setNome("Produto " + codigo);
+        produto.setCodigo(codigo);
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(50);
+        produto.setAtivo(ativo);
+        return produto;
+    }
+}
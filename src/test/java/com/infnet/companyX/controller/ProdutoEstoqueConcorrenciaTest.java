@@ -0,0 +1,159 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Produto;
+import com.infnet.companyX.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Várias threads disputando o mesmo SKU: o saldo nunca pode ficar negativo e cada unidade
+ * reservada com sucesso tem de aparecer exatamente uma vez na baixa.
+ */
+@SpringBootTest(properties = "logging.level.org.springframework.web=INFO")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ProdutoEstoqueConcorrenciaTest {
+
+    private static final int THREADS = 32;
+
+    /**
+     * O padrão do H2 são 2s, e a fila pela linha quente não é justa: com poucos núcleos e a
+     * suíte inteira no mesmo processo, uma transação pode perder a vez até estourar. O teste
+     * é sobre saldo e deadlock, não sobre latência; um deadlock o H2 acusa na hora.
+     */
+    private static final int ESPERA_POR_LOCK_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Produto quente;
+    private Produto frio;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT " + ESPERA_POR_LOCK_MILLIS);
+        produtoRepository.deleteAll();
+        quente = produtoRepository.save(produto("QUENTE", 100));
+        frio = produtoRepository.save(produto("FRIO", 1000));
+    }
+
+    @Test
+    void naoDeveVenderAlemDoEstoqueSobConcorrencia() throws Exception {
+        List<Integer> respostas = disparar(400, i -> post("/api/produtos/{id}/estoque/reservar", quente.getId())
+                .param("quantidade", "1"));
+
+        assertThat(respostas).filteredOn(status -> status == 204).hasSize(100);
+        assertThat(respostas).filteredOn(status -> status == 409).hasSize(300);
+        Produto depois = produtoRepository.findById(quente.getId()).orElseThrow();
+        assertThat(depois.getQuantidadeEstoque()).isZero();
+        assertThat(depois.getVersao()).isEqualTo(100);
+    }
+
+    @Test
+    void deveContabilizarReservasEReposicoesIntercaladas() throws Exception {
+        List<Integer> respostas = disparar(400, i -> post(
+                i % 2 == 0 ? "/api/produtos/{id}/estoque/reservar" : "/api/produtos/{id}/estoque/repor", quente.getId())
+                .param("quantidade", "3"));
+
+        long reservas = contar(respostas, 0, 204);
+        long reposicoes = contar(respostas, 1, 204);
+        assertThat(reposicoes).isEqualTo(200);
+        assertThat(produtoRepository.findById(quente.getId()).orElseThrow().getQuantidadeEstoque())
+                .isEqualTo(100 + 3 * (reposicoes - reservas))
+                .isNotNegative();
+    }
+
+    @Test
+    void deveReservarLotesInteirosSemDeadlock() throws Exception {
+        String quenteFrio = "{\"" + quente.getId() + "\": 1, \"" + frio.getId() + "\": 2}";
+        String frioQuente = "{\"" + frio.getId() + "\": 2, \"" + quente.getId() + "\": 1}";
+
+        List<Integer> respostas = disparar(300, i -> post("/api/produtos/estoque/reservar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(i % 2 == 0 ? quenteFrio : frioQuente));
+
+        assertThat(respostas).filteredOn(status -> status == 204).hasSize(100);
+        assertThat(respostas).filteredOn(status -> status == 409).hasSize(200);
+        assertThat(produtoRepository.findById(quente.getId()).orElseThrow().getQuantidadeEstoque()).isZero();
+        assertThat(produtoRepository.findById(frio.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(800);
+    }
+
+    private List<Integer> disparar(int requisicoes, Requisicao requisicao) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futuros = new ArrayList<>();
+            for (int i = 0; i < requisicoes; i++) {
+                int indice = i;
+                Callable<Integer> tarefa = () -> {
+                    largada.await();
+                    return mockMvc.perform(requisicao.criar(indice)).andReturn().getResponse().getStatus();
+                };
+                futuros.add(executor.submit(tarefa));
+            }
+            largada.countDown();
+            List<Integer> respostas = new ArrayList<>();
+            for (Future<Integer> futuro : futuros) {
+                respostas.add(futuro.get());
+            }
+            return respostas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long contar(List<Integer> respostas, int paridade, int status) {
+        long total = 0;
+        for (int i = paridade; i < respostas.size(); i += 2) {
+            if (respostas.get(i) == status) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static Produto produto(String codigo, int estoque) {
+        Produto produto = new Produto();
+        produto.setNome("Produto " + codigo);
+        produto.setCodigo(codigo);
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(estoque);
+        produto.setAtivo(true);
+        return produto;
+    }
+
+    @FunctionalInterface
+    private interface Requisicao {
+        RequestBuilder criar(int indice);
+    }
+}
@@ -0,0 +1,223 @@
+package com.infnet.companyX.controller;
+
+import com.infnet.companyX.entity.Cliente;
+import com.infnet.companyX.entity.Funcionario;
+import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
+import com.infnet.companyX.repository.ClienteRepository;
+import com.infnet.companyX.repository.FuncionarioRepository;
+import com.infnet.companyX.repository.ProjetoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// o relay do outbox e a compactação das versões rodam em outra thread e somariam os
+// comandos deles às estatísticas globais
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "companyx.outbox.intervalo=1h",
+        "companyx.colecoes.compactacao=1h"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ProjetoControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    @Autowired
+    private ProjetosAtrasados projetosAtrasados;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    private Cliente clientePrincipal;
+    private Funcionario gerentePrincipal;
+    private int sequencia;
+
+    @BeforeEach
+    void setUp() {
+        clientePrincipal = clienteRepository.save(novoCliente());
+        gerentePrincipal = funcionarioRepository.save(novoGerente());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/projetos",
+            "/api/projetos/status/EM_ANDAMENTO",
+            "/api/projetos/cliente/{clientePrincipal}",
+            "/api/projetos/gerente/{gerentePrincipal}",
+            "/api/projetos/prioridade/1",
+            "/api/projetos/atrasados",
+            "/api/projetos/prazo?dataInicio=2000-01-01&dataFim=2100-12-31"
+    })
+    void deveManterQuantidadeDeComandosConstanteComMaisResultados(String endpoint) throws Exception {
+        String url = endpoint
+                .replace("{clientePrincipal}", String.valueOf(clientePrincipal.getId()))
+                .replace("{gerentePrincipal}", String.valueOf(gerentePrincipal.getId()));
+
+        semear(3);
+        long comandosPoucos = contarComandos(url);
+
+        semear(12);
+        long comandosMuitos = contarComandos(url);
+
+        assertThat(comandosMuitos).isEqualTo(comandosPoucos);
+    }
+
+    @Test
+    void deveResponder304SemCarregarProjetoNemListagem() throws Exception {
+        Projeto projeto = projetoRepository.save(novoProjeto(clientePrincipal, gerentePrincipal));
+        String etagProjeto = mockMvc.perform(get("/api/projetos/{id}", projeto.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String etagLista = mockMvc.perform(get("/api/projetos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Statistics estatisticas = estatisticasZeradas();
+        mockMvc.perform(get("/api/projetos/{id}", projeto.getId()).header("If-None-Match", etagProjeto))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/projetos").header("If-None-Match", etagLista))
+                .andExpect(status().isNotModified());
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+        // a versão do projeto, por chave primária; a da coleção é lida por JDBC, fora da sessão
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        clientePrincipal.setNome("Cliente renomeado");
+        clientePrincipal = clienteRepository.save(clientePrincipal);
+
+        mockMvc.perform(get("/api/projetos/{id}", projeto.getId()).header("If-None-Match", etagProjeto))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/projetos").header("If-None-Match", etagLista))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveResponderCamposEsparsosComUmaConsultaSemCarregarEntidades() throws Exception {
+        semear(5);
+
+        Statistics estatisticas = estatisticasZeradas();
+        mockMvc.perform(get("/api/projetos?fields=nome,cliente.nome,gerente"))
+                .andExpect(status().isOk());
+        // só a projeção; a versão da coleção, para o ETag, é lida por JDBC, fora da sessão
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    /**
+     * O PATCH grava com um UPDATE e monta o evento dos valores gravados: nenhum projeto é
+     * carregado, nem relido depois do UPDATE. O projeto fica fora dos atrasados, cujo
+     * recálculo leria o conjunto.
+     */
+    @Test
+    void deveAplicarPatchSemCarregarEntidades() throws Exception {
+        Projeto novo = novoProjeto(clientePrincipal, gerentePrincipal);
+        novo.setDataFimPrevista(LocalDate.now().plusMonths(1));
+        Projeto projeto = projetoRepository.save(novo);
+
+        Statistics estatisticas = estatisticasZeradas();
+        mockMvc.perform(patch("/api/projetos/{id}", projeto.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"nome\": \"Renomeado\"}"))
+                .andExpect(status().isNoContent());
+        await().atMost(Duration.ofSeconds(10)).until(() -> !projetosAtrasados.recalculoPendente());
+
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    private long contarComandos(String url) throws Exception {
+        Statistics estatisticas = estatisticasZeradas();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    /**
+     * Os recálculos de atrasados disparados pela semeadura rodam em outra thread e têm de
+     * terminar antes de as estatísticas globais serem zeradas.
+     */
+    private Statistics estatisticasZeradas() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> !projetosAtrasados.recalculoPendente());
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        return estatisticas;
+    }
+
+    /**
+     * Cada projeto recebe um cliente ou gerente distinto, que é o cenário em que o carregamento
+     * ansioso disparava um SELECT extra por associação.
+     */
+    private void semear(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            projetoRepository.save(novoProjeto(clienteRepository.save(novoCliente()), gerentePrincipal));
+            projetoRepository.save(novoProjeto(clientePrincipal, funcionarioRepository.save(novoGerente())));
+        }
+    }
+
+    private Projeto novoProjeto(Cliente cliente, Funcionario gerente) {
+        Projeto projeto = new Projeto();
+        projeto.setNome("Projeto " + sequencia++);
+        projeto.setCliente(cliente);
+        projeto.setGerente(gerente);
+        projeto.setStatus(Projeto.StatusProjeto.EM_ANDAMENTO);
+        projeto.setDataInicio(LocalDate.now().minusMonths(6));
+        projeto.setDataFimPrevista(LocalDate.now().minusDays(1));
+        projeto.setPrioridade(1);
+        projeto.setAtivo(true);
+        return projeto;
+    }
+
+    private Cliente novoCliente() {
+        int numero = sequencia++;
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente " + numero);
+        cliente.setEmail("cliente" + numero + "@empresa.com");
+        cliente.setTipoPessoa(Cliente.TipoPessoa.JURIDICA);
+        cliente.setCnpj("CNPJ-" + numero);
+        cliente.setAtivo(true);
+        return cliente;
+    }
+
+    private Funcionario novoGerente() {
+        int numero = sequencia++;
+        Funcionario gerente = new Funcionario();
+        gerente.setNome("Gerente " + numero);
+        gerente.setEmail("gerente" + numero + "@empresa.com");
+        gerente.setCargo("Gerente de Projetos");
+        gerente.setDepartamento("TI");
+        gerente.setAtivo(true);
+        return gerente;
+    }
+}
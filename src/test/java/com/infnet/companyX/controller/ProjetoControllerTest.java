@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.infnet.companyX.entity.Cliente;
 import com.infnet.companyX.entity.Funcionario;
 import com.infnet.companyX.entity.Projeto;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
 import com.infnet.companyX.repository.ClienteRepository;
 import com.infnet.companyX.repository.FuncionarioRepository;
 import com.infnet.companyX.repository.ProjetoRepository;
@@ -14,14 +15,20 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +55,12 @@ class ProjetoControllerTest {
     @Autowired
     private FuncionarioRepository funcionarioRepository;
 
+    @Autowired
+    private ProjetosAtrasados projetosAtrasados;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Projeto projetoTeste;
     private Cliente clienteTeste;
     private Funcionario funcionarioTeste;
@@ -100,6 +113,33 @@ class ProjetoControllerTest {
                 .andExpect(jsonPath("$[0].status", is("PLANEJAMENTO")));
     }
 
+    @Test
+    void deveExportarProjetosEmNdjsonComClienteEGerente() throws Exception {
+        projetoRepository.save(projetoTeste);
+
+        Projeto segundo = new Projeto();
+        segundo.setNome("Portal do Cliente");
+        segundo.setCliente(clienteTeste);
+        segundo.setAtivo(true);
+        projetoRepository.save(segundo);
+
+        MvcResult resultado = mockMvc.perform(get("/api/projetos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] linhas = corpo.split("\n");
+        assert linhas.length == 2;
+        Projeto exportado = objectMapper.readValue(linhas[0], Projeto.class);
+        assert exportado.getNome().equals("Sistema de Vendas");
+        assert exportado.getCliente().getEmail().equals("contato@abc.com");
+        assert exportado.getGerente().getNome().equals("João Gerente");
+    }
+
     @Test
     void deveBuscarProjetoPorId() throws Exception {
         Projeto salvo = projetoRepository.save(projetoTeste);
@@ -157,12 +197,212 @@ class ProjetoControllerTest {
         projetoTeste.setStatus(Projeto.StatusProjeto.EM_ANDAMENTO);
         projetoTeste.setDataFimPrevista(LocalDate.now().minusDays(10)); 
         projetoRepository.save(projetoTeste);
+        aguardarRecalculo();
 
         mockMvc.perform(get("/api/projetos/atrasados"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void deveAtualizarInstantaneoDeAtrasadosQuandoStatusOuDadosEmbutidosMudam() throws Exception {
+        projetoTeste.setDataFimPrevista(LocalDate.now().minusDays(3));
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        mockMvc.perform(get("/api/projetos/atrasados/resumo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", is(LocalDate.now().toString())))
+                .andExpect(jsonPath("$.total", is(0)));
+
+        mockMvc.perform(patch("/api/projetos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"status\": \"EM_ANDAMENTO\"}"))
+                .andExpect(status().isNoContent());
+        aguardarRecalculo();
+
+        mockMvc.perform(get("/api/projetos/atrasados/resumo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.porGerente['" + funcionarioTeste.getId() + "']", is(1)))
+                .andExpect(jsonPath("$.porCliente['" + clienteTeste.getId() + "']", is(1)));
+
+        clienteTeste.setNome("Empresa ABC Renomeada");
+        clienteRepository.save(clienteTeste);
+        aguardarRecalculo();
+
+        mockMvc.perform(get("/api/projetos/atrasados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].cliente.nome", is("Empresa ABC Renomeada")))
+                .andExpect(jsonPath("$[0].gerente.nome", is("João Gerente")));
+
+        mockMvc.perform(patch("/api/projetos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"dataFimPrevista\": \"" + LocalDate.now().plusDays(7) + "\"}"))
+                .andExpect(status().isNoContent());
+        aguardarRecalculo();
+
+        mockMvc.perform(get("/api/projetos/atrasados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/projetos/atrasados/resumo"))
+                .andExpect(jsonPath("$.total", is(0)))
+                .andExpect(jsonPath("$.porGerente", anEmptyMap()));
+    }
+
+    @Test
+    void deveAgregarFinanceiroNoBancoEInvalidarAposAlteracao() throws Exception {
+        projetoTeste.setCustoAtual(new BigDecimal("95000.00"));
+        projetoRepository.save(projetoTeste);
+
+        Projeto segundo = new Projeto();
+        segundo.setNome("Portal Interno");
+        segundo.setCliente(clienteTeste);
+        segundo.setGerente(funcionarioTeste);
+        segundo.setStatus(Projeto.StatusProjeto.EM_ANDAMENTO);
+        segundo.setDataInicio(LocalDate.of(2024, 2, 15));
+        segundo.setDataFimPrevista(LocalDate.of(2024, 12, 31));
+        segundo.setOrcamento(new BigDecimal("15000.00"));
+        segundo.setCustoAtual(new BigDecimal("5000.00"));
+        segundo.setPrioridade(2);
+        segundo.setAtivo(true);
+        segundo = projetoRepository.save(segundo);
+
+        mockMvc.perform(get("/api/projetos/financeiro/cliente"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].chave", is(clienteTeste.getId().intValue())))
+                .andExpect(jsonPath("$[0].nome", is("Empresa ABC")))
+                .andExpect(jsonPath("$[0].quantidade", is(2)))
+                .andExpect(jsonPath("$[0].orcamentoTotal", is(100000.00)))
+                .andExpect(jsonPath("$[0].custoTotal", is(100000.00)))
+                .andExpect(jsonPath("$[0].orcamentoMedio", is(50000.00)))
+                .andExpect(jsonPath("$[0].razaoCusto", is(1.0)))
+                .andExpect(jsonPath("$[0].estourados", is(1)))
+                .andExpect(jsonPath("$[0].razaoEstourados", is(0.5)));
+
+        mockMvc.perform(get("/api/projetos/financeiro/mes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].chave", is("2024-02")))
+                .andExpect(jsonPath("$[0].quantidade", is(2)));
+
+        mockMvc.perform(get("/api/projetos/financeiro/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].chave", containsInAnyOrder("PLANEJAMENTO", "EM_ANDAMENTO")));
+
+        segundo.setCustoAtual(new BigDecimal("25000.00"));
+        projetoRepository.save(segundo);
+
+        mockMvc.perform(get("/api/projetos/financeiro/gerente"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].chave", is(funcionarioTeste.getId().intValue())))
+                .andExpect(jsonPath("$[0].custoTotal", is(120000.00)))
+                .andExpect(jsonPath("$[0].estourados", is(2)));
+        mockMvc.perform(get("/api/projetos/financeiro/cliente"))
+                .andExpect(jsonPath("$[0].custoTotal", is(120000.00)))
+                .andExpect(jsonPath("$[0].razaoCusto", is(1.2)));
+    }
+
+    @Test
+    void deveResponderSoOsCamposPedidos() throws Exception {
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        mockMvc.perform(get("/api/projetos").param("fields", "nome,cliente.nome,gerente"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(salvo.getId().intValue())))
+                .andExpect(jsonPath("$[0].nome", is("Sistema de Vendas")))
+                .andExpect(jsonPath("$[0].cliente.id", is(clienteTeste.getId().intValue())))
+                .andExpect(jsonPath("$[0].cliente.nome", is("Empresa ABC")))
+                .andExpect(jsonPath("$[0].cliente.email").doesNotExist())
+                .andExpect(jsonPath("$[0].gerente", is(java.util.Map.of("id", funcionarioTeste.getId().intValue()))))
+                .andExpect(jsonPath("$[0].descricao").doesNotExist());
+
+        mockMvc.perform(get("/api/projetos/status/planejamento").param("fields", "status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("PLANEJAMENTO")))
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+
+        mockMvc.perform(get("/api/projetos/{id}", salvo.getId()).param("fields", "orcamento,gerente.nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orcamento", is(85000.00)))
+                .andExpect(jsonPath("$.gerente.nome", is("João Gerente")))
+                .andExpect(jsonPath("$.cliente").doesNotExist());
+    }
+
+    /**
+     * Com ou sem {@code fields}, os atrasados saem do mesmo instantâneo: uma alteração
+     * que não passou pelos eventos não aparece em nenhuma das duas formas.
+     */
+    @Test
+    void deveProjetarAtrasadosDoInstantaneo() throws Exception {
+        projetoTeste.setStatus(Projeto.StatusProjeto.EM_ANDAMENTO);
+        projetoTeste.setDataFimPrevista(LocalDate.now().minusDays(10));
+        Projeto salvo = projetoRepository.save(projetoTeste);
+        // o recálculo disparado pelo save roda na fila do instantâneo
+        aguardarRecalculo();
+        jdbcTemplate.update("UPDATE projetos SET nome = 'Fora do instantâneo' WHERE id = ?", salvo.getId());
+
+        mockMvc.perform(get("/api/projetos/atrasados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nome", is("Sistema de Vendas")));
+        mockMvc.perform(get("/api/projetos/atrasados").param("fields", "nome,cliente.nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(salvo.getId().intValue())))
+                .andExpect(jsonPath("$[0].nome", is("Sistema de Vendas")))
+                .andExpect(jsonPath("$[0].cliente.nome", is("Empresa ABC")))
+                .andExpect(jsonPath("$[0].status").doesNotExist());
+        mockMvc.perform(get("/api/projetos/atrasados").param("fields", "senha"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveRecusarCampoDesconhecidoEmFields() throws Exception {
+        projetoRepository.save(projetoTeste);
+
+        mockMvc.perform(get("/api/projetos").param("fields", "nome,senha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail", containsString("senha")));
+        mockMvc.perform(get("/api/projetos").param("fields", "cliente.gerente"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void naoDeveCarregarRegistrosInativosForaDoCaminhoDeAdministracao() throws Exception {
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        mockMvc.perform(delete("/api/clientes/{id}", clienteTeste.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cliente").value(nullValue()))
+                .andExpect(jsonPath("$.gerente.nome", is("João Gerente")));
+
+        mockMvc.perform(delete("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/projetos/status/planejamento"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        assert projetoRepository.findById(salvo.getId()).isEmpty();
+
+        mockMvc.perform(get("/api/admin/projetos/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ativo", is(false)))
+                .andExpect(jsonPath("$.nome", is("Sistema de Vendas")));
+        mockMvc.perform(get("/api/admin/projetos/inativos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(salvo.getId().intValue())));
+        mockMvc.perform(get("/api/admin/clientes/inativos"))
+                .andExpect(jsonPath("$[*].id", contains(clienteTeste.getId().intValue())));
+        mockMvc.perform(get("/api/admin/desconhecidos/inativos"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void deveBuscarProjetosPorPrazoEntrega() throws Exception {
         projetoRepository.save(projetoTeste);
@@ -215,6 +455,43 @@ class ProjetoControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void deveCriarProjetosEmLote() throws Exception {
+        Projeto segundo = new Projeto();
+        segundo.setNome("Portal do Cliente");
+        segundo.setCliente(clienteTeste);
+
+        String projetosJson = objectMapper.writeValueAsString(List.of(projetoTeste, segundo));
+
+        mockMvc.perform(post("/api/projetos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(projetosJson))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].gerente.id", is(funcionarioTeste.getId().intValue())))
+                .andExpect(jsonPath("$[1].cliente.id", is(clienteTeste.getId().intValue())))
+                .andExpect(jsonPath("$[1].status", is("PLANEJAMENTO")));
+    }
+
+    @Test
+    void naoDeveCriarProjetosEmLoteComClienteInexistente() throws Exception {
+        Cliente clienteInexistente = new Cliente();
+        clienteInexistente.setId(999L);
+
+        Projeto segundo = new Projeto();
+        segundo.setNome("Portal do Cliente");
+        segundo.setCliente(clienteInexistente);
+
+        String projetosJson = objectMapper.writeValueAsString(List.of(projetoTeste, segundo));
+
+        mockMvc.perform(post("/api/projetos/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(projetosJson))
+                .andExpect(status().isBadRequest());
+
+        assert projetoRepository.count() == 0;
+    }
+
     @Test
     void deveAtualizarProjeto() throws Exception {
         Projeto salvo = projetoRepository.save(projetoTeste);
@@ -282,4 +559,70 @@ class ProjetoControllerTest {
                         .param("dataFim", "2024-09-30"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void deveAtualizarStatusERemoverGerenteViaPatch() throws Exception {
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        String etag = mockMvc.perform(get("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(patch("/api/projetos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", etag)
+                        .content("{\"status\": \"EM_ANDAMENTO\", \"gerente\": null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1.0.-\""));
+
+        mockMvc.perform(get("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.0.-\""))
+                .andExpect(jsonPath("$.status", is("EM_ANDAMENTO")))
+                .andExpect(jsonPath("$.gerente").value(nullValue()))
+                .andExpect(jsonPath("$.cliente.nome", is("Empresa ABC")))
+                .andExpect(jsonPath("$.nome", is("Sistema de Vendas")));
+    }
+
+    @Test
+    void deveRecusarPatchComGerenteInexistente() throws Exception {
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        mockMvc.perform(patch("/api/projetos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"gerente\": {\"id\": 999}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveRecusarPatchComClienteInativoEManterReferenciaAnterior() throws Exception {
+        Projeto salvo = projetoRepository.save(projetoTeste);
+
+        Cliente inativo = new Cliente();
+        inativo.setNome("Empresa XYZ");
+        inativo.setEmail("contato@xyz.com");
+        inativo.setTipoPessoa(Cliente.TipoPessoa.JURIDICA);
+        inativo.setCnpj("98.765.432/0001-11");
+        inativo.setAtivo(false);
+        inativo = clienteRepository.save(inativo);
+
+        mockMvc.perform(patch("/api/projetos/{id}", salvo.getId())
+                        .contentType("application/merge-patch+json")
+                        .header("If-Match", "*")
+                        .content("{\"cliente\": {\"id\": " + inativo.getId() + "}}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/projetos/{id}", salvo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0.0.0\""))
+                .andExpect(jsonPath("$.cliente.nome", is("Empresa ABC")));
+    }
+
+    /**
+     * O instantâneo de atrasados é recalculado em outra thread depois do commit.
+     */
+    private void aguardarRecalculo() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> !projetosAtrasados.recalculoPendente());
+    }
 }
@@ -0,0 +1,51 @@
+package com.infnet.companyX.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class FilaPosCommitTest {
+
+    private final FilaPosCommit fila = new FilaPosCommit("fila-teste");
+
+    @AfterEach
+    void tearDown() {
+        fila.close();
+    }
+
+    @Test
+    void deveContarComoConcluidaATarefaQueLancouError() {
+        fila.agendar(() -> {
+            throw new StackOverflowError();
+        });
+        AtomicBoolean seguinte = new AtomicBoolean();
+        fila.agendar(() -> seguinte.set(true));
+
+        // o Error escapa para a thread da fila, como na aplicação
+        await().dontCatchUncaughtExceptions().atMost(Duration.ofSeconds(5)).until(fila::ociosa);
+
+        assertThat(seguinte).isTrue();
+    }
+
+    @Test
+    void deveDescartarTarefaQueSempreFalhaESeguirComAsProximas() {
+        AtomicInteger tentativas = new AtomicInteger();
+        fila.agendar(() -> {
+            tentativas.incrementAndGet();
+            throw new IllegalStateException("linha envenenada");
+        });
+        AtomicBoolean seguinte = new AtomicBoolean();
+        fila.agendar(() -> seguinte.set(true));
+
+        await().atMost(Duration.ofSeconds(30)).until(fila::ociosa);
+
+        assertThat(tentativas).hasValue(5);
+        assertThat(seguinte).isTrue();
+    }
+}
@@ -0,0 +1,140 @@
+package com.infnet.companyX.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infnet.companyX.event.EntidadeAlteradaEvent.Operacao;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * O relay roda só quando o teste pede; cada tipo de escrita (ciclo de vida do Hibernate,
+ * merge patch e desativação em lote) deve deixar exatamente uma alteração no outbox.
+ */
+@SpringBootTest(properties = "companyx.outbox.intervalo=1h")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+@DirtiesContext
+class RelayOutboxTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RelayOutbox relay;
+
+    @Autowired
+    private DestinoMemoria destino;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long ultimaSequencia;
+
+    @BeforeEach
+    void setUp() {
+        relay.publicarPendentes();
+        List<EventoAlteracao> anteriores = destino.listar(0, Integer.MAX_VALUE);
+        ultimaSequencia = anteriores.isEmpty() ? 0 : anteriores.getLast().sequencia();
+    }
+
+    @Test
+    void devePublicarAsAlteracoesEmOrdemComVersaoECampos() throws Exception {
+        String corpo = mockMvc.perform(post("/api/fornecedores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"TechSupply\", \"cnpj\": \"12345678000199\", \"email\": \"contato@techsupply.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(corpo).get("id").asLong();
+
+        mockMvc.perform(put("/api/fornecedores/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"TechSupply\", \"cnpj\": \"12345678000199\", \"email\": \"vendas@techsupply.com\"}"))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/api/fornecedores/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/api/fornecedores/" + id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"telefone\": \"(11) 3333-4444\", \"cidade\": \"São Paulo\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/fornecedores/desativar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + id + "]}"))
+                .andExpect(status().isOk());
+
+        assertEquals(4, relay.publicarPendentes());
+
+        List<EventoAlteracao> eventos = destino.listar(ultimaSequencia, 100);
+        assertEquals(4, eventos.size());
+        eventos.forEach(evento -> {
+            assertEquals("Fornecedor", evento.entidade());
+            assertEquals(id, evento.id());
+        });
+
+        assertEquals(Operacao.INCLUSAO, eventos.get(0).operacao());
+        assertEquals(0L, eventos.get(0).versao());
+
+        assertEquals(Operacao.ALTERACAO, eventos.get(1).operacao());
+        assertEquals(1L, eventos.get(1).versao());
+        assertEquals(List.of("email"), eventos.get(1).campos());
+
+        assertEquals(2L, eventos.get(2).versao());
+        assertEquals(List.of("telefone", "cidade"), eventos.get(2).campos());
+
+        assertEquals(3L, eventos.get(3).versao());
+        assertEquals(List.of("ativo"), eventos.get(3).campos());
+
+        assertEquals(0L, ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM outbox").getSingleResult()).longValue());
+    }
+
+    /**
+     * Um consumidor local acompanha as alterações publicadas pelo cursor, uma página por vez.
+     */
+    @Test
+    void deveEntregarAsAlteracoesPublicadasPorCursor() throws Exception {
+        for (String nome : List.of("Alfa", "Beta", "Gama")) {
+            mockMvc.perform(post("/api/fornecedores")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"nome\": \"" + nome + "\", \"cnpj\": \"CNPJ-" + nome + "\", \"email\": \""
+                                    + nome.toLowerCase() + "@fornecedor.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+        assertEquals(3, relay.publicarPendentes());
+
+        String proximo = mockMvc.perform(get("/api/alteracoes")
+                        .param("after", String.valueOf(ultimaSequencia))
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].entidade").value("Fornecedor"))
+                .andExpect(jsonPath("$[0].operacao").value("INCLUSAO"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/alteracoes").param("after", proximo).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.infnet.companyX.replica;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infnet.companyX.prazo.ProjetosAtrasados;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Primário e réplica são dois bancos H2 em memória; a replicação simulada só copia quando
+ * o teste pede, então a réplica fica atrasada de propósito entre uma cópia e outra.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario-roteamento",
+        "companyx.replicas.urls=jdbc:h2:mem:replica-roteamento;DB_CLOSE_DELAY=-1",
+        "companyx.replicas.replicacao-simulada=true",
+        "companyx.replicas.intervalo-replicacao=1h",
+        "companyx.replicas.aderencia=1m"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class RoteamentoReplicaTest {
+
+    private static final String FORNECEDOR =
+            "{\"nome\": \"TechSupply\", \"cnpj\": \"12345678000199\", \"email\": \"contato@techsupply.com\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicacaoSimulada replicacao;
+
+    @Autowired
+    private ProjetosAtrasados projetosAtrasados;
+
+    @Test
+    void deveLerDaReplicaEManterNoPrimarioQuemAcabouDeEscrever() throws Exception {
+        MockHttpServletResponse resposta = mockMvc.perform(post("/api/fornecedores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FORNECEDOR))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(AderenciaPrimarioFilter.COOKIE))
+                .andReturn().getResponse();
+        Cookie aderencia = resposta.getCookie(AderenciaPrimarioFilter.COOKIE);
+        long id = objectMapper.readTree(resposta.getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/fornecedores/{id}", id))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/fornecedores/{id}", id).cookie(aderencia))
+                .andExpect(status().isOk());
+
+        replicacao.replicar();
+
+        mockMvc.perform(get("/api/fornecedores/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome", is("TechSupply")));
+    }
+
+    /**
+     * A versão da coleção muda no commit do primário; se a listagem viesse da réplica
+     * atrasada, a lista antiga sairia com o ETag novo e ficaria no cache do cliente.
+     */
+    @Test
+    void deveServirListagemComETagDoPrimarioMesmoComReplicaAtrasada() throws Exception {
+        String etagAntigo = mockMvc.perform(get("/api/fornecedores"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/fornecedores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FORNECEDOR))
+                .andExpect(status().isCreated());
+
+        String etagNovo = mockMvc.perform(get("/api/fornecedores").header(HttpHeaders.IF_NONE_MATCH, etagAntigo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etagAntigo)))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/fornecedores").header(HttpHeaders.IF_NONE_MATCH, etagNovo))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void devePreencherCacheDeChaveNaturalComOPrimario() throws Exception {
+        mockMvc.perform(get("/api/fornecedores/cnpj/{cnpj}", "12345678000199"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/fornecedores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FORNECEDOR))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/fornecedores/cnpj/{cnpj}", "12345678000199"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome", is("TechSupply")));
+    }
+
+    /**
+     * A virada do dia roda no agendador, fora de qualquer requisição fixada; lido da
+     * réplica atrasada, o instantâneo perderia o projeto até o próximo evento dele.
+     */
+    @Test
+    void deveRecalcularInstantaneoDeAtrasadosComOPrimario() throws Exception {
+        mockMvc.perform(post("/api/projetos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Sistema ERP\", \"status\": \"EM_ANDAMENTO\", \"dataFimPrevista\": \""
+                                + LocalDate.now().minusDays(3) + "\"}"))
+                .andExpect(status().isCreated());
+
+        projetosAtrasados.virarDia();
+        await().atMost(Duration.ofSeconds(10)).until(() -> !projetosAtrasados.recalculoPendente());
+
+        mockMvc.perform(get("/api/projetos/atrasados"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome", is("Sistema ERP")));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -71,7 +72,7 @@ class FuncionarioRepositoryTest {
 
     @Test
     void deveBuscarFuncionariosPorDepartamento() {
-        List<Funcionario> funcionarios = funcionarioRepository.findByDepartamento("TI");
+        List<Funcionario> funcionarios = funcionarioRepository.findByDepartamentoAndIdGreaterThanOrderByIdAsc("TI", 0L, Limit.unlimited());
 
         assertThat(funcionarios).hasSize(2);
         assertThat(funcionarios).extracting(Funcionario::getDepartamento)
@@ -80,7 +81,7 @@ class FuncionarioRepositoryTest {
 
     @Test
     void deveBuscarFuncionariosPorCargo() {
-        List<Funcionario> funcionarios = funcionarioRepository.findByCargo("Desenvolvedor");
+        List<Funcionario> funcionarios = funcionarioRepository.findByCargoAndIdGreaterThanOrderByIdAsc("Desenvolvedor", 0L, Limit.unlimited());
 
         assertThat(funcionarios).hasSize(1);
         assertThat(funcionarios.get(0).getNome()).isEqualTo("João Silva");
@@ -91,7 +92,7 @@ class FuncionarioRepositoryTest {
         funcionario1.setAtivo(false);
         entityManager.persistAndFlush(funcionario1);
 
-        List<Funcionario> funcionarios = funcionarioRepository.findByAtivoTrue();
+        List<Funcionario> funcionarios = funcionarioRepository.findAll();
 
         assertThat(funcionarios).hasSize(1);
         assertThat(funcionarios.get(0).getNome()).isEqualTo("Maria Santos");
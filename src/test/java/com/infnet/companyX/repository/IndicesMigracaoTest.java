@@ -0,0 +1,111 @@
+package com.infnet.companyX.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o plano do H2 para cada formato de consulta usado pelos repositórios
+ * escolhe o índice criado pela migração, e não uma varredura da tabela. Com as tabelas
+ * vazias o H2 empata o custo dos índices, por isso cada tabela recebe uma massa variada
+ * e a seletividade é recalculada com ANALYZE, que só enxerga linhas confirmadas — daí o
+ * teste rodar fora de transação.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndicesMigracaoTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    void setDataSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO projetos (id, nome, status, prioridade, data_fim_prevista, ativo)
+                SELECT x, 'Projeto ' || x,
+                       CASE MOD(x, 5) WHEN 0 THEN 'PLANEJAMENTO' WHEN 1 THEN 'EM_ANDAMENTO'
+                            WHEN 2 THEN 'PAUSADO' WHEN 3 THEN 'CONCLUIDO' ELSE 'CANCELADO' END,
+                       MOD(x, 5) + 1, DATEADD(DAY, MOD(x, 365) - 180, CURRENT_DATE), MOD(x, 10) <> 0
+                FROM SYSTEM_RANGE(1, 1000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO clientes (id, nome, email, tipo_pessoa, cidade, estado, ativo)
+                SELECT x, 'Cliente ' || x, 'cliente' || x || '@x.com',
+                       CASE MOD(x, 2) WHEN 0 THEN 'FISICA' ELSE 'JURIDICA' END,
+                       'Cidade ' || MOD(x, 50), 'E' || MOD(x, 27), MOD(x, 10) <> 0
+                FROM SYSTEM_RANGE(1, 1000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO fornecedores (id, nome, cnpj, email, cidade, estado, ativo)
+                SELECT x, 'Fornecedor ' || x, 'CNPJ' || x, 'fornecedor' || x || '@x.com',
+                       'Cidade ' || MOD(x, 50), 'E' || MOD(x, 27), MOD(x, 10) <> 0
+                FROM SYSTEM_RANGE(1, 1000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO funcionarios (id, nome, email, cargo, departamento, ativo)
+                SELECT x, 'Funcionario ' || x, 'funcionario' || x || '@x.com',
+                       'Cargo ' || MOD(x, 30), 'Depto ' || MOD(x, 12), MOD(x, 10) <> 0
+                FROM SYSTEM_RANGE(1, 1000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO produtos (id, nome, codigo, preco, quantidade_estoque, categoria, marca, ativo)
+                SELECT x, 'Produto ' || x, 'P' || x, MOD(x, 500) + 1, MOD(x, 200),
+                       'Categoria ' || MOD(x, 20), 'Marca ' || MOD(x, 40), MOD(x, 10) <> 0
+                FROM SYSTEM_RANGE(1, 1000)
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM projetos");
+        jdbcTemplate.update("DELETE FROM clientes");
+        jdbcTemplate.update("DELETE FROM fornecedores");
+        jdbcTemplate.update("DELETE FROM funcionarios");
+        jdbcTemplate.update("DELETE FROM produtos");
+    }
+
+    @ParameterizedTest(name = "{1}")
+    @CsvSource(delimiter = '|', value = {
+            "SELECT * FROM clientes WHERE ativo = TRUE AND id > 0 ORDER BY id | IDX_CLIENTES_ATIVO_ID",
+            "SELECT * FROM clientes WHERE tipo_pessoa = 'FISICA' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_CLIENTES_TIPO_PESSOA_ATIVO_ID",
+            "SELECT * FROM clientes WHERE cidade = 'Rio' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_CLIENTES_CIDADE_ATIVO_ID",
+            "SELECT * FROM clientes WHERE estado = 'RJ' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_CLIENTES_ESTADO_ATIVO_ID",
+            "SELECT * FROM clientes WHERE email = 'a@b.com' | UK_CLIENTES_EMAIL",
+            "SELECT * FROM fornecedores WHERE cidade = 'Rio' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_FORNECEDORES_CIDADE_ATIVO_ID",
+            "SELECT * FROM fornecedores WHERE estado = 'RJ' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_FORNECEDORES_ESTADO_ATIVO_ID",
+            "SELECT * FROM funcionarios WHERE departamento = 'TI' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_FUNCIONARIOS_DEPARTAMENTO_ATIVO_ID",
+            "SELECT * FROM funcionarios WHERE cargo = 'Dev' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_FUNCIONARIOS_CARGO_ATIVO_ID",
+            "SELECT * FROM produtos WHERE categoria = 'Informática' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PRODUTOS_CATEGORIA_ATIVO_ID",
+            "SELECT * FROM produtos WHERE marca = 'Dell' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PRODUTOS_MARCA_ATIVO_ID",
+            "SELECT * FROM produtos WHERE ativo = TRUE AND preco BETWEEN 10 AND 20 | IDX_PRODUTOS_ATIVO_PRECO",
+            "SELECT * FROM produtos WHERE ativo = TRUE AND quantidade_estoque <= 5 | IDX_PRODUTOS_ATIVO_QUANTIDADE_ESTOQUE",
+            "SELECT * FROM projetos WHERE status = 'EM_ANDAMENTO' AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PROJETOS_STATUS_ATIVO_ID",
+            "SELECT * FROM projetos WHERE cliente_id = 1 AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PROJETOS_CLIENTE_ID_ATIVO_ID",
+            "SELECT * FROM projetos WHERE gerente_id = 1 AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PROJETOS_GERENTE_ID_ATIVO_ID",
+            "SELECT * FROM projetos WHERE prioridade = 1 AND ativo = TRUE AND id > 0 ORDER BY id | IDX_PROJETOS_PRIORIDADE_ATIVO_ID",
+            "SELECT * FROM projetos WHERE ativo = TRUE AND data_fim_prevista BETWEEN CURRENT_DATE AND CURRENT_DATE + 7 | IDX_PROJETOS_ATIVO_DATA_FIM_PREVISTA",
+            "SELECT * FROM projetos WHERE ativo = TRUE AND status = 'EM_ANDAMENTO' AND data_fim_prevista < CURRENT_DATE | IDX_PROJETOS_ATIVO_STATUS_DATA_FIM_PREVISTA"
+    })
+    void deveUsarIndiceDaMigracao(String consulta, String indice) {
+        String plano = jdbcTemplate.queryForObject("EXPLAIN " + consulta, String.class);
+
+        assertThat(plano).contains(indice);
+    }
+}
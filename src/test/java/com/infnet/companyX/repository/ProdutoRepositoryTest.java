@@ -4,6 +4,7 @@ import com.infnet.companyX.entity.Produto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
@@ -61,7 +62,7 @@ class ProdutoRepositoryTest {
 
     @Test
     void deveBuscarProdutosPorCategoria() {
-        List<Produto> produtos = produtoRepository.findByCategoria("Informática");
+        List<Produto> produtos = produtoRepository.findByCategoriaAndIdGreaterThanOrderByIdAsc("Informática", 0L, Limit.unlimited());
 
         assertThat(produtos).hasSize(2);
         assertThat(produtos).extracting(Produto::getCategoria)
@@ -70,7 +71,7 @@ class ProdutoRepositoryTest {
 
     @Test
     void deveBuscarProdutosPorMarca() {
-        List<Produto> produtos = produtoRepository.findByMarca("Dell");
+        List<Produto> produtos = produtoRepository.findByMarcaAndIdGreaterThanOrderByIdAsc("Dell", 0L, Limit.unlimited());
 
         assertThat(produtos).hasSize(1);
         assertThat(produtos.get(0).getNome()).isEqualTo("Notebook Dell");
@@ -81,12 +82,64 @@ class ProdutoRepositoryTest {
         produto1.setAtivo(false);
         entityManager.persistAndFlush(produto1);
 
-        List<Produto> produtos = produtoRepository.findByAtivoTrue();
+        List<Produto> produtos = produtoRepository.findAll();
 
         assertThat(produtos).hasSize(1);
         assertThat(produtos.get(0).getNome()).isEqualTo("Mouse Logitech");
     }
 
+    @Test
+    void deveBuscarAtivosAPartirDoCursor() {
+        List<Produto> primeiraPagina = produtoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1));
+
+        assertThat(primeiraPagina).hasSize(1);
+        assertThat(primeiraPagina.get(0).getNome()).isEqualTo("Notebook Dell");
+
+        List<Produto> segundaPagina = produtoRepository.findByIdGreaterThanOrderByIdAsc(
+                primeiraPagina.get(0).getId(), Limit.of(1));
+
+        assertThat(segundaPagina).hasSize(1);
+        assertThat(segundaPagina.get(0).getNome()).isEqualTo("Mouse Logitech");
+    }
+
+    @Test
+    void deveBuscarEstoqueBaixoAPartirDoCursor() {
+        produto1.setQuantidadeEstoque(2);
+        entityManager.persistAndFlush(produto1);
+
+        List<Produto> produtos = produtoRepository.findEstoqueBaixo(10, produto1.getId(), Limit.of(10));
+
+        assertThat(produtos).hasSize(1);
+        assertThat(produtos.get(0).getNome()).isEqualTo("Mouse Logitech");
+    }
+
+    @Test
+    void deveDevolverSaldoEVersaoGravadosPeloUpdate() {
+        produto1.setQuantidadeEstoque(5);
+        entityManager.persistAndFlush(produto1);
+        Long versao = produto1.getVersao();
+
+        ProdutoRepository.Saldo reservado = produtoRepository.reservarEstoque(produto1.getId(), 2).orElseThrow();
+        assertThat(reservado.getQuantidadeEstoque()).isEqualTo(3);
+        assertThat(reservado.getVersao()).isEqualTo(versao + 1);
+
+        ProdutoRepository.Saldo reposto = produtoRepository.reporEstoque(produto1.getId(), 4).orElseThrow();
+        assertThat(reposto.getQuantidadeEstoque()).isEqualTo(7);
+        assertThat(reposto.getVersao()).isEqualTo(versao + 2);
+
+        assertThat(produtoRepository.reservarEstoque(produto1.getId(), 8)).isEmpty();
+    }
+
+    @Test
+    void naoDeveMovimentarEstoqueDeInativo() {
+        produto1.setAtivo(false);
+        entityManager.persistAndFlush(produto1);
+
+        assertThat(produtoRepository.reservarEstoque(produto1.getId(), 1)).isEmpty();
+        assertThat(produtoRepository.reporEstoque(produto1.getId(), 1)).isEmpty();
+        assertThat(produtoRepository.reservarEstoque(produto2.getId(), 1)).isPresent();
+    }
+
     @Test
     void deveBuscarPorNomeContendo() {
         List<Produto> produtos = produtoRepository.findByNomeContaining("Dell");
@@ -99,7 +152,9 @@ class ProdutoRepositoryTest {
     void deveBuscarPorFaixaPreco() {
         List<Produto> produtos = produtoRepository.findByPrecoRange(
                 new BigDecimal("100.00"), 
-                new BigDecimal("200.00")
+                new BigDecimal("200.00"),
+                0L,
+                Limit.unlimited()
         );
 
         assertThat(produtos).hasSize(1);
@@ -108,7 +163,7 @@ class ProdutoRepositoryTest {
 
     @Test
     void deveBuscarEstoqueBaixo() {
-        List<Produto> produtos = produtoRepository.findEstoqueBaixo(8);
+        List<Produto> produtos = produtoRepository.findEstoqueBaixo(8, 0L, Limit.unlimited());
 
         assertThat(produtos).hasSize(1);
         assertThat(produtos.get(0).getNome()).isEqualTo("Mouse Logitech");
@@ -127,7 +182,7 @@ class ProdutoRepositoryTest {
         produto1.setQuantidadeEstoque(2);
         entityManager.persistAndFlush(produto1);
 
-        List<Produto> produtos = produtoRepository.findEstoqueBaixo(10);
+        List<Produto> produtos = produtoRepository.findEstoqueBaixo(10, 0L, Limit.unlimited());
 
         assertThat(produtos).hasSize(2);
         assertThat(produtos).extracting(Produto::getQuantidadeEstoque)
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -77,7 +78,7 @@ class ProjetoRepositoryTest {
 
     @Test
     void deveBuscarProjetosPorStatus() {
-        List<Projeto> projetos = projetoRepository.findByStatus(Projeto.StatusProjeto.EM_ANDAMENTO);
+        List<Projeto> projetos = projetoRepository.findByStatusAndIdGreaterThanOrderByIdAsc(Projeto.StatusProjeto.EM_ANDAMENTO, 0L, Limit.unlimited());
 
         assertThat(projetos).hasSize(1);
         assertThat(projetos.get(0).getNome()).isEqualTo("Sistema Web");
@@ -85,7 +86,7 @@ class ProjetoRepositoryTest {
 
     @Test
     void deveBuscarProjetosPorCliente() {
-        List<Projeto> projetos = projetoRepository.findByClienteId(cliente.getId());
+        List<Projeto> projetos = projetoRepository.findByClienteIdAndIdGreaterThanOrderByIdAsc(cliente.getId(), 0L, Limit.unlimited());
 
         assertThat(projetos).hasSize(2);
         assertThat(projetos).extracting(Projeto::getCliente)
@@ -94,7 +95,7 @@ class ProjetoRepositoryTest {
 
     @Test
     void deveBuscarProjetosPorGerente() {
-        List<Projeto> projetos = projetoRepository.findByGerenteId(gerente.getId());
+        List<Projeto> projetos = projetoRepository.findByGerenteIdAndIdGreaterThanOrderByIdAsc(gerente.getId(), 0L, Limit.unlimited());
 
         assertThat(projetos).hasSize(2);
         assertThat(projetos).extracting(Projeto::getGerente)
@@ -106,7 +107,7 @@ class ProjetoRepositoryTest {
         projeto1.setAtivo(false);
         entityManager.persistAndFlush(projeto1);
 
-        List<Projeto> projetos = projetoRepository.findByAtivoTrue();
+        List<Projeto> projetos = projetoRepository.findAll();
 
         assertThat(projetos).hasSize(1);
         assertThat(projetos.get(0).getNome()).isEqualTo("App Mobile");
@@ -124,7 +125,9 @@ class ProjetoRepositoryTest {
     void deveBuscarPorPrazoEntrega() {
         List<Projeto> projetos = projetoRepository.findByPrazoEntrega(
                 LocalDate.of(2024, 6, 1),
-                LocalDate.of(2024, 7, 31)
+                LocalDate.of(2024, 7, 31),
+                0L,
+                Limit.unlimited()
         );
 
         assertThat(projetos).hasSize(1);
@@ -133,7 +136,7 @@ class ProjetoRepositoryTest {
 
     @Test
     void deveBuscarPorPrioridade() {
-        List<Projeto> projetos = projetoRepository.findByPrioridade(1);
+        List<Projeto> projetos = projetoRepository.findByPrioridade(1, 0L, Limit.unlimited());
 
         assertThat(projetos).hasSize(1);
         assertThat(projetos.get(0).getNome()).isEqualTo("Sistema Web");
@@ -181,7 +184,7 @@ class ProjetoRepositoryTest {
         projeto3.setAtivo(true);
         entityManager.persistAndFlush(projeto3);
 
-        List<Projeto> projetos = projetoRepository.findByPrioridade(1);
+        List<Projeto> projetos = projetoRepository.findByPrioridade(1, 0L, Limit.unlimited());
 
         assertThat(projetos).hasSize(2);
         assertThat(projetos).extracting(Projeto::getPrioridade)
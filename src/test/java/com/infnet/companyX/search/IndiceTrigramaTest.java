@@ -0,0 +1,75 @@
+package com.infnet.companyX.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndiceTrigramaTest {
+
+    private IndiceTrigrama indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigrama();
+        indice.indexar(3L, "Notebook Dell Inspiron");
+        indice.indexar(1L, "Mouse Dell");
+        indice.indexar(2L, "Teclado Logitech");
+    }
+
+    @Test
+    void deveEncontrarPorSubstringEmOrdemDeId() {
+        List<Long> ids = indice.buscar("dell", 10);
+
+        assertThat(ids).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void deveIgnorarMaiusculasEAcentos() {
+        indice.indexar(4L, "João Gerente");
+
+        assertThat(indice.buscar("JOAO", 10)).containsExactly(4L);
+        assertThat(indice.buscar("ão g", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void naoDeveRetornarCandidatosQueSoCompartilhamTrigramas() {
+        indice.indexar(5L, "abcxbcd");
+
+        assertThat(indice.buscar("abcd", 10)).isEmpty();
+    }
+
+    @Test
+    void deveRecusarTermosCurtosSemTrigramas() {
+        assertThat(IndiceTrigrama.aceita("cl")).isFalse();
+        assertThat(IndiceTrigrama.aceita("Dél")).isTrue();
+        assertThatThrownBy(() -> indice.buscar("cl", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void deveRespeitarLimiteEmOrdemDeId() {
+        indice.indexar(0L, "Dell Latitude");
+
+        assertThat(indice.buscar("dell", 2)).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void deveReindexarTextoAlterado() {
+        indice.indexar(1L, "Mouse Logitech");
+
+        assertThat(indice.buscar("dell", 10)).containsExactly(3L);
+        assertThat(indice.buscar("logitech", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void deveRemoverDoIndice() {
+        indice.remover(3L);
+
+        assertThat(indice.buscar("dell", 10)).containsExactly(1L);
+        assertThat(indice.buscar("inspiron", 10)).isEmpty();
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,41 @@
+package com.infnet.companyX.virtual;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteConexoesFilterTest {
+
+    private final LimiteConexoesFilter filtro = new LimiteConexoesFilter(1, Duration.ofMillis(50));
+
+    @Test
+    void deveResponder503QuandoNaoHaLicencaEDevolverALicencaAoTerminar() throws Exception {
+        MockHttpServletResponse concorrente = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/clientes"), new MockHttpServletResponse(),
+                (req, res) -> filtro.doFilter(requisicao("/api/clientes"), concorrente, (r, s) -> { }));
+        assertThat(concorrente.getStatus()).isEqualTo(503);
+
+        MockHttpServletResponse seguinte = new MockHttpServletResponse();
+        filtro.doFilter(requisicao("/api/clientes"), seguinte, (req, res) -> { });
+        assertThat(seguinte.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void naoDeveLimitarForaDaApi() throws Exception {
+        MockHttpServletResponse actuator = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/clientes"), new MockHttpServletResponse(),
+                (req, res) -> filtro.doFilter(requisicao("/actuator/health"), actuator, (r, s) -> { }));
+
+        assertThat(actuator.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletRequest requisicao(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}